@@ -0,0 +1,223 @@
+/**
+ * Copyright (c) 2015, rpgtoolkit.net <help@rpgtoolkit.net>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public License, v. 2.0. If a copy of
+ * the MPL was not distributed with this file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package net.rpgtoolkit.editor.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+import net.rpgtoolkit.common.assets.AssetDescriptor;
+import net.rpgtoolkit.common.assets.AssetException;
+import net.rpgtoolkit.common.assets.AssetManager;
+import net.rpgtoolkit.common.assets.Board;
+import net.rpgtoolkit.common.assets.BoardLayer;
+import net.rpgtoolkit.common.assets.BoardProgram;
+import net.rpgtoolkit.common.assets.BoardSprite;
+import net.rpgtoolkit.common.assets.BoardVector;
+import net.rpgtoolkit.common.assets.Project;
+import net.rpgtoolkit.common.assets.SpecialMove;
+import net.rpgtoolkit.editor.utilities.AssetTools;
+import org.apache.commons.io.FileUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Measures loading and saving boards, projects and special moves through the same serializers the
+ * editor registers in MainWindow. Each asset is written once during setup, the "load" benchmarks
+ * then deserialize that file and the "save" benchmarks write the asset over it.
+ *
+ * Synthetic boards have no tiles, tiles need a tileset on disk, and instead carry vectors,
+ * programs and sprites in proportion to their size. To measure a real board, including legacy
+ * ".brd" files, pass its path with -p boardFile=... and the synthetic board is not used.
+ *
+ * Allocation rates come from the GC profiler, run either through main() or with:
+ * java -jar benchmarks/target/benchmarks.jar AssetSerializationBenchmark -prof gc
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class AssetSerializationBenchmark {
+
+  /**
+   * Width and height of the synthetic board in tiles.
+   */
+  @Param({"32", "128"})
+  private int boardSize;
+
+  /**
+   * Number of layers in the synthetic board.
+   */
+  @Param({"1", "8"})
+  private int boardLayers;
+
+  /**
+   * An existing board to use instead of the synthetic one, empty for none.
+   */
+  @Param({""})
+  private String boardFile;
+
+  private File directory;
+
+  private Board board;
+  private File boardTarget;
+
+  private Project project;
+  private File projectTarget;
+
+  private SpecialMove move;
+  private File moveTarget;
+
+  public static void main(String[] args) throws RunnerException {
+    new Runner(new OptionsBuilder()
+            .include(AssetSerializationBenchmark.class.getSimpleName())
+            .addProfiler(GCProfiler.class)
+            .build()).run();
+  }
+
+  @Setup
+  public void setUp() throws IOException, AssetException {
+    AssetTools.registerAssetHandlers();
+    directory = Files.createTempDirectory("asset-benchmark").toFile();
+
+    if (boardFile.isEmpty()) {
+      board = createBoard(boardSize, boardSize, boardLayers);
+    } else {
+      board = AssetTools.loadBoard(new File(boardFile));
+    }
+
+    boardTarget = new File(directory, "benchmark.brd.json");
+    board.saveAs(boardTarget);
+
+    project = new Project(directory.getPath(), "benchmark");
+    project.setGameTitle("Benchmark");
+    project.setInitBoard("benchmark.brd.json");
+    project.setStartupPrg("start.prg");
+    projectTarget = new File(directory, "benchmark.gam.json");
+    project.setFile(projectTarget);
+    project.save();
+
+    move = new SpecialMove();
+    move.setName("Fireball");
+    move.setDescription("Hurls a ball of fire at a single enemy.");
+    move.setMpCost(12);
+    move.setFightPower(40);
+    move.setRpgcodeProgram("fireball.prg");
+    move.setAssociatedAnimation("fireball.anm");
+    moveTarget = new File(directory, "benchmark.spc.json");
+    move.saveAs(moveTarget);
+  }
+
+  @TearDown
+  public void tearDown() throws IOException {
+    FileUtils.deleteDirectory(directory);
+  }
+
+  @Benchmark
+  public Object loadBoard() throws IOException, AssetException {
+    return load(boardTarget);
+  }
+
+  @Benchmark
+  public boolean saveBoard() {
+    return board.saveAs(boardTarget);
+  }
+
+  @Benchmark
+  public Object loadProject() throws IOException, AssetException {
+    return load(projectTarget);
+  }
+
+  @Benchmark
+  public boolean saveProject() {
+    return project.save();
+  }
+
+  @Benchmark
+  public Object loadSpecialMove() throws IOException, AssetException {
+    return load(moveTarget);
+  }
+
+  @Benchmark
+  public boolean saveSpecialMove() {
+    return move.saveAs(moveTarget);
+  }
+
+  private static Object load(File file) throws IOException, AssetException {
+    return AssetManager.getInstance().deserialize(
+            new AssetDescriptor(file.toURI())).getAsset();
+  }
+
+  /**
+   * Creates a board with one closed vector, one program and one sprite per 4x4 tiles on each
+   * layer.
+   */
+  private static Board createBoard(int width, int height, int layers) {
+    Board board = new Board(width, height);
+
+    for (int i = 0; i < layers; i++) {
+      board.addLayer();
+    }
+
+    for (int i = 0; i < layers; i++) {
+      BoardLayer layer = board.getLayers().get(i);
+
+      for (int x = 0; x < width; x += 4) {
+        for (int y = 0; y < height; y += 4) {
+          BoardVector vector = createVector(x, y, "wall-" + x + "-" + y);
+          vector.setLayer(i);
+          layer.getVectors().add(vector);
+
+          BoardProgram program = new BoardProgram();
+          program.setFileName("program-" + x + "-" + y + ".prg");
+          program.setVector(createVector(x + 1, y + 1, "program-" + x + "-" + y));
+          program.setLayer(i);
+          layer.getPrograms().add(program);
+
+          BoardSprite sprite = new BoardSprite();
+          sprite.setFileName("sprite.itm");
+          sprite.setX(x * 32 + 16);
+          sprite.setY(y * 32 + 16);
+          sprite.setActivationProgram("talk.prg");
+          sprite.setMultitaskingProgram("");
+          sprite.setLayer(i);
+          layer.getSprites().add(sprite);
+        }
+      }
+    }
+
+    return board;
+  }
+
+  private static BoardVector createVector(int x, int y, String handle) {
+    BoardVector vector = new BoardVector();
+    vector.setHandle(handle);
+    vector.addPoint(x * 32, y * 32);
+    vector.addPoint(x * 32 + 32, y * 32);
+    vector.addPoint(x * 32 + 32, y * 32 + 32);
+    vector.addPoint(x * 32, y * 32 + 32);
+    vector.setClosed(true);
+    return vector;
+  }
+
+}
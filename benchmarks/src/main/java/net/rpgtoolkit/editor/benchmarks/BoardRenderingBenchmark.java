@@ -0,0 +1,59 @@
+/**
+ * Copyright (c) 2015, rpgtoolkit.net <help@rpgtoolkit.net>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public License, v. 2.0. If a copy of
+ * the MPL was not distributed with this file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package net.rpgtoolkit.editor.benchmarks;
+
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+import net.rpgtoolkit.common.assets.TilePixelOutOfRangeException;
+import net.rpgtoolkit.editor.editors.board.BoardView2D;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures a full repaint of a board into the view's offscreen image. The view has no editor, so
+ * only the layers, sprites and start position are drawn, the editing overlays are not.
+ *
+ * Run with: java -jar benchmarks/target/benchmarks.jar BoardRenderingBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class BoardRenderingBenchmark {
+
+  @Param({"32", "128", "256"})
+  private int size;
+
+  @Param({"1", "4", "8"})
+  private int layers;
+
+  private BoardView2D view;
+
+  @Setup
+  public void setUp() throws TilePixelOutOfRangeException {
+    view = new BoardView2D(null, SyntheticBoards.createBoard(size, size, layers,
+            SyntheticBoards.createTiles(64)));
+  }
+
+  @Benchmark
+  public BufferedImage paintBoard() throws TilePixelOutOfRangeException {
+    view.paintBoard();
+    return view.getBufferedImage();
+  }
+
+}
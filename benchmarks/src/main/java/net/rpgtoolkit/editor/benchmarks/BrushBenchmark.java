@@ -0,0 +1,113 @@
+/**
+ * Copyright (c) 2015, rpgtoolkit.net <help@rpgtoolkit.net>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public License, v. 2.0. If a copy of
+ * the MPL was not distributed with this file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package net.rpgtoolkit.editor.benchmarks;
+
+import java.awt.Rectangle;
+import java.util.concurrent.TimeUnit;
+import net.rpgtoolkit.common.assets.Tile;
+import net.rpgtoolkit.common.assets.TilePixelOutOfRangeException;
+import net.rpgtoolkit.editor.editors.board.BoardView2D;
+import net.rpgtoolkit.editor.editors.board.BucketBrush;
+import net.rpgtoolkit.editor.editors.board.CustomBrush;
+import net.rpgtoolkit.editor.editors.board.ShapeBrush;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures one stroke of each brush on a single layer board, and copying a region of a layer as
+ * BoardEditor.createTileLayerFromRegion does when the selection is turned into a custom brush.
+ *
+ * Run with: java -jar benchmarks/target/benchmarks.jar BrushBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class BrushBenchmark {
+
+  /**
+   * Width and height of the board in tiles.
+   */
+  @Param({"64", "256"})
+  private int boardSize;
+
+  /**
+   * Width and height of the shape and custom brushes, and of the copied region, in tiles.
+   */
+  @Param({"1", "8", "32"})
+  private int brushSize;
+
+  private BoardView2D view;
+  private Tile[] palette;
+  private int stroke;
+
+  private BucketBrush bucketBrush;
+  private ShapeBrush shapeBrush;
+  private CustomBrush customBrush;
+  private Rectangle region;
+
+  @Setup
+  public void setUp() throws TilePixelOutOfRangeException {
+    palette = SyntheticBoards.createTiles(2);
+
+    // A uniform board so every bucket fill floods the whole layer.
+    view = new BoardView2D(null, SyntheticBoards.createBoard(boardSize, boardSize, 1,
+            new Tile[]{palette[0]}));
+
+    bucketBrush = new BucketBrush();
+    bucketBrush.startPaint(view, 0);
+
+    shapeBrush = new ShapeBrush();
+    shapeBrush.makeRectangleBrush(new Rectangle(0, 0, brushSize, brushSize));
+    shapeBrush.startPaint(view, 0);
+
+    customBrush = new CustomBrush(view.getLayer(0).copyRegion(
+            new Rectangle(0, 0, brushSize - 1, brushSize - 1)));
+    customBrush.startPaint(view, 0);
+
+    region = new Rectangle(0, 0, brushSize - 1, brushSize - 1);
+  }
+
+  /**
+   * Alternates the pour tile so every call refills the whole board.
+   *
+   * @return the area filled
+   */
+  @Benchmark
+  public Rectangle bucketBrush() {
+    bucketBrush.setPourTile(palette[++stroke & 1]);
+    return bucketBrush.doPaint(boardSize / 2, boardSize / 2, null);
+  }
+
+  @Benchmark
+  public Rectangle shapeBrush() throws Exception {
+    shapeBrush.setTile(palette[++stroke & 1]);
+    return shapeBrush.doPaint(boardSize / 2, boardSize / 2, null);
+  }
+
+  @Benchmark
+  public Rectangle customBrush() throws Exception {
+    return customBrush.doPaint(boardSize / 2, boardSize / 2, null);
+  }
+
+  @Benchmark
+  public Tile[][] createTileLayerFromRegion() {
+    return view.getLayer(0).copyRegion(region);
+  }
+
+}
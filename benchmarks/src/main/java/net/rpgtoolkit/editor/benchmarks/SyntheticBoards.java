@@ -0,0 +1,84 @@
+/**
+ * Copyright (c) 2015, rpgtoolkit.net <help@rpgtoolkit.net>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public License, v. 2.0. If a copy of
+ * the MPL was not distributed with this file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package net.rpgtoolkit.editor.benchmarks;
+
+import java.awt.Color;
+import net.rpgtoolkit.common.assets.Board;
+import net.rpgtoolkit.common.assets.BoardLayer;
+import net.rpgtoolkit.common.assets.Tile;
+import net.rpgtoolkit.common.assets.TilePixelOutOfRangeException;
+
+/**
+ * Builds boards in memory for the benchmarks, so they do not depend on a project on disk.
+ */
+final class SyntheticBoards {
+
+  private SyntheticBoards() {
+
+  }
+
+  /**
+   * Creates solid coloured tiles with a darker border, so no two neighbours draw the same.
+   *
+   * @param count the number of tiles
+   * @return the tiles
+   * @throws TilePixelOutOfRangeException never, the pixels written are always in range
+   */
+  static Tile[] createTiles(int count) throws TilePixelOutOfRangeException {
+    Tile[] tiles = new Tile[count];
+
+    for (int i = 0; i < count; i++) {
+      Color fill = Color.getHSBColor((float) i / count, 0.6f, 0.9f);
+      Color border = fill.darker();
+      Tile tile = new Tile();
+
+      for (int x = 0; x < 32; x++) {
+        for (int y = 0; y < 32; y++) {
+          boolean edge = x == 0 || y == 0 || x == 31 || y == 31;
+          tile.setPixel(x, y, edge ? border : fill);
+        }
+      }
+
+      tiles[i] = tile;
+    }
+
+    return tiles;
+  }
+
+  /**
+   * Creates a board whose first layer is completely filled and whose upper layers are half empty,
+   * roughly like a real board with ground, detail and overhead layers.
+   *
+   * @param width width in tiles
+   * @param height height in tiles
+   * @param layers number of layers
+   * @param palette tiles to fill the board with
+   * @return the board
+   */
+  static Board createBoard(int width, int height, int layers, Tile[] palette) {
+    Board board = new Board(width, height);
+
+    for (int i = 0; i < layers; i++) {
+      board.addLayer();
+    }
+
+    for (int i = 0; i < layers; i++) {
+      BoardLayer layer = board.getLayers().get(i);
+
+      for (int x = 0; x < width; x++) {
+        for (int y = 0; y < height; y++) {
+          if (i == 0 || (x + y + i) % 2 == 0) {
+            layer.setTileAt(x, y, palette[(x * 31 + y * 17 + i) % palette.length]);
+          }
+        }
+      }
+    }
+
+    return board;
+  }
+
+}
@@ -0,0 +1,343 @@
+/**
+ * Copyright (c) 2015, rpgtoolkit.net <help@rpgtoolkit.net>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public License, v. 2.0. If a copy of
+ * the MPL was not distributed with this file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package net.rpgtoolkit.editor;
+
+import java.awt.image.BufferedImage;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.imageio.ImageIO;
+import net.rpgtoolkit.common.assets.AssetException;
+import net.rpgtoolkit.common.assets.Board;
+import net.rpgtoolkit.common.assets.TilePixelOutOfRangeException;
+import net.rpgtoolkit.editor.editors.board.BoardRenderer;
+import net.rpgtoolkit.editor.utilities.AssetTools;
+import net.rpgtoolkit.editor.utilities.FileTools;
+
+/**
+ * Renders boards to PNG images without starting the editor, e.g. to generate map previews on a
+ * build server:
+ *
+ * <pre>
+ * java -cp editor.jar net.rpgtoolkit.editor.BoardExporter [options] board-or-directory...
+ *
+ *   --project DIR   the project's game directory, tilesets are loaded from here; defaults to the
+ *                   nearest directory at or above the first file or directory given that has a
+ *                   tileset directory in it
+ *   --output DIR    where to write the images, keeping each board's subdirectory below the
+ *                   directory it was found in; defaults to next to each board
+ *   --layers 0,2,3  only draw these layers, numbered from 0 at the bottom
+ *   --scale 0.25    draw smaller previews
+ *   --threads N     boards rendered at once; defaults to the number of processors
+ *   --memory MB     upper limit on image memory in use at once; defaults to half the heap
+ *   --strip-rows N  height in tiles of the strips large boards are streamed in; defaults to 16
+ *   --stream        stream every board in strips, not just the large ones
+ * </pre>
+ *
+ * Directories are searched recursively for ".brd" and ".brd.json" files. A ".brd" board with a
+ * ".brd.json" copy next to it, e.g. after migrating, is skipped in favour of the copy, and
+ * temporary files left by a failed save are ignored. Boards are rendered in
+ * parallel, but a board only starts once its image fits in the memory budget, so a few very large
+ * boards can't exhaust the heap. Boards whose image is larger than a thread's share of the budget
+ * are rendered a strip of rows at a time and streamed to the PNG encoder, so they only ever need
+ * one strip in memory. The exit status is the number of boards that failed, capped at 255.
+ */
+public class BoardExporter {
+
+  private static final long MEGABYTE = 1024 * 1024;
+
+  private File projectDirectory;
+  private File firstPath;
+  private File outputDirectory;
+  private Set<Integer> layers;
+  private double scale = 1.0;
+  private int threads = Runtime.getRuntime().availableProcessors();
+  private long memoryBudget = Runtime.getRuntime().maxMemory() / 2;
+  private int stripRows = 16;
+  private boolean stream;
+  private final List<File> boards = new ArrayList<>();
+  // The directory each board was found in, its subdirectories are kept below --output.
+  private final Map<File, File> roots = new HashMap<>();
+
+  public static void main(String[] args) {
+    System.setProperty("java.awt.headless", "true");
+
+    BoardExporter exporter = new BoardExporter();
+
+    try {
+      exporter.parseArguments(args);
+    } catch (IllegalArgumentException ex) {
+      System.err.println(ex.getMessage());
+      printUsage();
+      System.exit(255);
+    }
+
+    if (exporter.boards.isEmpty()) {
+      printUsage();
+      System.exit(255);
+    }
+
+    System.exit(Math.min(255, exporter.export()));
+  }
+
+  private static void printUsage() {
+    System.err.println("Usage: BoardExporter [--project DIR] [--output DIR] [--layers 0,1,...]"
+            + " [--scale S] [--threads N] [--memory MB] [--strip-rows N] [--stream]"
+            + " board-or-directory...");
+  }
+
+  private void parseArguments(String[] args) {
+    for (int i = 0; i < args.length; i++) {
+      String arg = args[i];
+
+      if (!arg.startsWith("--")) {
+        File file = new File(arg).getAbsoluteFile();
+
+        if (firstPath == null) {
+          firstPath = file;
+        }
+
+        findBoards(file.isDirectory() ? file : file.getParentFile(), file);
+        continue;
+      }
+
+      if (arg.equals("--stream")) {
+        stream = true;
+        continue;
+      }
+
+      if (i + 1 >= args.length) {
+        throw new IllegalArgumentException("Missing value for " + arg);
+      }
+
+      String value = args[++i];
+
+      try {
+        switch (arg) {
+          case "--project":
+            projectDirectory = new File(value);
+            break;
+          case "--output":
+            outputDirectory = new File(value);
+            break;
+          case "--layers":
+            layers = new HashSet<>();
+
+            for (String layer : value.split(",")) {
+              layers.add(Integer.parseInt(layer.trim()));
+            }
+            break;
+          case "--scale":
+            scale = Double.parseDouble(value);
+            break;
+          case "--threads":
+            threads = Integer.parseInt(value);
+            break;
+          case "--memory":
+            memoryBudget = Long.parseLong(value) * MEGABYTE;
+            break;
+          case "--strip-rows":
+            stripRows = Integer.parseInt(value);
+            break;
+          default:
+            throw new IllegalArgumentException("Unknown option " + arg);
+        }
+      } catch (NumberFormatException ex) {
+        throw new IllegalArgumentException("Invalid value for " + arg + ": " + value);
+      }
+    }
+
+    if (scale <= 0 || threads <= 0 || memoryBudget < MEGABYTE || stripRows <= 0) {
+      throw new IllegalArgumentException(
+              "--scale, --threads, --memory and --strip-rows must be positive");
+    }
+
+    if (projectDirectory == null && firstPath != null) {
+      projectDirectory = FileTools.findProjectDirectory(firstPath);
+
+      if (projectDirectory == null) {
+        throw new IllegalArgumentException("No project directory found above " + firstPath
+                + ", use --project");
+      }
+    }
+  }
+
+  private void findBoards(File root, File file) {
+    if (file.isDirectory()) {
+      File[] children = file.listFiles();
+
+      if (children != null) {
+        for (File child : children) {
+          findBoards(root, child);
+        }
+      }
+    } else if (AssetTools.isBoardFile(file)) {
+      // Both formats of the same board would be written to the same image.
+      boolean migrated = file.getName().toLowerCase().endsWith(".brd")
+              && new File(file.getPath() + ".json").isFile();
+
+      if (!migrated && !roots.containsKey(file)) {
+        boards.add(file);
+        roots.put(file, root);
+      }
+    } else if (!file.exists()) {
+      throw new IllegalArgumentException("No such file " + file);
+    }
+  }
+
+  /**
+   * Renders every board that was found.
+   *
+   * @return the number of boards that failed
+   */
+  private int export() {
+    System.setProperty("project.path", projectDirectory.getAbsolutePath() + File.separator);
+    AssetTools.registerAssetHandlers();
+
+    if (outputDirectory != null && !outputDirectory.isDirectory() && !outputDirectory.mkdirs()) {
+      System.err.println("Failed to create " + outputDirectory);
+      return boards.size();
+    }
+
+    // One permit per megabyte of image memory.
+    final int permits = (int) Math.min(Integer.MAX_VALUE, memoryBudget / MEGABYTE);
+    final Semaphore budget = new Semaphore(permits);
+
+    ExecutorService executor = Executors.newFixedThreadPool(threads, new ThreadFactory() {
+      private final AtomicInteger count = new AtomicInteger();
+
+      @Override
+      public Thread newThread(Runnable runnable) {
+        Thread thread = new Thread(runnable, "board-exporter-" + count.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+      }
+    });
+
+    long start = System.nanoTime();
+    List<Future<String>> results = new ArrayList<>();
+
+    for (final File file : boards) {
+      results.add(executor.submit(new Callable<String>() {
+        @Override
+        public String call() throws Exception {
+          return exportBoard(file, budget, permits);
+        }
+      }));
+    }
+
+    int failed = 0;
+
+    for (int i = 0; i < results.size(); i++) {
+      try {
+        System.out.println(results.get(i).get());
+      } catch (ExecutionException ex) {
+        failed++;
+        System.err.println("Failed " + boards.get(i) + ": " + ex.getCause());
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+        failed += results.size() - i;
+        break;
+      }
+    }
+
+    executor.shutdownNow();
+
+    System.out.println(String.format("Exported %d of %d boards in %d ms",
+            boards.size() - failed, boards.size(),
+            TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)));
+
+    return failed;
+  }
+
+  private String exportBoard(File file, Semaphore budget, int permits)
+          throws IOException, AssetException, TilePixelOutOfRangeException, InterruptedException {
+    long start = System.nanoTime();
+    Board board = AssetTools.loadBoard(file);
+    BoardRenderer renderer = new BoardRenderer(board, layers);
+
+    // Stream anything that would take more than this thread's share of the budget.
+    boolean streamed = stream || renderer.getImageBytes(scale) > memoryBudget / threads;
+    long bytes = streamed ? renderer.getStripBytes(scale, stripRows)
+            : renderer.getImageBytes(scale);
+    int needed = (int) Math.min(permits, (bytes + MEGABYTE - 1) / MEGABYTE);
+
+    if (bytes > memoryBudget) {
+      throw new IOException("Strip needs " + bytes / MEGABYTE + " MB, more than the "
+              + memoryBudget / MEGABYTE + " MB budget, try fewer --strip-rows");
+    }
+
+    File target = getOutputFile(file);
+    File temporary = FileTools.getTemporaryFile(target);
+    budget.acquire(needed);
+
+    try {
+      if (streamed) {
+        try (OutputStream out = new BufferedOutputStream(new FileOutputStream(temporary))) {
+          renderer.writePng(out, scale, stripRows);
+        }
+      } else {
+        BufferedImage image = renderer.render(scale);
+
+        if (!ImageIO.write(image, "png", temporary)) {
+          throw new IOException("No PNG writer available");
+        }
+      }
+
+      FileTools.moveAtomically(temporary, target);
+    } finally {
+      budget.release(needed);
+
+      if (temporary.exists()) {
+        temporary.delete();
+      }
+    }
+
+    return String.format("%s -> %s (%dx%d%s) in %d ms", file.getName(), target.getPath(),
+            (int) Math.ceil(renderer.getWidth() * scale),
+            (int) Math.ceil(renderer.getHeight() * scale), streamed ? ", streamed" : "",
+            TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+  }
+
+  private File getOutputFile(File board) throws IOException {
+    String name = board.getName();
+    String extension = name.toLowerCase().endsWith(".brd.json") ? ".brd.json" : ".brd";
+    name = name.substring(0, name.length() - extension.length()) + ".png";
+
+    if (outputDirectory == null) {
+      return new File(board.getParentFile(), name);
+    }
+
+    String relative = roots.get(board).toURI().relativize(board.getParentFile().toURI()).getPath();
+    File directory = new File(outputDirectory, relative);
+
+    // Another thread may create it at the same time.
+    if (!directory.mkdirs() && !directory.isDirectory()) {
+      throw new IOException("Failed to create " + directory);
+    }
+
+    return new File(directory, name);
+  }
+
+}
@@ -0,0 +1,599 @@
+/**
+ * Copyright (c) 2015, rpgtoolkit.net <help@rpgtoolkit.net>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public License, v. 2.0. If a copy of
+ * the MPL was not distributed with this file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package net.rpgtoolkit.editor;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import net.rpgtoolkit.common.assets.AssetDescriptor;
+import net.rpgtoolkit.common.assets.AssetException;
+import net.rpgtoolkit.common.assets.AssetManager;
+import net.rpgtoolkit.common.assets.Board;
+import net.rpgtoolkit.common.assets.BoardLayer;
+import net.rpgtoolkit.common.assets.BoardProgram;
+import net.rpgtoolkit.common.assets.BoardSprite;
+import net.rpgtoolkit.common.assets.BoardVector;
+import net.rpgtoolkit.common.assets.Project;
+import net.rpgtoolkit.common.assets.SpecialMove;
+import net.rpgtoolkit.common.assets.Tile;
+import net.rpgtoolkit.editor.utilities.AssetTools;
+import net.rpgtoolkit.editor.utilities.FileTools;
+
+/**
+ * Converts a project's legacy binary assets to JSON without starting the editor, so they no
+ * longer have to go through the legacy parsers every time they are opened:
+ *
+ * <pre>
+ * java -cp editor.jar net.rpgtoolkit.editor.LegacyMigrator [options] file-or-directory...
+ *
+ *   --project DIR     the project's game directory, tilesets are loaded from here; defaults to the
+ *                     nearest directory at or above the first file or directory given that has
+ *                     a tileset directory in it
+ *   --threads N       assets converted at once; defaults to the number of processors
+ *   --force           convert assets that already have a JSON file, replacing it
+ *   --remove-legacy   delete each binary file once its JSON file has been verified
+ * </pre>
+ *
+ * Boards (".brd"), projects (".gam") and special moves (".spc") are converted, each is written
+ * next to the original with ".json" appended, e.g. "town.brd.json". Characters, enemies and
+ * animations don't have a JSON format yet so they are counted and left alone.
+ *
+ * Every conversion is verified before it replaces anything: the JSON file is written to a
+ * temporary file, read back through the AssetManager and compared with the legacy asset. The
+ * comparison digests each part of the asset, e.g. the tiles of one layer, so a mismatch reports
+ * which part changed. Empty cells are fine, but a board with a tile that has no tileset, or isn't
+ * in its tileset, fails, as the tile would be lost from the JSON file. Throughput and the time
+ * spent in the legacy and JSON parsers are printed at the end. The exit status is the number of
+ * assets that failed, capped at 255.
+ */
+public class LegacyMigrator {
+
+  private enum Format {
+
+    BOARD(".brd"),
+    PROJECT(".gam"),
+    SPECIAL_MOVE(".spc"),
+    NO_JSON_FORMAT(".tem", ".ene", ".anm");
+
+    private final String[] extensions;
+
+    private Format(String... extensions) {
+      this.extensions = extensions;
+    }
+
+    private static Format of(File file) {
+      String name = file.getName().toLowerCase();
+
+      for (Format format : values()) {
+        for (String extension : format.extensions) {
+          if (name.endsWith(extension)) {
+            return format;
+          }
+        }
+      }
+
+      return null;
+    }
+
+  }
+
+  /**
+   * The outcome of converting one asset.
+   */
+  private static class Result {
+
+    private final File file;
+    private final Format format;
+    private final File target;
+    private String skipped;
+    private long legacyBytes;
+    private long legacyNanos;
+    private long jsonNanos;
+    private long totalNanos;
+
+    private Result(File file, Format format) {
+      this.file = file;
+      this.format = format;
+      this.target = new File(file.getPath() + ".json");
+    }
+
+  }
+
+  private File projectDirectory;
+  private File firstPath;
+  private int threads = Runtime.getRuntime().availableProcessors();
+  private boolean force;
+  private boolean removeLegacy;
+  private final List<Result> results = new ArrayList<>();
+
+  public static void main(String[] args) {
+    System.setProperty("java.awt.headless", "true");
+
+    LegacyMigrator migrator = new LegacyMigrator();
+
+    try {
+      migrator.parseArguments(args);
+    } catch (IllegalArgumentException ex) {
+      System.err.println(ex.getMessage());
+      printUsage();
+      System.exit(255);
+    }
+
+    if (migrator.results.isEmpty()) {
+      printUsage();
+      System.exit(255);
+    }
+
+    System.exit(Math.min(255, migrator.migrate()));
+  }
+
+  private static void printUsage() {
+    System.err.println("Usage: LegacyMigrator [--project DIR] [--threads N] [--force]"
+            + " [--remove-legacy] file-or-directory...");
+  }
+
+  private void parseArguments(String[] args) {
+    for (int i = 0; i < args.length; i++) {
+      String arg = args[i];
+
+      if (!arg.startsWith("--")) {
+        File file = new File(arg).getAbsoluteFile();
+
+        if (firstPath == null) {
+          firstPath = file;
+        }
+
+        findAssets(file);
+        continue;
+      }
+
+      switch (arg) {
+        case "--force":
+          force = true;
+          continue;
+        case "--remove-legacy":
+          removeLegacy = true;
+          continue;
+        case "--project":
+        case "--threads":
+          break;
+        default:
+          throw new IllegalArgumentException("Unknown option " + arg);
+      }
+
+      if (i + 1 >= args.length) {
+        throw new IllegalArgumentException("Missing value for " + arg);
+      }
+
+      String value = args[++i];
+
+      if (arg.equals("--project")) {
+        projectDirectory = new File(value);
+        continue;
+      }
+
+      try {
+        threads = Integer.parseInt(value);
+      } catch (NumberFormatException ex) {
+        throw new IllegalArgumentException("Invalid value for " + arg + ": " + value);
+      }
+    }
+
+    if (threads <= 0) {
+      throw new IllegalArgumentException("--threads must be positive");
+    }
+
+    if (projectDirectory == null && firstPath != null) {
+      projectDirectory = FileTools.findProjectDirectory(firstPath);
+
+      if (projectDirectory == null) {
+        throw new IllegalArgumentException("No project directory found above " + firstPath
+                + ", use --project");
+      }
+    }
+  }
+
+  private void findAssets(File file) {
+    if (file.isDirectory()) {
+      File[] children = file.listFiles();
+
+      if (children != null) {
+        for (File child : children) {
+          findAssets(child);
+        }
+      }
+    } else if (FileTools.isTemporaryFile(file)) {
+      return;
+    } else if (Format.of(file) != null) {
+      results.add(new Result(file, Format.of(file)));
+    } else if (!file.exists()) {
+      throw new IllegalArgumentException("No such file " + file);
+    }
+  }
+
+  /**
+   * Converts every asset that was found.
+   *
+   * @return the number of assets that failed
+   */
+  private int migrate() {
+    System.setProperty("project.path", projectDirectory.getAbsolutePath() + File.separator);
+    AssetTools.registerAssetHandlers();
+
+    ExecutorService executor = Executors.newFixedThreadPool(threads, new ThreadFactory() {
+      private final AtomicInteger count = new AtomicInteger();
+
+      @Override
+      public Thread newThread(Runnable runnable) {
+        Thread thread = new Thread(runnable, "legacy-migrator-" + count.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+      }
+    });
+
+    long start = System.nanoTime();
+    List<Future<Result>> futures = new ArrayList<>();
+
+    for (final Result result : results) {
+      futures.add(executor.submit(new Callable<Result>() {
+        @Override
+        public Result call() throws Exception {
+          convert(result);
+          return result;
+        }
+      }));
+    }
+
+    int failed = 0;
+    int converted = 0;
+    int skipped = 0;
+    long legacyBytes = 0;
+    long legacyNanos = 0;
+    long jsonNanos = 0;
+
+    for (int i = 0; i < futures.size(); i++) {
+      Result result = results.get(i);
+
+      try {
+        futures.get(i).get();
+      } catch (ExecutionException ex) {
+        failed++;
+        System.err.println("FAILED  " + result.file + ": " + ex.getCause());
+        continue;
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+        failed += futures.size() - i;
+        break;
+      }
+
+      if (result.skipped != null) {
+        skipped++;
+        System.out.println("SKIPPED " + result.file + ": " + result.skipped);
+        continue;
+      }
+
+      converted++;
+      legacyBytes += result.legacyBytes;
+      legacyNanos += result.legacyNanos;
+      jsonNanos += result.jsonNanos;
+
+      System.out.println(String.format("OK      %s -> %s (legacy %d ms, json %d ms, total %d ms)",
+              result.file, result.target.getName(), toMillis(result.legacyNanos),
+              toMillis(result.jsonNanos), toMillis(result.totalNanos)));
+    }
+
+    executor.shutdownNow();
+
+    long elapsed = System.nanoTime() - start;
+    double seconds = Math.max(1, elapsed) / 1e9;
+
+    System.out.println();
+    System.out.println(String.format("Converted %d, skipped %d, failed %d of %d assets in %d ms"
+            + " on %d threads", converted, skipped, failed, results.size(), toMillis(elapsed),
+            threads));
+    System.out.println(String.format("Throughput %.1f assets/s", converted / seconds));
+
+    if (converted > 0) {
+      System.out.println(String.format("Legacy input %.1f KB/s", legacyBytes / 1024.0 / seconds));
+      System.out.println(String.format("Parsing: legacy %d ms, json %d ms over %d assets",
+              toMillis(legacyNanos), toMillis(jsonNanos), converted));
+    }
+
+    return failed;
+  }
+
+  /**
+   * Converts one asset, verifying the JSON file before it is moved into place.
+   *
+   * @param result the asset to convert and where to record the outcome
+   * @throws IOException if the JSON file could not be written, or doesn't match the legacy asset
+   * @throws AssetException if the JSON file could not be read back
+   */
+  private void convert(Result result) throws IOException, AssetException {
+    if (result.format == Format.NO_JSON_FORMAT) {
+      result.skipped = "no JSON format for this type yet";
+      return;
+    }
+
+    if (result.target.exists() && !force) {
+      result.skipped = result.target.getName() + " already exists, use --force to replace it";
+      return;
+    }
+
+    result.legacyBytes = result.file.length();
+
+    long start = System.nanoTime();
+    Object legacy = loadLegacy(result);
+    result.legacyNanos = System.nanoTime() - start;
+
+    Map<String, byte[]> expected = fingerprint(legacy);
+    File temporary = FileTools.getTemporaryFile(result.target);
+
+    try {
+      if (!save(legacy, temporary)) {
+        throw new IOException("Failed to write " + temporary.getName());
+      }
+
+      long loaded = System.nanoTime();
+      Object converted = AssetManager.getInstance().deserialize(
+              new AssetDescriptor(temporary.toURI())).getAsset();
+      result.jsonNanos = System.nanoTime() - loaded;
+
+      List<String> differences = compare(expected, fingerprint(converted));
+
+      if (!differences.isEmpty()) {
+        throw new IOException("Round trip changed " + differences);
+      }
+
+      FileTools.moveAtomically(temporary, result.target);
+    } finally {
+      if (temporary.exists()) {
+        temporary.delete();
+      }
+    }
+
+    if (removeLegacy && !result.file.delete()) {
+      throw new IOException("Converted, but failed to delete " + result.file);
+    }
+
+    result.totalNanos = System.nanoTime() - start;
+  }
+
+  private Object loadLegacy(Result result) {
+    switch (result.format) {
+      case BOARD:
+        Board board = new Board(result.file);
+        board.openBinary();
+        return board;
+      case PROJECT:
+        Project project = new Project(result.file, System.getProperty("project.path"));
+        project.openBinary();
+        return project;
+      case SPECIAL_MOVE:
+        return new SpecialMove(result.file);
+      default:
+        throw new IllegalArgumentException("Can't convert " + result.file);
+    }
+  }
+
+  /**
+   * Writes an asset in its JSON format, the same way its editor saves it.
+   */
+  private boolean save(Object asset, File file) {
+    if (asset instanceof Board) {
+      return ((Board) asset).saveAs(file);
+    } else if (asset instanceof SpecialMove) {
+      return ((SpecialMove) asset).saveAs(file);
+    }
+
+    Project project = (Project) asset;
+    project.setFile(file);
+    return project.save();
+  }
+
+  /**
+   * Digests each part of an asset that the JSON formats store.
+   *
+   * @param asset a board, project or special move
+   * @return a digest for each part, in a stable order
+   * @throws IOException if a board has a tile that isn't in a tileset
+   */
+  private static Map<String, byte[]> fingerprint(Object asset) throws IOException {
+    Fingerprint fingerprint = new Fingerprint();
+
+    if (asset instanceof Board) {
+      fingerprintBoard(fingerprint, (Board) asset);
+    } else if (asset instanceof SpecialMove) {
+      SpecialMove move = (SpecialMove) asset;
+      fingerprint.section("special move");
+      fingerprint.add(move.getName(), move.getDescription(), move.getFightPower(),
+              move.getMpCost(), move.getMpDrainedFromTarget(), move.getCanUseInBattle(),
+              move.getCanUseInMenu(), move.getAssociatedStatusEffect(),
+              move.getAssociatedAnimation(), move.getRpgcodeProgram());
+    } else {
+      Project project = (Project) asset;
+      fingerprint.section("project");
+      fingerprint.add(project.getGameTitle(), project.getResolutionWidth(),
+              project.getResolutionHeight(), project.getResolutionMode(),
+              project.getColourDepth(), project.getFullscreenMode(), project.getJoystickStatus(),
+              project.getCursorMoveSound(), project.getCursorSelectSound(),
+              project.getCursorCancelSound());
+
+      fingerprint.section("project startup");
+      fingerprint.add(project.getInitBoard(), project.getInitChar(), project.getStartupPrg(),
+              project.getGameOverProgram());
+
+      fingerprint.section("project controls");
+      fingerprint.add(project.getRunKey(), project.getMenuKey(), project.getFightingEnabled());
+    }
+
+    return fingerprint.finish();
+  }
+
+  private static void fingerprintBoard(Fingerprint fingerprint, Board board)
+          throws IOException {
+    fingerprint.section("board");
+    fingerprint.add(board.getWidth(), board.getHeight(), board.getBackgroundMusic(),
+            board.getFirstRunProgram(), board.getStartingPositionX(),
+            board.getStartingPositionY());
+
+    if (board.getDirectionalLinks() != null) {
+      for (String link : board.getDirectionalLinks()) {
+        fingerprint.add(link);
+      }
+    }
+
+    // Tiles are shared instances, only look each one up in its tileset once.
+    Map<Tile, Integer> indices = new IdentityHashMap<>();
+    List<BoardLayer> layers = board.getLayers();
+
+    for (int i = 0; i < layers.size(); i++) {
+      BoardLayer layer = layers.get(i);
+
+      fingerprint.section("layer " + i + " tiles");
+
+      for (int x = 0; x < board.getWidth(); x++) {
+        for (int y = 0; y < board.getHeight(); y++) {
+          Tile tile = layer.getTileAt(x, y);
+
+          if (tile == null) {
+            fingerprint.add("");
+            continue;
+          }
+
+          Integer index = null;
+
+          if (tile.getTileSet() != null) {
+            index = indices.get(tile);
+
+            if (index == null) {
+              index = tile.getTileSet().getTiles().indexOf(tile);
+              indices.put(tile, index);
+            }
+          }
+
+          // The JSON file would silently lose it.
+          if (index == null || index < 0) {
+            throw new IOException("Unresolved tile on layer " + i + " at " + x + ", " + y);
+          }
+
+          fingerprint.add(tile.getTileSet().getName(), index);
+        }
+      }
+
+      fingerprint.section("layer " + i + " vectors");
+      for (BoardVector vector : layer.getVectors()) {
+        fingerprintVector(fingerprint, vector);
+      }
+
+      fingerprint.section("layer " + i + " sprites");
+      for (BoardSprite sprite : layer.getSprites()) {
+        fingerprint.add(sprite.getFileName(), (int) sprite.getX(), (int) sprite.getY(),
+                sprite.getActivationProgram(), sprite.getMultitaskingProgram());
+      }
+
+      fingerprint.section("layer " + i + " programs");
+      for (BoardProgram program : layer.getPrograms()) {
+        fingerprint.add(program.getFileName());
+        fingerprintVector(fingerprint, program.getVector());
+      }
+    }
+  }
+
+  private static void fingerprintVector(Fingerprint fingerprint, BoardVector vector) {
+    fingerprint.add(vector.getHandle(), vector.getTileType(), vector.isClosed(),
+            vector.getPointCount());
+
+    for (int i = 0; i < vector.getPointCount(); i++) {
+      fingerprint.add(vector.getPointX(i), vector.getPointY(i));
+    }
+  }
+
+  private static List<String> compare(Map<String, byte[]> expected, Map<String, byte[]> actual) {
+    List<String> differences = new ArrayList<>();
+
+    for (Map.Entry<String, byte[]> entry : expected.entrySet()) {
+      if (!Arrays.equals(entry.getValue(), actual.get(entry.getKey()))) {
+        differences.add(entry.getKey());
+      }
+    }
+
+    for (String section : actual.keySet()) {
+      if (!expected.containsKey(section)) {
+        differences.add(section);
+      }
+    }
+
+    return differences;
+  }
+
+  private static long toMillis(long nanos) {
+    return TimeUnit.NANOSECONDS.toMillis(nanos);
+  }
+
+  /**
+   * Builds a digest for each named section of an asset, so large boards can be compared without
+   * holding a copy of every tile.
+   */
+  private static class Fingerprint {
+
+    private final Map<String, byte[]> sections = new LinkedHashMap<>();
+    private String section;
+    private MessageDigest digest;
+
+    private void section(String name) {
+      finishSection();
+      section = name;
+
+      try {
+        digest = MessageDigest.getInstance("SHA-1");
+      } catch (NoSuchAlgorithmException ex) {
+        // Every Java platform is required to provide SHA-1.
+        throw new IllegalStateException(ex);
+      }
+    }
+
+    private void add(Object... values) {
+      for (Object value : values) {
+        // Null and "" are stored the same way by the legacy formats.
+        String text = value == null ? "" : value.toString();
+        digest.update(text.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+      }
+    }
+
+    private Map<String, byte[]> finish() {
+      finishSection();
+      return sections;
+    }
+
+    private void finishSection() {
+      if (section != null) {
+        sections.put(section, digest.digest());
+        section = null;
+      }
+    }
+
+  }
+
+}
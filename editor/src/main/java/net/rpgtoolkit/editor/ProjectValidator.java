@@ -0,0 +1,494 @@
+/**
+ * Copyright (c) 2015, rpgtoolkit.net <help@rpgtoolkit.net>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public License, v. 2.0. If a copy of
+ * the MPL was not distributed with this file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package net.rpgtoolkit.editor;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import net.rpgtoolkit.common.assets.Animation;
+import net.rpgtoolkit.common.assets.AssetDescriptor;
+import net.rpgtoolkit.common.assets.AssetException;
+import net.rpgtoolkit.common.assets.AssetManager;
+import net.rpgtoolkit.common.assets.Board;
+import net.rpgtoolkit.common.assets.Enemy;
+import net.rpgtoolkit.common.assets.Player;
+import net.rpgtoolkit.common.assets.PlayerSpecialMove;
+import net.rpgtoolkit.common.assets.SpecialMove;
+import net.rpgtoolkit.common.assets.TileSet;
+import net.rpgtoolkit.common.utilities.PropertiesSingleton;
+import net.rpgtoolkit.editor.utilities.AssetReferenceIndex;
+import net.rpgtoolkit.editor.utilities.AssetTools;
+import net.rpgtoolkit.editor.utilities.FileTools;
+
+/**
+ * Checks every asset in a project without starting the editor, e.g. before a release or on a build
+ * server:
+ *
+ * <pre>
+ * java -cp editor.jar net.rpgtoolkit.editor.ProjectValidator [options] project-directory
+ *
+ *   --threads N   assets loaded at once; defaults to the number of processors
+ *   --quiet       only list the assets that have problems
+ * </pre>
+ *
+ * The project directory is the game directory created by
+ * {@link net.rpgtoolkit.editor.utilities.FileTools#createDirectoryStructure(String, String)}, i.e.
+ * what "project.path" points at while the editor has the project open. Every board, tileset,
+ * animation, special move, character and enemy is deserialized in parallel, the same way the editor
+ * opens it, and the files it refers to are checked for. Each asset is reported with how long it
+ * took to load along with any parse error or broken reference. The exit status is the number of
+ * assets with problems, capped at 255.
+ */
+public class ProjectValidator {
+
+  /**
+   * The outcome of checking one asset.
+   */
+  private static class Result {
+
+    private final AssetType type;
+    private final File file;
+    private final List<String> problems = new ArrayList<>();
+    private boolean parseError;
+    private long nanos;
+
+    private Result(AssetType type, File file) {
+      this.type = type;
+      this.file = file;
+    }
+
+  }
+
+  /**
+   * The kinds of asset that are checked, the directory they live in and how they are loaded.
+   */
+  private enum AssetType {
+
+    BOARD("Boards", "toolkit.directory.board", ".brd", ".brd.json"),
+    TILESET("Tilesets", "toolkit.directory.tileset", ".tst"),
+    ANIMATION("Animations", "toolkit.directory.misc", ".anm"),
+    SPECIAL_MOVE("Special moves", "toolkit.directory.specialmove", ".spc", ".spc.json"),
+    CHARACTER("Characters", "toolkit.directory.character", ".tem"),
+    ENEMY("Enemies", "toolkit.directory.enemy", ".ene");
+
+    private final String description;
+    private final String directoryProperty;
+    private final String[] extensions;
+
+    private AssetType(String description, String directoryProperty, String... extensions) {
+      this.description = description;
+      this.directoryProperty = directoryProperty;
+      this.extensions = extensions;
+    }
+
+    private String getDirectory() {
+      return PropertiesSingleton.getProperty(directoryProperty);
+    }
+
+    private boolean accepts(File file) {
+      String name = file.getName().toLowerCase();
+
+      for (String extension : extensions) {
+        if (name.endsWith(extension)) {
+          return true;
+        }
+      }
+
+      return false;
+    }
+
+  }
+
+  private File projectDirectory;
+  private int threads = Runtime.getRuntime().availableProcessors();
+  private boolean quiet;
+
+  public static void main(String[] args) {
+    System.setProperty("java.awt.headless", "true");
+
+    ProjectValidator validator = new ProjectValidator();
+
+    try {
+      validator.parseArguments(args);
+    } catch (IllegalArgumentException ex) {
+      System.err.println(ex.getMessage());
+      printUsage();
+      System.exit(255);
+    }
+
+    System.exit(Math.min(255, validator.validate()));
+  }
+
+  private static void printUsage() {
+    System.err.println("Usage: ProjectValidator [--threads N] [--quiet] project-directory");
+  }
+
+  private void parseArguments(String[] args) {
+    for (int i = 0; i < args.length; i++) {
+      String arg = args[i];
+
+      if (!arg.startsWith("--")) {
+        if (projectDirectory != null) {
+          throw new IllegalArgumentException("Only one project directory can be validated");
+        }
+
+        projectDirectory = new File(arg).getAbsoluteFile();
+        continue;
+      }
+
+      if (arg.equals("--quiet")) {
+        quiet = true;
+        continue;
+      }
+
+      if (!arg.equals("--threads")) {
+        throw new IllegalArgumentException("Unknown option " + arg);
+      }
+
+      if (i + 1 >= args.length) {
+        throw new IllegalArgumentException("Missing value for " + arg);
+      }
+
+      String value = args[++i];
+
+      try {
+        threads = Integer.parseInt(value);
+      } catch (NumberFormatException ex) {
+        throw new IllegalArgumentException("Invalid value for " + arg + ": " + value);
+      }
+    }
+
+    if (projectDirectory == null) {
+      throw new IllegalArgumentException("No project directory given");
+    }
+
+    if (!projectDirectory.isDirectory()) {
+      throw new IllegalArgumentException("No such directory " + projectDirectory);
+    }
+
+    if (threads <= 0) {
+      throw new IllegalArgumentException("--threads must be positive");
+    }
+  }
+
+  /**
+   * Checks every asset in the project.
+   *
+   * @return the number of assets with problems, plus one for each missing project directory
+   */
+  private int validate() {
+    System.setProperty("project.path", projectDirectory.getPath() + File.separator);
+    AssetTools.registerAssetHandlers();
+
+    int failed = 0;
+
+    for (String directory : PropertiesSingleton.getDirectories()) {
+      if (!new File(projectDirectory, directory).isDirectory()) {
+        failed++;
+        System.out.println("MISSING " + directory + File.separator);
+      }
+    }
+
+    List<Result> results = new ArrayList<>();
+
+    for (AssetType type : AssetType.values()) {
+      findAssets(type, new File(projectDirectory, type.getDirectory()), results);
+    }
+
+    ExecutorService executor = Executors.newFixedThreadPool(threads, new ThreadFactory() {
+      private final AtomicInteger count = new AtomicInteger();
+
+      @Override
+      public Thread newThread(Runnable runnable) {
+        Thread thread = new Thread(runnable, "project-validator-" + count.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+      }
+    });
+
+    long start = System.nanoTime();
+    List<Future<Result>> futures = new ArrayList<>();
+
+    for (final Result result : results) {
+      futures.add(executor.submit(new Callable<Result>() {
+        @Override
+        public Result call() {
+          check(result);
+          return result;
+        }
+      }));
+    }
+
+    for (int i = 0; i < futures.size(); i++) {
+      Result result = results.get(i);
+
+      try {
+        futures.get(i).get();
+      } catch (ExecutionException ex) {
+        result.parseError = true;
+        result.problems.add(String.valueOf(ex.getCause()));
+      } catch (InterruptedException ex) {
+        Thread.currentThread().interrupt();
+        failed += futures.size() - i;
+        break;
+      }
+
+      if (!result.problems.isEmpty()) {
+        failed++;
+      }
+
+      print(result);
+    }
+
+    executor.shutdownNow();
+    printSummary(results, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+
+    return failed;
+  }
+
+  private void findAssets(AssetType type, File file, List<Result> results) {
+    if (file.isDirectory()) {
+      File[] children = file.listFiles();
+
+      if (children != null) {
+        for (File child : children) {
+          findAssets(type, child, results);
+        }
+      }
+    } else if (type.accepts(file) && !FileTools.isTemporaryFile(file)) {
+      results.add(new Result(type, file));
+    }
+  }
+
+  /**
+   * Loads an asset and checks that everything it refers to exists. Legacy loaders report failures
+   * inconsistently, so anything thrown, and an asset with no content, counts as a parse error.
+   *
+   * @param result where to record the outcome
+   */
+  private void check(Result result) {
+    long start = System.nanoTime();
+    File file = result.file;
+
+    try {
+      switch (result.type) {
+        case BOARD:
+          checkBoard(result, AssetTools.loadBoard(file));
+          break;
+        case TILESET:
+          TileSet tileSet = new TileSet(file);
+
+          if (tileSet.getTileCount() == 0) {
+            parseError(result, "tileset has no tiles");
+          }
+          break;
+        case ANIMATION:
+          checkAnimation(result, new Animation(file));
+          break;
+        case SPECIAL_MOVE:
+          checkSpecialMove(result, loadSpecialMove(file));
+          break;
+        case CHARACTER:
+          checkCharacter(result, new Player(file));
+          break;
+        case ENEMY:
+          checkEnemy(result, new Enemy(file));
+          break;
+      }
+    } catch (IOException | AssetException | RuntimeException ex) {
+      parseError(result, ex.toString());
+    } finally {
+      result.nanos = System.nanoTime() - start;
+    }
+  }
+
+  private void checkBoard(Result result, Board board) {
+    for (String reference : AssetReferenceIndex.extractReferences(board)) {
+      checkReference(result, reference);
+    }
+  }
+
+  private void checkAnimation(Result result, Animation animation) {
+    if (animation.getFrameCount() == 0) {
+      parseError(result, "animation has no frames");
+      return;
+    }
+
+    for (int i = 0; i < animation.getFrameCount(); i++) {
+      checkReference(result, "toolkit.directory.bitmap", animation.getFrame(i).getFrameName());
+      checkReference(result, "toolkit.directory.media", animation.getFrame(i).getFrameSound());
+    }
+  }
+
+  private SpecialMove loadSpecialMove(File file) throws IOException, AssetException {
+    if (file.getName().toLowerCase().endsWith(".spc")) {
+      return new SpecialMove(file);
+    }
+
+    return (SpecialMove) AssetManager.getInstance().deserialize(
+            new AssetDescriptor(file.toURI())).getAsset();
+  }
+
+  private void checkSpecialMove(Result result, SpecialMove move) {
+    checkReference(result, "toolkit.directory.misc", move.getAssociatedAnimation());
+    checkReference(result, "toolkit.directory.program", move.getRpgcodeProgram());
+    checkReference(result, "toolkit.directory.statuseffect", move.getAssociatedStatusEffect());
+  }
+
+  private void checkCharacter(Result result, Player player) {
+    checkReferences(result, "toolkit.directory.misc", player.getStandardGraphics());
+    checkReferences(result, "toolkit.directory.misc", player.getCustomGraphics());
+    checkReference(result, "toolkit.directory.bitmap", player.getProfilePicture());
+    checkReference(result, "toolkit.directory.program", player.getProgramOnLevelUp());
+
+    if (player.getSpecialMoveList() != null) {
+      for (PlayerSpecialMove move : player.getSpecialMoveList()) {
+        checkReference(result, "toolkit.directory.specialmove", move.getName());
+      }
+    }
+  }
+
+  private void checkEnemy(Result result, Enemy enemy) {
+    checkReferences(result, "toolkit.directory.misc", enemy.getStandardGraphics());
+    checkReferences(result, "toolkit.directory.misc", enemy.getCustomizedGraphics());
+    checkReference(result, "toolkit.directory.program", enemy.getRunAwayProgram());
+    checkReference(result, "toolkit.directory.program", enemy.getBeatEnemyProgram());
+    checkReference(result, "toolkit.directory.program", enemy.getTacticsFile());
+    checkReferences(result, "toolkit.directory.specialmove", enemy.getSpecialMoves());
+    checkReferences(result, "toolkit.directory.specialmove", enemy.getStrengths());
+    checkReferences(result, "toolkit.directory.specialmove", enemy.getWeaknesses());
+  }
+
+  private void checkReferences(Result result, String directoryProperty, List<String> names) {
+    if (names == null) {
+      return;
+    }
+
+    for (String name : names) {
+      checkReference(result, directoryProperty, name);
+    }
+  }
+
+  private void checkReference(Result result, String directoryProperty, String name) {
+    if (name != null && !name.isEmpty()) {
+      checkReference(result, AssetReferenceIndex.normalize(
+              PropertiesSingleton.getProperty(directoryProperty) + "/" + name));
+    }
+  }
+
+  /**
+   *
+   * @param result where to record a broken reference
+   * @param reference path relative to the project directory using "/" as the separator
+   */
+  private void checkReference(Result result, String reference) {
+    File target = new File(projectDirectory, reference.replace('/', File.separatorChar));
+
+    if (!target.isFile()) {
+      result.problems.add("missing " + reference);
+    }
+  }
+
+  private void parseError(Result result, String message) {
+    result.parseError = true;
+    result.problems.add("failed to load: " + message);
+  }
+
+  private void print(Result result) {
+    if (quiet && result.problems.isEmpty()) {
+      return;
+    }
+
+    String status = result.parseError ? "ERROR " : result.problems.isEmpty() ? "OK    " : "BROKEN";
+    System.out.println(String.format("%s %s (%d ms)", status, relativize(result.file),
+            TimeUnit.NANOSECONDS.toMillis(result.nanos)));
+
+    for (String problem : result.problems) {
+      System.out.println("       " + problem);
+    }
+  }
+
+  private void printSummary(List<Result> results, long elapsedMillis) {
+    Map<AssetType, int[]> counts = new LinkedHashMap<>();
+
+    for (AssetType type : AssetType.values()) {
+      // Checked, with parse errors, with broken references, total load time in ms.
+      counts.put(type, new int[4]);
+    }
+
+    for (Result result : results) {
+      int[] count = counts.get(result.type);
+      count[0]++;
+      count[3] += TimeUnit.NANOSECONDS.toMillis(result.nanos);
+
+      if (result.parseError) {
+        count[1]++;
+      } else if (!result.problems.isEmpty()) {
+        count[2]++;
+      }
+    }
+
+    System.out.println();
+
+    for (Map.Entry<AssetType, int[]> entry : counts.entrySet()) {
+      int[] count = entry.getValue();
+      System.out.println(String.format("%-14s %5d checked, %4d parse errors, %4d broken, %6d ms",
+              entry.getKey().description, count[0], count[1], count[2], count[3]));
+    }
+
+    List<Result> slowest = new ArrayList<>(results);
+    Collections.sort(slowest, new Comparator<Result>() {
+      @Override
+      public int compare(Result a, Result b) {
+        return Long.compare(b.nanos, a.nanos);
+      }
+    });
+
+    if (!slowest.isEmpty()) {
+      System.out.println();
+      System.out.println("Slowest:");
+
+      for (Result result : slowest.subList(0, Math.min(5, slowest.size()))) {
+        System.out.println(String.format("  %6d ms %s",
+                TimeUnit.NANOSECONDS.toMillis(result.nanos), relativize(result.file)));
+      }
+    }
+
+    System.out.println();
+    System.out.println(String.format("Validated %d assets in %d ms on %d threads",
+            results.size(), elapsedMillis, threads));
+  }
+
+  private String relativize(File file) {
+    String root = projectDirectory.getPath();
+    String path = file.getPath();
+
+    if (path.startsWith(root)) {
+      path = path.substring(root.length());
+
+      while (path.startsWith(File.separator)) {
+        path = path.substring(1);
+      }
+    }
+
+    return AssetReferenceIndex.normalize(path);
+  }
+
+}
@@ -7,19 +7,26 @@
 package net.rpgtoolkit.editor.editors;
 
 import java.awt.*;
-import java.awt.image.BufferedImage;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
 import java.io.File;
-import java.util.ArrayList;
 import javax.swing.*;
 import javax.swing.border.Border;
 import javax.swing.border.EtchedBorder;
+import javax.swing.event.ChangeEvent;
+import javax.swing.event.ChangeListener;
 
-import net.rpgtoolkit.common.assets.Tile;
 import net.rpgtoolkit.common.assets.Animation;
 
+import net.rpgtoolkit.editor.ui.AnimationPlayer;
+import net.rpgtoolkit.editor.ui.AnimationTimeline;
 import net.rpgtoolkit.editor.ui.MainWindow;
 import net.rpgtoolkit.editor.ui.ToolkitEditorWindow;
 import net.rpgtoolkit.editor.ui.Gui;
+import net.rpgtoolkit.editor.utilities.AnimationCache;
+import net.rpgtoolkit.editor.utilities.CachedAnimation;
 
 /**
  *
@@ -30,12 +37,20 @@ public class AnimationEditor extends ToolkitEditorWindow {
 
   private final Animation animation;
   private JPanel timeLinePanel;
+  private AnimationTimeline timeLine;
   private JPanel framePanel;
   private JPanel controlPanel;
 
   private final Border defaultEtchedBorder = BorderFactory.
           createEtchedBorder(EtchedBorder.LOWERED);
 
+  // FRAME PANEL
+  private AnimationPlayer previewPlayer;
+  private JToggleButton playButton;
+  private JSlider scrubber;
+  private JLabel timingLabel;
+  private Timer timingTimer;
+
   // CONTROL PANEL
   private JTextField frameWidth;
   private JTextField frameHeight;
@@ -61,7 +76,17 @@ public class AnimationEditor extends ToolkitEditorWindow {
    * *************************************************************************
    */
   @Override
-  public boolean save() {
+  public File prepareSave() {
+    return this.animation.getFile();
+  }
+
+  @Override
+  public void setModelFile(File file) {
+    this.animation.setFile(file);
+  }
+
+  @Override
+  public boolean writeModel() {
     return this.animation.save();
   }
 
@@ -82,6 +107,13 @@ public class AnimationEditor extends ToolkitEditorWindow {
 
   }
 
+  @Override
+  public void dispose() {
+    this.timingTimer.stop();
+    this.previewPlayer.stop();
+    super.dispose();
+  }
+
   public void setWindowParent(MainWindow parent) {
 
   }
@@ -102,6 +134,7 @@ public class AnimationEditor extends ToolkitEditorWindow {
 
     this.framePanel = new JPanel();
     //this.framePanel.setBackground(new Color(255,0,255));
+    this.configureFramePanel();
 
     this.timeLinePanel = new JPanel();
     this.timeLinePanel.setBorder(BorderFactory.createTitledBorder(
@@ -111,6 +144,17 @@ public class AnimationEditor extends ToolkitEditorWindow {
     this.controlPanel = new JPanel();
     this.configureControlPanel();
 
+    this.timeLine.addPropertyChangeListener("selectedFrame",
+            new PropertyChangeListener() {
+      @Override
+      public void propertyChange(PropertyChangeEvent e) {
+        int frame = (Integer) e.getNewValue();
+        frameFile.setText(animation.getFrame(frame).getFrameName());
+        frameSound.setText(animation.getFrame(frame).getFrameSound());
+        previewPlayer.setFrame(frame);
+      }
+    });
+
     layout.setHorizontalGroup(layout.createParallelGroup(GroupLayout.Alignment.CENTER)
             .addGroup(layout.createSequentialGroup()
                     .addComponent(this.framePanel)
@@ -122,11 +166,125 @@ public class AnimationEditor extends ToolkitEditorWindow {
             .addGroup(layout.createParallelGroup()
                     .addComponent(this.framePanel)
                     .addComponent(this.controlPanel))
-            .addComponent(this.timeLinePanel, 75, 75, 75)
+            .addComponent(this.timeLinePanel, 120, 120, 120)
     );
 
   }
 
+  private void configureFramePanel() {
+    this.previewPlayer = new AnimationPlayer();
+
+    this.playButton = new JToggleButton("Play");
+    this.playButton.setEnabled(false);
+    this.playButton.addActionListener(new ActionListener() {
+      @Override
+      public void actionPerformed(ActionEvent e) {
+        if (playButton.isSelected()) {
+          playButton.setText("Pause");
+          previewPlayer.play();
+          timingTimer.start();
+        } else {
+          playButton.setText("Play");
+          previewPlayer.pause();
+          timingTimer.stop();
+        }
+      }
+    });
+
+    this.scrubber = new JSlider(0, Math.max(0,
+            (int) this.animation.getFrameCount() - 1), 0);
+    this.scrubber.setEnabled(false);
+    this.scrubber.addChangeListener(new ChangeListener() {
+      @Override
+      public void stateChanged(ChangeEvent e) {
+        previewPlayer.setFrame(scrubber.getValue());
+      }
+    });
+
+    this.previewPlayer.addPropertyChangeListener("frame",
+            new PropertyChangeListener() {
+      @Override
+      public void propertyChange(PropertyChangeEvent e) {
+        scrubber.setValue((Integer) e.getNewValue());
+      }
+    });
+
+    this.timingLabel = new JLabel(" ");
+    this.timingTimer = new Timer(500, new ActionListener() {
+      @Override
+      public void actionPerformed(ActionEvent e) {
+        updateTimingLabel();
+      }
+    });
+
+    JPanel stage = new JPanel(new GridBagLayout());
+    stage.add(this.previewPlayer);
+
+    JPanel playbackPanel = new JPanel();
+    GroupLayout layout = Gui.createGroupLayout(playbackPanel);
+
+    layout.setHorizontalGroup(layout.createParallelGroup()
+            .addGroup(layout.createSequentialGroup()
+                    .addComponent(this.playButton)
+                    .addComponent(this.scrubber))
+            .addComponent(this.timingLabel)
+    );
+
+    layout.setVerticalGroup(layout.createSequentialGroup()
+            .addGroup(layout.createParallelGroup(GroupLayout.Alignment.CENTER)
+                    .addComponent(this.playButton)
+                    .addComponent(this.scrubber))
+            .addComponent(this.timingLabel)
+    );
+
+    this.framePanel.setLayout(new BorderLayout());
+    this.framePanel.setBorder(BorderFactory.createTitledBorder(
+            this.defaultEtchedBorder, "Preview"));
+    this.framePanel.add(stage, BorderLayout.CENTER);
+    this.framePanel.add(playbackPanel, BorderLayout.SOUTH);
+
+    // Decoding reads every frame's image, keep it off the EDT.
+    Thread decoder = new Thread(new Runnable() {
+      @Override
+      public void run() {
+        final CachedAnimation decoded = AnimationCache.decode(animation);
+
+        SwingUtilities.invokeLater(new Runnable() {
+          @Override
+          public void run() {
+            previewPlayer.setAnimation(decoded);
+            playButton.setEnabled(decoded.getFrameCount() > 0);
+            scrubber.setEnabled(decoded.getFrameCount() > 1);
+            updateTimingLabel();
+          }
+        });
+      }
+    }, "animation-preview-decoder");
+    decoder.setDaemon(true);
+    decoder.start();
+  }
+
+  /**
+   * Shows the target frame time next to the one actually achieved while playing, highlighting it
+   * when playback falls more than 10% behind.
+   */
+  private void updateTimingLabel() {
+    int target = this.previewPlayer.getFrameDelay();
+    double average = this.previewPlayer.getAverageFrameTime();
+
+    if (average == 0) {
+      this.timingLabel.setForeground(UIManager.getColor("Label.foreground"));
+      this.timingLabel.setText(String.format("Target: %d ms", target));
+      return;
+    }
+
+    this.timingLabel.setForeground(average > target * 1.1
+            ? Color.RED : UIManager.getColor("Label.foreground"));
+    this.timingLabel.setText(String.format(
+            "Target: %d ms   Actual: %.1f ms avg, %.1f ms max", target, average,
+            this.previewPlayer.getMaxFrameTime()));
+  }
+
   private void configureControlPanel() {
     this.frameWidth = new JTextField(Long.toString(this.animation.getAnimationWidth()));
     this.frameHeight = new JTextField(Long.toString(this.animation.getAnimationHeight()));
@@ -233,40 +391,16 @@ public class AnimationEditor extends ToolkitEditorWindow {
   }
 
   private void configureTimeLine() {
-    long frameCount = this.animation.getFrameCount();
-    ArrayList<JLabel> frames = new ArrayList<>();
+    this.timeLine = new AnimationTimeline(this.animation);
 
-    for (int i = 0; i < frameCount; i++) {
-      JLabel tempButton = new JLabel();
+    JScrollPane scrollPane = new JScrollPane(this.timeLine,
+            ScrollPaneConstants.VERTICAL_SCROLLBAR_NEVER,
+            ScrollPaneConstants.HORIZONTAL_SCROLLBAR_AS_NEEDED);
+    scrollPane.setBorder(null);
+    scrollPane.getHorizontalScrollBar().setUnitIncrement(
+            AnimationTimeline.THUMBNAIL_SIZE);
 
-      if (!this.animation.getFrame(i).getFrameName().equals("")) {
-
-        BufferedImage bi = new BufferedImage(
-                (int) this.animation.getAnimationWidth(),
-                (int) this.animation.getAnimationHeight(),
-                BufferedImage.TYPE_4BYTE_ABGR);
-        Graphics2D g = bi.createGraphics();
-
-        Tile aTile = this.animation.getFrame(i).getFrameTile();
-        // Draw the tile
-
-        BufferedImage test = aTile.getTileAsImage();
-
-        tempButton.setIcon(new ImageIcon(aTile.getTileAsImage()));
-        tempButton.paint(g);
-
-        if (i == 0) {
-          tempButton.setBorder(BorderFactory.createLineBorder(Color.RED));
-        } else {
-          tempButton.setBorder(BorderFactory.createLineBorder(Color.BLACK));
-        }
-
-        this.timeLinePanel.add(tempButton);
-      }
-    }
-
-    for (JLabel button : frames) {
-      this.timeLinePanel.add(button);
-    }
+    this.timeLinePanel.setLayout(new BorderLayout());
+    this.timeLinePanel.add(scrollPane, BorderLayout.CENTER);
   }
 }
@@ -12,16 +12,29 @@ import java.awt.Point;
 import java.awt.Rectangle;
 import java.io.File;
 import java.io.FileNotFoundException;
+import java.io.IOException;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import javax.swing.JOptionPane;
 import javax.swing.JScrollPane;
+import javax.swing.SwingUtilities;
 import javax.swing.JViewport;
 import net.rpgtoolkit.common.assets.Tile;
+import net.rpgtoolkit.common.assets.AssetException;
+import net.rpgtoolkit.common.assets.AssetManager;
 import net.rpgtoolkit.common.assets.Board;
+import net.rpgtoolkit.common.assets.BoardChangeListener;
+import net.rpgtoolkit.common.assets.BoardChangedEvent;
 import net.rpgtoolkit.editor.editors.board.AbstractBrush;
+import net.rpgtoolkit.editor.editors.board.BoardJournal;
+import net.rpgtoolkit.editor.editors.board.BucketBrush;
+import net.rpgtoolkit.editor.editors.board.CustomBrush;
+import net.rpgtoolkit.editor.editors.board.ShapeBrush;
 import net.rpgtoolkit.common.Selectable;
 import net.rpgtoolkit.editor.ui.MainWindow;
 import net.rpgtoolkit.editor.ui.ToolkitEditorWindow;
+import net.rpgtoolkit.editor.utilities.AssetTools;
+import net.rpgtoolkit.editor.utilities.metrics.MetricsRegistry;
 
 /**
  *
@@ -46,6 +59,9 @@ public class BoardEditor extends ToolkitEditorWindow {
 
   private Selectable selectedObject;
 
+  private BoardJournal journal;
+  private boolean objectsJournalPending;
+
   /**
    * Default Constructor.
    */
@@ -85,6 +101,7 @@ public class BoardEditor extends ToolkitEditorWindow {
     board = new Board(width, height);
     board.addLayer();
     init(board, fileName);
+    setDirty(true);
   }
 
   /**
@@ -237,21 +254,63 @@ public class BoardEditor extends ToolkitEditorWindow {
    * @return
    */
   @Override
-  public boolean save() {
-    boolean success = false;
-    
+  public File prepareSave() {
     if (board.getFile() == null) {
       File file = MainWindow.getInstance().saveByType(Board.class);
-      
-      if (file != null) {
-        success = board.saveAs(file);
-        setTitle("Editing - " + file.getName());
+
+      if (file == null) {
+        return null;
       }
-    } else {
-      success = board.save();
+
+      board.setFile(file);
+    }
+
+    return board.getFile();
+  }
+
+  @Override
+  public void setModelFile(File file) {
+    board.setFile(file);
+  }
+
+  @Override
+  public boolean writeModel() {
+    try {
+      AssetManager.getInstance().serialize(AssetManager.getInstance().getHandle(board));
+      return true;
+    } catch (IOException | AssetException ex) {
+      Logger.getLogger(BoardEditor.class.getName()).log(Level.SEVERE, null, ex);
+      return false;
+    }
+  }
+
+  /**
+   *
+   * @param file
+   */
+  @Override
+  public void saveCompleted(File file) {
+    setTitle("Editing - " + file.getName());
+    MainWindow.getInstance().getReferenceIndex().indexBoard(file, board);
+
+    // The saved board is the new base, start a fresh journal which may also be at a new location.
+    if (journal != null) {
+      journal.close();
     }
-    
-    return success;
+    journal = new BoardJournal(board, file, false);
+  }
+
+  /**
+   * Stops journaling, the journal is only kept if the editor does not close cleanly.
+   */
+  @Override
+  public void dispose() {
+    if (journal != null) {
+      journal.close();
+      journal = null;
+    }
+
+    super.dispose();
   }
   
   /**
@@ -302,33 +361,53 @@ public class BoardEditor extends ToolkitEditorWindow {
         return;
       }
 
+      long start = System.nanoTime();
       brush.startPaint(boardView, boardView.
               getCurrentSelectedLayer().getLayer().getNumber());
-      brush.doPaint(point.x, point.y, selection);
+      Rectangle region = brush.doPaint(point.x, point.y, selection);
       brush.endPaint();
+      MetricsRegistry.getInstance().timer("brush.stroke."
+              + brush.getClass().getSimpleName().replace("Brush", "").toLowerCase()).stop(start);
+      setDirty(true);
+
+      if (region != null
+              && (brush instanceof ShapeBrush || brush instanceof CustomBrush)) {
+        // The returned bounds are in tiles but can be off by one at the edges.
+        region.grow(1, 1);
+        tilesChanged(region);
+      } else if (brush instanceof BucketBrush) {
+        tilesChanged(null);
+      }
     } catch (Exception ex) {
       Logger.getLogger(BoardEditor.class.getName()).log(
               Level.SEVERE, null, ex);
     }
   }
 
+  /**
+   * Records changed tiles in the journal and fires a "tilesChanged" property change whose new
+   * value is the changed region in tiles, so views of the board can update just that part.
+   *
+   * @param region the changed tiles, or null if they could be anywhere on the board
+   */
+  private void tilesChanged(Rectangle region) {
+    if (journal != null) {
+      journal.recordTiles(region);
+    }
+
+    Rectangle changed = region != null ? new Rectangle(region)
+            : new Rectangle(0, 0, boardView.getBoard().getWidth(),
+                    boardView.getBoard().getHeight());
+    firePropertyChange("tilesChanged", null, changed);
+  }
+
   /**
    *
    * @param rectangle
    * @return
    */
   public Tile[][] createTileLayerFromRegion(Rectangle rectangle) {
-    Tile[][] tiles = new Tile[rectangle.width + 1][rectangle.height + 1];
-
-    for (int y = rectangle.y; y <= rectangle.y + rectangle.height; y++) {
-      for (int x = rectangle.x; x <= rectangle.x + rectangle.width; x++) {
-        tiles[x - rectangle.x][y - rectangle.y]
-                = boardView.getCurrentSelectedLayer().
-                getLayer().getTileAt(x, y);
-      }
-    }
-
-    return tiles;
+    return boardView.getCurrentSelectedLayer().copyRegion(rectangle);
   }
 
   /**
@@ -361,9 +440,85 @@ public class BoardEditor extends ToolkitEditorWindow {
   }
 
   private void init(Board board, String fileName) {
+    boolean recovered = false;
+    boolean keepJournal = false;
+
+    if (board.getFile() != null) {
+      try {
+        Board recoveredBoard = recoverJournal(board);
+
+        if (recoveredBoard != null) {
+          board = recoveredBoard;
+          this.board = recoveredBoard;
+          recovered = true;
+        }
+      } catch (IOException | AssetException | RuntimeException ex) {
+        Logger.getLogger(BoardEditor.class.getName()).log(Level.SEVERE, null, ex);
+        JOptionPane.showMessageDialog(MainWindow.getInstance(),
+                "The unsaved changes to " + board.getFile().getName()
+                + " could not be recovered, the last saved copy has been opened instead.\n"
+                + "The changes are kept until the board is saved.",
+                "Recover Board",
+                JOptionPane.WARNING_MESSAGE);
+        keepJournal = true;
+      }
+    }
+
     boardView = new BoardView2D(this, board);
     boardView.addMouseListener(boardMouseAdapter);
     boardView.addMouseMotionListener(boardMouseAdapter);
+    board.addBoardChangeListener(new BoardChangeListener() {
+      @Override
+      public void boardChanged(BoardChangedEvent e) {
+        setDirty(true);
+        journalObjects();
+      }
+
+      @Override
+      public void boardLayerAdded(BoardChangedEvent e) {
+        setDirty(true);
+
+        if (journal != null) {
+          journal.layerAdded(e.getLayer());
+        }
+      }
+
+      @Override
+      public void boardLayerMovedUp(BoardChangedEvent e) {
+        setDirty(true);
+
+        if (journal != null) {
+          journal.layerMovedUp(e.getLayer());
+        }
+      }
+
+      @Override
+      public void boardLayerMovedDown(BoardChangedEvent e) {
+        setDirty(true);
+
+        if (journal != null) {
+          journal.layerMovedDown(e.getLayer());
+        }
+      }
+
+      @Override
+      public void boardLayerCloned(BoardChangedEvent e) {
+        setDirty(true);
+
+        if (journal != null) {
+          journal.layerCloned(e.getLayer());
+        }
+      }
+
+      @Override
+      public void boardLayerDeleted(BoardChangedEvent e) {
+        setDirty(true);
+
+        if (journal != null) {
+          journal.layerDeleted(e.getLayer());
+        }
+      }
+    });
 
     scrollPane = new JScrollPane(boardView);
     scrollPane.getViewport().setScrollMode(JViewport.SIMPLE_SCROLL_MODE);
@@ -375,5 +530,65 @@ public class BoardEditor extends ToolkitEditorWindow {
     setTitle("Editing - " + fileName);
     add(scrollPane);
     pack();
+
+    // A fresh journal would truncate one that failed to replay, so don't journal until saved.
+    if (board.getFile() != null && !keepJournal) {
+      journal = new BoardJournal(board, board.getFile(), recovered);
+    }
+
+    setDirty(recovered);
+  }
+
+  /**
+   * Offers to replay a journal left behind by an editor that did not close cleanly. The journal is
+   * replayed into a freshly loaded copy of the board, so one that fails part way through leaves
+   * the board as it was last saved.
+   *
+   * @param board the board as it was last saved
+   * @return the copy with the edits recovered, or null if there was nothing to recover
+   * @throws IOException if the board could not be reloaded or the journal could not be read
+   * @throws AssetException if the board could not be reloaded
+   */
+  private Board recoverJournal(Board board) throws IOException, AssetException {
+    File journalFile = BoardJournal.getJournalFile(board.getFile());
+
+    if (!journalFile.exists()) {
+      return null;
+    }
+
+    int result = JOptionPane.showConfirmDialog(MainWindow.getInstance(),
+            "Unsaved changes to " + board.getFile().getName()
+            + " were found from a previous session, recover them?",
+            "Recover Board",
+            JOptionPane.YES_NO_OPTION);
+
+    if (result != JOptionPane.YES_OPTION) {
+      return null;
+    }
+
+    Board copy = AssetTools.loadBoard(board.getFile());
+    return BoardJournal.replay(copy, journalFile) > 0 ? copy : null;
+  }
+
+  /**
+   * Records the board's vectors, sprites and programs once the current burst of change events is
+   * over, brushes and the properties panel can fire several per edit.
+   */
+  private void journalObjects() {
+    if (journal == null || objectsJournalPending) {
+      return;
+    }
+
+    objectsJournalPending = true;
+    SwingUtilities.invokeLater(new Runnable() {
+      @Override
+      public void run() {
+        objectsJournalPending = false;
+
+        if (journal != null) {
+          journal.recordObjects();
+        }
+      }
+    });
   }
 }
@@ -27,7 +27,6 @@ import javax.swing.JTabbedPane;
 import javax.swing.JTextField;
 import javax.swing.JToggleButton;
 import javax.swing.SwingConstants;
-import javax.swing.Timer;
 import javax.swing.border.Border;
 import javax.swing.border.EtchedBorder;
 import javax.swing.event.DocumentEvent;
@@ -43,10 +42,14 @@ import net.rpgtoolkit.common.assets.Program;
 import net.rpgtoolkit.common.assets.SpecialMove;
 import net.rpgtoolkit.editor.ui.Gui;
 import net.rpgtoolkit.editor.ui.IntegerField;
+import net.rpgtoolkit.editor.ui.AnimationPlayer;
+import net.rpgtoolkit.editor.ui.DebouncedAssetResolver;
 import net.rpgtoolkit.editor.ui.MainWindow;
 import net.rpgtoolkit.editor.ui.ToolkitEditorWindow;
 import net.rpgtoolkit.editor.ui.WholeNumberField;
 import net.rpgtoolkit.common.utilities.PropertiesSingleton;
+import net.rpgtoolkit.editor.utilities.AnimationCache;
+import net.rpgtoolkit.editor.utilities.CachedAnimation;
 
 /**
  * Player Character Editor
@@ -94,8 +97,8 @@ public class CharacterEditor extends ToolkitEditorWindow implements InternalFram
   // GRAPHICS SETTINGS
   private JList animList;
   private JTextField animLoc;
-  private Animation selectedAnim;
-  private Timer animTimer;
+  private CachedAnimation selectedAnim;
+  private boolean showingAnimLoc; //animLoc is being filled in from the selected graphic
 
   // SPECIAL MOVES SETTINGS
   private JCheckBox usesSpecials;
@@ -150,7 +153,17 @@ public class CharacterEditor extends ToolkitEditorWindow implements InternalFram
    * *************************************************************************
    */
   @Override
-  public boolean save() {
+  public File prepareSave() {
+    return this.player.getFile();
+  }
+
+  @Override
+  public void setModelFile(File file) {
+    this.player.setFile(file);
+  }
+
+  @Override
+  public boolean writeModel() {
     return this.player.saveBinary();
   }
 
@@ -273,8 +286,7 @@ public class CharacterEditor extends ToolkitEditorWindow implements InternalFram
     // Configure function Scope Components
     String portrait = this.player.getProfilePicture();
     if (portrait.isEmpty() == false) {
-      this.portraitDisplay.setIcon(Gui.ImageToIcon(
-              Gui.loadImage(portrait), 64, 64));
+      Gui.loadThumbnail(this.portraitDisplay, portrait, 64, 64);
     }
     JLabel playerNameLabel = new JLabel("Character Name");
     JLabel experienceLabel = new JLabel("Starting Experience");
@@ -316,8 +328,8 @@ public class CharacterEditor extends ToolkitEditorWindow implements InternalFram
         );
         if (loc != null) {
           player.setProfilePicture(loc);
-          portraitDisplay.setIcon(Gui.ImageToIcon(
-                  Gui.loadImage(loc), 64, 64));
+          setDirty(true);
+          Gui.loadThumbnail(portraitDisplay, loc, 64, 64);
         }
       }
     });
@@ -590,7 +602,7 @@ public class CharacterEditor extends ToolkitEditorWindow implements InternalFram
     final ImageIcon stopIcon = new ImageIcon(getClass().
             getResource("/editor/stop.png"));
     final JToggleButton play = new JToggleButton(playIcon);
-    final JLabel animDisplay = new JLabel();
+    final AnimationPlayer animDisplay = new AnimationPlayer();
 
     JLabel dummy = new JLabel();
     final JButton animFindButton = new JButton("Browse");
@@ -600,23 +612,6 @@ public class CharacterEditor extends ToolkitEditorWindow implements InternalFram
     animRemoveButton.setEnabled(false);
 
         // Configure listeners
-    //run animation
-    final ActionListener animate = new ActionListener() {
-      private int frame = 0;
-
-      @Override
-      public void actionPerformed(ActionEvent e) {
-        //switch to the next frame, looping after the last frame
-        if (frame < selectedAnim.getFrameCount() - 1) {
-          frame++;
-        } else {
-          frame = 0;
-        }
-        animDisplay.setIcon(new ImageIcon(
-                selectedAnim.getFrame(frame).getFrameImage()
-        ));
-      }
-    };
 
     //change selection
     this.animList.addListSelectionListener(new ListSelectionListener() {
@@ -624,7 +619,7 @@ public class CharacterEditor extends ToolkitEditorWindow implements InternalFram
       public void valueChanged(ListSelectionEvent e) {
         if (e.getValueIsAdjusting() == false) {
           if (animList.getSelectedIndex() == -1) {
-            animDisplay.setIcon(null);
+            animDisplay.setAnimation(null);
             animFindButton.setEnabled(false);
             animRemoveButton.setEnabled(false);
           } else {
@@ -644,11 +639,12 @@ public class CharacterEditor extends ToolkitEditorWindow implements InternalFram
             }
             //clear animation and images
             selectedAnim = null;
-            animDisplay.setIcon(null);
-            animTimer = null;
+            animDisplay.setAnimation(null);
                         //out.println("anim cleared");
             //out.println("setting location to " + location);
+            showingAnimLoc = true;
             animLoc.setText(location); //handles switching to new valid animations
+            showingAnimLoc = false;
 
             animFindButton.setEnabled(true);
             animRemoveButton.setEnabled(true);
@@ -657,6 +653,33 @@ public class CharacterEditor extends ToolkitEditorWindow implements InternalFram
       }
     });
 
+    //load animations off the EDT once typing has settled
+    final DebouncedAssetResolver<CachedAnimation> animResolver
+            = new DebouncedAssetResolver<>(DebouncedAssetResolver.DEFAULT_DELAY,
+                    new DebouncedAssetResolver.Resolver<CachedAnimation>() {
+                      @Override
+                      public CachedAnimation resolve(String text) {
+                        if (!text.endsWith(".anm")) {
+                          return null;
+                        }
+                        File f = new File(System.getProperty("project.path")
+                                + sep
+                                + PropertiesSingleton.getProperty("toolkit.directory.misc")
+                                + sep + text);
+                        return AnimationCache.getInstance().get(f);
+                      }
+                    },
+                    new DebouncedAssetResolver.Callback<CachedAnimation>() {
+                      @Override
+                      public void resolved(String text, CachedAnimation animation) {
+                        //update image if the location is valid
+                        if (animation != null) {
+                          selectedAnim = animation;
+                          animDisplay.setAnimation(animation);
+                        }
+                      }
+                    });
+
     this.animLoc.getDocument().addDocumentListener(new DocumentListener() {
 
       @Override
@@ -675,9 +698,9 @@ public class CharacterEditor extends ToolkitEditorWindow implements InternalFram
         updateAnimation(text);
         if (text.isEmpty()) {
           //out.println("clearing anim");
+          animResolver.cancel();
           selectedAnim = null;
-          animDisplay.setIcon(null);
-          animTimer = null;
+          animDisplay.setAnimation(null);
         }
       }
 
@@ -696,23 +719,10 @@ public class CharacterEditor extends ToolkitEditorWindow implements InternalFram
           } else {
             player.getStandardGraphics().set(index, text);
           }
-          if (text.endsWith(".anm")) {
-            //update image if the location is valid
-            File f = new File(System.getProperty("project.path")
-                    + sep 
-                    + PropertiesSingleton.getProperty("toolkit.directory.misc") 
-                    + sep + text);
-            if (f.canRead()) {
-              selectedAnim = new Animation(f);
-//                            out.println("new animation!");
-              //switch animation images
-              if (selectedAnim != null && selectedAnim.getFrameCount() > 0) {
-                animDisplay.setIcon(new ImageIcon(
-                        selectedAnim.getFrame(0).getFrameImage()));
-                animTimer = new Timer((int) (selectedAnim.getFrameDelay() * 1000), animate);
-              }
-            }
+          if (!showingAnimLoc) {
+            setDirty(true);
           }
+          animResolver.request(text);
         }
       }
 
@@ -726,19 +736,13 @@ public class CharacterEditor extends ToolkitEditorWindow implements InternalFram
       @Override
       public void actionPerformed(ActionEvent e) {
         if (play.isSelected()) {
-          if (animTimer != null) {
-            animTimer.start();
+          if (selectedAnim != null) {
+            animDisplay.play();
             play.setIcon(stopIcon);
           }
         } else {
-          if (animTimer != null) {
-            animTimer.stop();
-            play.setIcon(playIcon);
-          }
-          if (selectedAnim != null && selectedAnim.getFrameCount() > 0) {
-            animDisplay.setIcon(new ImageIcon(
-                    selectedAnim.getFrame(0).getFrameImage()));
-          }
+          animDisplay.stop();
+          play.setIcon(playIcon);
         }
       }
     };
@@ -793,6 +797,7 @@ public class CharacterEditor extends ToolkitEditorWindow implements InternalFram
         int customIndex = index - standardNames.size();
         customNames.add(customIndex, name);
         player.getCustomGraphics().add(customIndex, "");
+        setDirty(true);
         enemyGraphics.add(index, name);
         //select the new graphic
         animList.setSelectedIndex(index);
@@ -825,6 +830,7 @@ public class CharacterEditor extends ToolkitEditorWindow implements InternalFram
             int customIndex = index - standardNames.size();
             customNames.remove(customIndex);
             player.getCustomGraphics().remove(customIndex);
+            setDirty(true);
             enemyGraphics.remove(index);
             //move back on the list by 1
             if (index > 0) {
@@ -25,12 +25,16 @@ import net.rpgtoolkit.common.assets.Animation;
 import net.rpgtoolkit.common.assets.Enemy;
 import net.rpgtoolkit.common.assets.Program;
 import net.rpgtoolkit.common.assets.SpecialMove;
+import net.rpgtoolkit.editor.ui.AnimationPlayer;
+import net.rpgtoolkit.editor.ui.DebouncedAssetResolver;
 import net.rpgtoolkit.editor.ui.MainWindow;
 import net.rpgtoolkit.editor.ui.ToolkitEditorWindow;
 import net.rpgtoolkit.editor.ui.Gui;
 import net.rpgtoolkit.editor.ui.IntegerField;
 import net.rpgtoolkit.editor.ui.WholeNumberField;
 import net.rpgtoolkit.common.utilities.PropertiesSingleton;
+import net.rpgtoolkit.editor.utilities.AnimationCache;
+import net.rpgtoolkit.editor.utilities.CachedAnimation;
 import net.rpgtoolkit.editor.ui.resources.Icons;
 
 /**
@@ -69,8 +73,8 @@ public class EnemyEditor extends ToolkitEditorWindow implements InternalFrameLis
   // GRAPHICS SETTINGS
   private JList animList;
   private JTextField animLoc;
-  private Animation selectedAnim;
-  private Timer animTimer;
+  private CachedAnimation selectedAnim;
+  private boolean showingAnimLoc; //animLoc is being filled in from the selected graphic
 
   // SPECIAL MOVES SETTINGS
   private JList sMoveList;
@@ -99,6 +103,7 @@ public class EnemyEditor extends ToolkitEditorWindow implements InternalFrameLis
     super("New Enemy", true, true, true, true);
 
     this.enemy = new Enemy();
+    this.setDirty(true);
     this.setVisible(true);
   }
 
@@ -123,7 +128,17 @@ public class EnemyEditor extends ToolkitEditorWindow implements InternalFrameLis
    * *************************************************************************
    */
   @Override
-  public boolean save() {
+  public File prepareSave() {
+    return this.enemy.getFile();
+  }
+
+  @Override
+  public void setModelFile(File file) {
+    this.enemy.setFile(file);
+  }
+
+  @Override
+  public boolean writeModel() {
     return this.enemy.save();
   }
 
@@ -415,7 +430,7 @@ public class EnemyEditor extends ToolkitEditorWindow implements InternalFrameLis
     final ImageIcon stopIcon = Icons.getSmallIcon("stop");
 
     final JToggleButton play = new JToggleButton(playIcon);
-    final JLabel animDisplay = new JLabel();
+    final AnimationPlayer animDisplay = new AnimationPlayer();
 
     JLabel dummy = new JLabel();
     final JButton animFindButton = new JButton("Browse");
@@ -425,23 +440,6 @@ public class EnemyEditor extends ToolkitEditorWindow implements InternalFrameLis
     animRemoveButton.setEnabled(false);
 
         // Configure listeners
-    //run animation
-    final ActionListener animate = new ActionListener() {
-      private int frame = 0;
-
-      @Override
-      public void actionPerformed(ActionEvent e) {
-        //switch to the next frame, looping after the last frame
-        if (frame < selectedAnim.getFrameCount() - 1) {
-          frame++;
-        } else {
-          frame = 0;
-        }
-        animDisplay.setIcon(new ImageIcon(
-                selectedAnim.getFrame(frame).getFrameImage()
-        ));
-      }
-    };
 
     //change selection
     this.animList.addListSelectionListener(new ListSelectionListener() {
@@ -449,7 +447,7 @@ public class EnemyEditor extends ToolkitEditorWindow implements InternalFrameLis
       public void valueChanged(ListSelectionEvent e) {
         if (e.getValueIsAdjusting() == false) {
           if (animList.getSelectedIndex() == -1) {
-            animDisplay.setIcon(null);
+            animDisplay.setAnimation(null);
             animFindButton.setEnabled(false);
             animRemoveButton.setEnabled(false);
           } else {
@@ -469,11 +467,12 @@ public class EnemyEditor extends ToolkitEditorWindow implements InternalFrameLis
             }
             //clear animation and images
             selectedAnim = null;
-            animDisplay.setIcon(null);
-            animTimer = null;
+            animDisplay.setAnimation(null);
                         //out.println("anim cleared");
             //out.println("setting location to " + location);
+            showingAnimLoc = true;
             animLoc.setText(location); //handles switching to new valid animations
+            showingAnimLoc = false;
 
             animFindButton.setEnabled(true);
             animRemoveButton.setEnabled(true);
@@ -482,6 +481,33 @@ public class EnemyEditor extends ToolkitEditorWindow implements InternalFrameLis
       }
     });
 
+    //load animations off the EDT once typing has settled
+    final DebouncedAssetResolver<CachedAnimation> animResolver
+            = new DebouncedAssetResolver<>(DebouncedAssetResolver.DEFAULT_DELAY,
+                    new DebouncedAssetResolver.Resolver<CachedAnimation>() {
+                      @Override
+                      public CachedAnimation resolve(String text) {
+                        if (!text.endsWith(".anm")) {
+                          return null;
+                        }
+                        File f = new File(System.getProperty("project.path")
+                                + sep
+                                + PropertiesSingleton.getProperty("toolkit.directory.misc")
+                                + sep + text);
+                        return AnimationCache.getInstance().get(f);
+                      }
+                    },
+                    new DebouncedAssetResolver.Callback<CachedAnimation>() {
+                      @Override
+                      public void resolved(String text, CachedAnimation animation) {
+                        //update image if the location is valid
+                        if (animation != null) {
+                          selectedAnim = animation;
+                          animDisplay.setAnimation(animation);
+                        }
+                      }
+                    });
+
     this.animLoc.getDocument().addDocumentListener(new DocumentListener() {
 
       @Override
@@ -500,9 +526,9 @@ public class EnemyEditor extends ToolkitEditorWindow implements InternalFrameLis
         updateAnimation(text);
         if (text.isEmpty()) {
           //out.println("clearing anim");
+          animResolver.cancel();
           selectedAnim = null;
-          animDisplay.setIcon(null);
-          animTimer = null;
+          animDisplay.setAnimation(null);
         }
       }
 
@@ -521,23 +547,10 @@ public class EnemyEditor extends ToolkitEditorWindow implements InternalFrameLis
           } else {
             enemy.getStandardGraphics().set(index, text);
           }
-          if (text.endsWith(".anm")) {
-            //update image if the location is valid
-            File f = new File(System.getProperty("project.path")
-                    + sep 
-                    + PropertiesSingleton.getProperty("toolkit.directory.misc") 
-                    + sep + text);
-            if (f.canRead()) {
-              selectedAnim = new Animation(f);
-//                            out.println("new animation!");
-              //switch animation images
-              if (selectedAnim != null && selectedAnim.getFrameCount() > 0) {
-                animDisplay.setIcon(new ImageIcon(
-                        selectedAnim.getFrame(0).getFrameImage()));
-                animTimer = new Timer((int) (selectedAnim.getFrameDelay() * 1000), animate);
-              }
-            }
+          if (!showingAnimLoc) {
+            setDirty(true);
           }
+          animResolver.request(text);
         }
       }
 
@@ -551,19 +564,13 @@ public class EnemyEditor extends ToolkitEditorWindow implements InternalFrameLis
       @Override
       public void actionPerformed(ActionEvent e) {
         if (play.isSelected()) {
-          if (animTimer != null) {
-            animTimer.start();
+          if (selectedAnim != null) {
+            animDisplay.play();
             play.setIcon(stopIcon);
           }
         } else {
-          if (animTimer != null) {
-            animTimer.stop();
-            play.setIcon(playIcon);
-          }
-          if (selectedAnim != null && selectedAnim.getFrameCount() > 0) {
-            animDisplay.setIcon(new ImageIcon(
-                    selectedAnim.getFrame(0).getFrameImage()));
-          }
+          animDisplay.stop();
+          play.setIcon(playIcon);
         }
       }
     };
@@ -618,6 +625,7 @@ public class EnemyEditor extends ToolkitEditorWindow implements InternalFrameLis
         int customIndex = index - standardNames.size();
         customNames.add(customIndex, name);
         enemy.getCustomizedGraphics().add(customIndex, "");
+        setDirty(true);
         enemyGraphics.add(index, name);
         //select the new graphic
         animList.setSelectedIndex(index);
@@ -650,6 +658,7 @@ public class EnemyEditor extends ToolkitEditorWindow implements InternalFrameLis
             int customIndex = index - standardNames.size();
             customNames.remove(customIndex);
             enemy.getCustomizedGraphics().remove(customIndex);
+            setDirty(true);
             enemyGraphics.remove(index);
             //move back on the list by 1
             if (index > 0) {
@@ -7,6 +7,7 @@
  */
 package net.rpgtoolkit.editor.editors;
 
+import java.awt.Color;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.io.File;
@@ -18,6 +19,8 @@ import javax.swing.event.DocumentListener;
 import javax.swing.event.InternalFrameEvent;
 import javax.swing.event.InternalFrameListener;
 import net.rpgtoolkit.common.assets.Project;
+import net.rpgtoolkit.common.utilities.PropertiesSingleton;
+import net.rpgtoolkit.editor.ui.DebouncedAssetResolver;
 import net.rpgtoolkit.editor.ui.ToolkitEditorWindow;
 import net.rpgtoolkit.editor.ui.Gui;
 
@@ -114,6 +117,7 @@ public class ProjectEditor extends ToolkitEditorWindow implements InternalFrameL
         super("New Project", true, true, true, true);
 
         this.project = new Project("", "");
+        this.setDirty(true);
         this.setVisible(true);
     }
 
@@ -138,7 +142,17 @@ public class ProjectEditor extends ToolkitEditorWindow implements InternalFrameL
    * *************************************************************************
      */
     @Override
-    public boolean save() {
+    public File prepareSave() {
+        return project.getFile();
+    }
+
+    @Override
+    public void setModelFile(File file) {
+        project.setFile(file);
+    }
+
+    @Override
+    public boolean writeModel() {
         return project.save();
     }
 
@@ -236,13 +250,18 @@ public class ProjectEditor extends ToolkitEditorWindow implements InternalFrameL
             @Override
             public void changedUpdate(DocumentEvent e) {
                 project.setGameTitle(projectName.getText());
+                setDirty(true);
             }
 
             @Override
-            public void insertUpdate(DocumentEvent e) { }
+            public void insertUpdate(DocumentEvent e) {
+                changedUpdate(e);
+            }
 
             @Override
-            public void removeUpdate(DocumentEvent e) { }
+            public void removeUpdate(DocumentEvent e) {
+                changedUpdate(e);
+            }
         });
 
         this.enableJoystick = new JCheckBox();
@@ -251,6 +270,7 @@ public class ProjectEditor extends ToolkitEditorWindow implements InternalFrameL
             @Override
             public void actionPerformed(ActionEvent e) {
                 project.setEnableJoyStick(enableJoystick.isSelected() ? 1 : 0);
+                setDirty(true);
             }
         });
 
@@ -259,13 +279,18 @@ public class ProjectEditor extends ToolkitEditorWindow implements InternalFrameL
             @Override
             public void changedUpdate(DocumentEvent e) {
                 project.setCursorMoveSound(cursorMoveSound.getText());
+                setDirty(true);
             }
 
             @Override
-            public void insertUpdate(DocumentEvent e) { }
+            public void insertUpdate(DocumentEvent e) {
+                changedUpdate(e);
+            }
 
             @Override
-            public void removeUpdate(DocumentEvent e) { }
+            public void removeUpdate(DocumentEvent e) {
+                changedUpdate(e);
+            }
         });
         
         this.cursorSelectSound = new JTextField(this.project.getCursorSelectSound());
@@ -273,13 +298,18 @@ public class ProjectEditor extends ToolkitEditorWindow implements InternalFrameL
             @Override
             public void changedUpdate(DocumentEvent e) {
                 project.setCursorSelectSound(cursorSelectSound.getText());
+                setDirty(true);
             }
 
             @Override
-            public void insertUpdate(DocumentEvent e) { }
+            public void insertUpdate(DocumentEvent e) {
+                changedUpdate(e);
+            }
 
             @Override
-            public void removeUpdate(DocumentEvent e) { }
+            public void removeUpdate(DocumentEvent e) {
+                changedUpdate(e);
+            }
         });
         
         this.cursorCancelSound = new JTextField(this.project.getCursorCancelSound());
@@ -287,13 +317,18 @@ public class ProjectEditor extends ToolkitEditorWindow implements InternalFrameL
             @Override
             public void changedUpdate(DocumentEvent e) {
                 project.setCursorCancelSound(cursorCancelSound.getText());
+                setDirty(true);
             }
 
             @Override
-            public void insertUpdate(DocumentEvent e) { }
+            public void insertUpdate(DocumentEvent e) {
+                changedUpdate(e);
+            }
 
             @Override
-            public void removeUpdate(DocumentEvent e) { }
+            public void removeUpdate(DocumentEvent e) {
+                changedUpdate(e);
+            }
         });
         
         // TODO: No functionality behind these!
@@ -477,35 +512,84 @@ public class ProjectEditor extends ToolkitEditorWindow implements InternalFrameL
         );
     }
 
+    /**
+     * Shows the field's text in red while it names a file that can't be found. The check is done
+     * in the background once typing has settled.
+     *
+     * @param field the field holding a path relative to the directory
+     * @param directory the property naming the toolkit directory, e.g. "toolkit.directory.board"
+     */
+    private void validateLocation(final JTextField field, final String directory) {
+        final Color normal = field.getForeground();
+
+        DebouncedAssetResolver<Boolean> resolver = new DebouncedAssetResolver<>(
+                DebouncedAssetResolver.DEFAULT_DELAY,
+                new DebouncedAssetResolver.Resolver<Boolean>() {
+                    @Override
+                    public Boolean resolve(String text) {
+                        if (text.isEmpty()) {
+                            return true;
+                        }
+
+                        return new File(System.getProperty("project.path")
+                                + File.separator
+                                + PropertiesSingleton.getProperty(directory)
+                                + File.separator + text).canRead();
+                    }
+                },
+                new DebouncedAssetResolver.Callback<Boolean>() {
+                    @Override
+                    public void resolved(String text, Boolean found) {
+                        field.setForeground(Boolean.FALSE.equals(found) ? Color.RED : normal);
+                    }
+                });
+
+        resolver.attach(field);
+    }
+
     private void createStartupInfoPanel() {
         this.initialBoard = new JTextField();
         initialBoard.getDocument().addDocumentListener(new DocumentListener() {
             @Override
             public void changedUpdate(DocumentEvent e) {
                 project.setInitBoard(initialBoard.getText());
+                setDirty(true);
             }
 
             @Override
-            public void insertUpdate(DocumentEvent e) { }
+            public void insertUpdate(DocumentEvent e) {
+                changedUpdate(e);
+            }
 
             @Override
-            public void removeUpdate(DocumentEvent e) { }
+            public void removeUpdate(DocumentEvent e) {
+                changedUpdate(e);
+            }
         });
         
+        this.validateLocation(this.initialBoard, "toolkit.directory.board");
+
         this.initialChar = new JTextField();
         initialChar.getDocument().addDocumentListener(new DocumentListener() {
             @Override
             public void changedUpdate(DocumentEvent e) {
                 project.setInitChar(initialChar.getText());
+                setDirty(true);
             }
 
             @Override
-            public void insertUpdate(DocumentEvent e) { }
+            public void insertUpdate(DocumentEvent e) {
+                changedUpdate(e);
+            }
 
             @Override
-            public void removeUpdate(DocumentEvent e) { }
+            public void removeUpdate(DocumentEvent e) {
+                changedUpdate(e);
+            }
         });
         
+        this.validateLocation(this.initialChar, "toolkit.directory.character");
+
         this.charSpeed = new JSlider();
         this.charSpeed.setMaximum(3);
         this.charSpeed.setMinimum(-3);
@@ -656,13 +740,18 @@ public class ProjectEditor extends ToolkitEditorWindow implements InternalFrameL
             @Override
             public void changedUpdate(DocumentEvent e) {
                 project.setStartupPrg(startupProgram.getText());
+                setDirty(true);
             }
 
             @Override
-            public void insertUpdate(DocumentEvent e) { }
+            public void insertUpdate(DocumentEvent e) {
+                changedUpdate(e);
+            }
 
             @Override
-            public void removeUpdate(DocumentEvent e) { }
+            public void removeUpdate(DocumentEvent e) {
+                changedUpdate(e);
+            }
         });
         
         
@@ -671,13 +760,18 @@ public class ProjectEditor extends ToolkitEditorWindow implements InternalFrameL
             @Override
             public void changedUpdate(DocumentEvent e) {
                 project.setGameOverProgram(gameOverProgram.getText());
+                setDirty(true);
             }
 
             @Override
-            public void insertUpdate(DocumentEvent e) { }
+            public void insertUpdate(DocumentEvent e) {
+                changedUpdate(e);
+            }
 
             @Override
-            public void removeUpdate(DocumentEvent e) { }
+            public void removeUpdate(DocumentEvent e) {
+                changedUpdate(e);
+            }
         });
         
         
@@ -685,28 +779,46 @@ public class ProjectEditor extends ToolkitEditorWindow implements InternalFrameL
         runTimeKey.getDocument().addDocumentListener(new DocumentListener() {
             @Override
             public void changedUpdate(DocumentEvent e) {
-                project.setRunKey(Integer.parseInt(runTimeKey.getText()));
+                try {
+                    project.setRunKey(Integer.parseInt(runTimeKey.getText()));
+                    setDirty(true);
+                } catch (NumberFormatException ex) {
+                    // Not a key code yet, keep the last valid one.
+                }
             }
 
             @Override
-            public void insertUpdate(DocumentEvent e) { }
+            public void insertUpdate(DocumentEvent e) {
+                changedUpdate(e);
+            }
 
             @Override
-            public void removeUpdate(DocumentEvent e) { }
+            public void removeUpdate(DocumentEvent e) {
+                changedUpdate(e);
+            }
         });
         
         this.menuKey = new JTextField();
         menuKey.getDocument().addDocumentListener(new DocumentListener() {
             @Override
             public void changedUpdate(DocumentEvent e) {
-                project.setMenuKey(Integer.parseInt(menuKey.getText()));
+                try {
+                    project.setMenuKey(Integer.parseInt(menuKey.getText()));
+                    setDirty(true);
+                } catch (NumberFormatException ex) {
+                    // Not a key code yet, keep the last valid one.
+                }
             }
 
             @Override
-            public void insertUpdate(DocumentEvent e) { }
+            public void insertUpdate(DocumentEvent e) {
+                changedUpdate(e);
+            }
 
             @Override
-            public void removeUpdate(DocumentEvent e) { }
+            public void removeUpdate(DocumentEvent e) {
+                changedUpdate(e);
+            }
         });
         
         this.generalKey = new JTextField();
@@ -836,6 +948,7 @@ public class ProjectEditor extends ToolkitEditorWindow implements InternalFrameL
             @Override
             public void actionPerformed(ActionEvent e) {
                 project.setFightingEnabled(enableFight.isSelected() ? 1 : 0);
+                setDirty(true);
             }
         });
 
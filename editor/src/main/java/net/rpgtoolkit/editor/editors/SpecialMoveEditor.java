@@ -9,6 +9,7 @@ package net.rpgtoolkit.editor.editors;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.io.File;
+import java.io.IOException;
 import java.text.ParseException;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -17,6 +18,8 @@ import javax.swing.border.Border;
 import javax.swing.border.EtchedBorder;
 import javax.swing.event.InternalFrameEvent;
 import javax.swing.event.InternalFrameListener;
+import net.rpgtoolkit.common.assets.AssetException;
+import net.rpgtoolkit.common.assets.AssetManager;
 import net.rpgtoolkit.common.assets.Animation;
 import net.rpgtoolkit.common.assets.Program;
 import net.rpgtoolkit.common.assets.SpecialMove;
@@ -70,6 +73,9 @@ public class SpecialMoveEditor extends ToolkitEditorWindow implements InternalFr
 
     this.setSize(555, 530);
     this.constructWindow();
+    this.trackChanges(moveName, description, mpCost, fightPower, mpRemovedTarget,
+            statusEffect, animation, program, battleDriven, boardDriven);
+    this.setDirty(true);
     this.setVisible(true);
   }
 
@@ -85,6 +91,8 @@ public class SpecialMoveEditor extends ToolkitEditorWindow implements InternalFr
 
     this.setSize(555, 530);
     this.constructWindow();
+    this.trackChanges(moveName, description, mpCost, fightPower, mpRemovedTarget,
+            statusEffect, animation, program, battleDriven, boardDriven);
     this.setVisible(true);
   }
 
@@ -94,7 +102,7 @@ public class SpecialMoveEditor extends ToolkitEditorWindow implements InternalFr
    * *************************************************************************
    */
   @Override
-  public boolean save() {
+  public File prepareSave() {
     try {
       mpCost.commitEdit();
       fightPower.commitEdit();
@@ -113,14 +121,38 @@ public class SpecialMoveEditor extends ToolkitEditorWindow implements InternalFr
     this.move.setCanUseInBattle(battleDriven.isSelected());
     this.move.setCanUseInMenu(boardDriven.isSelected());
     if (this.move.getFile() == null) {
-      boolean success = this.move.saveAs(
-              mainWindow.saveByType(SpecialMove.class));
-      this.setTitle("Editing Special Move - " + this.move.toString());
-      return success;
-    } else {
-      return this.move.save();
+      File file = mainWindow.saveByType(SpecialMove.class);
+
+      if (file == null) {
+        return null;
+      }
+
+      this.move.setFile(file);
+    }
+
+    return this.move.getFile();
+  }
+
+  @Override
+  public void setModelFile(File file) {
+    this.move.setFile(file);
+  }
+
+  @Override
+  public boolean writeModel() {
+    try {
+      AssetManager.getInstance().serialize(AssetManager.getInstance().getHandle(this.move));
+      return true;
+    } catch (IOException | AssetException ex) {
+      Logger.getLogger(SpecialMoveEditor.class.getName()).log(Level.SEVERE, null, ex);
+      return false;
     }
   }
+
+  @Override
+  public void saveCompleted(File file) {
+    this.setTitle("Editing Special Move - " + this.move.toString());
+  }
   
   /**
    * 
@@ -8,11 +8,14 @@ package net.rpgtoolkit.editor.editors;
 
 import java.awt.Color;
 import java.awt.Graphics;
+import java.awt.Graphics2D;
 import java.awt.event.MouseEvent;
 import java.awt.event.MouseListener;
 import java.awt.event.MouseMotionListener;
 import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
 import java.io.IOException;
+import java.util.Arrays;
 import javax.imageio.ImageIO;
 import javax.swing.JPanel;
 
@@ -24,6 +27,10 @@ import net.rpgtoolkit.common.assets.TilePixelOutOfRangeException;
  * canvas is split up into 32x32 "pixels" where each pixel is scaled correctly to match the screen
  * resolution
  *
+ * Edits are made to a copy of the tile's pixels held in an ARGB image whose raster is accessed
+ * directly, and are only written back to the tile by {@link #commit()}. The enlarged view is a
+ * single scaled draw of that image with a cached grid drawn over it.
+ *
  * @author Geoff Wilson
  * @author Joshua Michael Daly
  * @version 0.1
@@ -36,13 +43,20 @@ public class TileCanvas extends JPanel implements MouseListener, MouseMotionList
   private boolean hasChanged = false;
   private BufferedImage transpImage;
 
+  // Working copy of the tile, pixels is the image's backing array.
+  private BufferedImage image;
+  private int[] pixels;
+  private boolean[] edited;
+
+  private BufferedImage gridImage;
+  private int paintColour = 0x00FFFFFF;
+
   /**
    *
    * @param tile
    */
   public TileCanvas(Tile tile) {
     setSize(320, 320);
-    this.tile = tile;
     addMouseListener(this);
     addMouseMotionListener(this);
     try {
@@ -51,15 +65,31 @@ public class TileCanvas extends JPanel implements MouseListener, MouseMotionList
     } catch (IOException e) {
       System.out.println(e.toString());
     }
+    changeTile(tile);
   }
 
   /**
+   * Starts editing another tile, discarding any edits that have not been committed.
    *
    * @param tile
    */
   public void changeTile(Tile tile) {
     this.tile = tile;
     hasChanged = false;
+
+    BufferedImage source = tile.getTileAsImage();
+    int width = source.getWidth();
+    int height = source.getHeight();
+
+    if (image == null || image.getWidth() != width || image.getHeight() != height) {
+      image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+      pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+      edited = new boolean[pixels.length];
+      gridImage = null;
+    }
+
+    source.getRGB(0, 0, width, height, pixels, 0, width);
+    Arrays.fill(edited, false);
     repaint();
   }
 
@@ -70,6 +100,17 @@ public class TileCanvas extends JPanel implements MouseListener, MouseMotionList
   public void setScale(int scale) {
     pixelWidth = scale;
     pixelHeight = scale;
+    gridImage = null;
+    repaint();
+  }
+
+  /**
+   * Sets the colour applied to pixels that are clicked.
+   *
+   * @param colour
+   */
+  public void setPaintColour(Color colour) {
+    paintColour = colour.getRGB();
   }
 
   /**
@@ -88,48 +129,89 @@ public class TileCanvas extends JPanel implements MouseListener, MouseMotionList
     hasChanged = false;
   }
 
-  private void updateTile(int x, int y) {
-    try {
-      // Work out which pixel we clicked
-      int pixelRow = x / pixelWidth;
-      int pixelCol = y / pixelHeight;
-
-      Color c = new Color(255, 255, 255, 0);
-      tile.setPixel(pixelRow, pixelCol, c);
+  /**
+   * Writes the edited pixels back to the tile.
+   */
+  public void commit() {
+    int width = image.getWidth();
 
-      repaint();
+    try {
+      for (int i = 0; i < pixels.length; i++) {
+        if (edited[i]) {
+          tile.setPixel(i % width, i / width, new Color(pixels[i], true));
+          edited[i] = false;
+        }
+      }
     } catch (TilePixelOutOfRangeException e) {
       System.out.println(e.toString());
     }
   }
 
+  private void updateTile(int x, int y) {
+    // Work out which pixel we clicked
+    int pixelRow = x / pixelWidth;
+    int pixelCol = y / pixelHeight;
+
+    if (pixelRow < 0 || pixelCol < 0 || pixelRow >= image.getWidth()
+            || pixelCol >= image.getHeight()) {
+      return;
+    }
+
+    int i = pixelCol * image.getWidth() + pixelRow;
+
+    if (pixels[i] == paintColour) {
+      return;
+    }
+
+    pixels[i] = paintColour;
+    edited[i] = true;
+    hasChanged = true;
+
+    repaint(pixelRow * pixelWidth, pixelCol * pixelHeight, pixelWidth + 2, pixelHeight + 2);
+  }
+
   /**
    *
    * @param g
    */
   @Override
   public void paint(Graphics g) {
-    try {
-      g.drawImage(transpImage, 0, 0, null);
-
-      // Draw the tile
-      for (int x = 0; x < 32; x++) {
-        for (int y = 0; y < 32; y++) {
-          g.setColor(tile.getPixel(x, y));
-          g.fillRect((x * pixelWidth + 1), (y * pixelHeight + 1),
-                  pixelWidth, pixelHeight);
-
-          if (pixelWidth > 5) {
-            g.setColor(Color.BLACK);
-            g.drawRect((x * pixelWidth + 1), (y * pixelHeight + 1),
-                    pixelWidth, pixelHeight);
-          }
-        }
+    int width = image.getWidth() * pixelWidth;
+    int height = image.getHeight() * pixelHeight;
+
+    g.drawImage(transpImage, 0, 0, null);
+
+    // Draw the tile
+    g.drawImage(image, 1, 1, width, height, null);
 
+    if (pixelWidth > 5) {
+      if (gridImage == null) {
+        gridImage = createGrid();
       }
-    } catch (TilePixelOutOfRangeException e) {
-      System.out.println(e.toString());
+
+      g.drawImage(gridImage, 1, 1, null);
+    }
+  }
+
+  private BufferedImage createGrid() {
+    int width = image.getWidth() * pixelWidth;
+    int height = image.getHeight() * pixelHeight;
+
+    BufferedImage grid = new BufferedImage(width + 1, height + 1,
+            BufferedImage.TYPE_INT_ARGB);
+    Graphics2D g = grid.createGraphics();
+    g.setColor(Color.BLACK);
+
+    for (int x = 0; x <= width; x += pixelWidth) {
+      g.drawLine(x, 0, x, height);
+    }
+
+    for (int y = 0; y <= height; y += pixelHeight) {
+      g.drawLine(0, y, width, y);
     }
+
+    g.dispose();
+    return grid;
   }
 
   // TODO: Add mouse adpater here.
@@ -185,7 +267,6 @@ public class TileCanvas extends JPanel implements MouseListener, MouseMotionList
   @Override
   public void mouseDragged(MouseEvent e) {
     updateTile(e.getX(), e.getY());
-    hasChanged = true;
   }
 
   /**
@@ -58,6 +58,7 @@ public class TileEditor extends JInternalFrame
                         case JOptionPane.CANCEL_OPTION:
                             break;
                         case JOptionPane.YES_OPTION:
+                            canvas.commit();
                             tileSet.save();
                             canvas.changeTile((Tile) tileSelector.getValue());
                             break;
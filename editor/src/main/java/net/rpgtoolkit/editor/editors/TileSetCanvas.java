@@ -16,7 +16,6 @@ import java.awt.Point;
 import java.awt.Rectangle;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
-import java.awt.image.BufferedImage;
 import java.util.LinkedList;
 import javax.swing.JPanel;
 import javax.swing.Scrollable;
@@ -37,7 +36,6 @@ public final class TileSetCanvas extends JPanel implements Scrollable {
   private final LinkedList<TileSelectionListener> tileSelectionListeners = new LinkedList<>();
 
   private final TileSet tileset;
-  private final BufferedImage bufferedImage;
 
   private Rectangle selection;
 
@@ -51,14 +49,6 @@ public final class TileSetCanvas extends JPanel implements Scrollable {
     super();
 
     this.tileset = tileset;
-    int width = 320;
-    int height = 32 * ((tileset.getTileCount()- 1)  / TILES_PER_ROW);
-    
-    if (height == 0) {
-      height = 32;
-    }
-    
-    bufferedImage = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
 
     tilesetMouseAdapter = new TilesetMouseAdapter();
     addMouseListener(tilesetMouseAdapter);
@@ -71,8 +61,8 @@ public final class TileSetCanvas extends JPanel implements Scrollable {
    */
   @Override
   public Dimension getPreferredSize() {
-    return new Dimension(bufferedImage.getWidth(),
-            bufferedImage.getHeight());
+    return new Dimension(TILES_PER_ROW * tileset.getTileWidth() + 1,
+            Math.max(1, getRowCount()) * tileset.getTileHeight() + 1);
   }
 
   /**
@@ -92,22 +82,58 @@ public final class TileSetCanvas extends JPanel implements Scrollable {
   }
 
   /**
+   * Gets the tileset shown by this canvas.
+   *
+   * @return the tileset
+   */
+  public TileSet getTileSet() {
+    return tileset;
+  }
+
+  /**
+   * Selects a tile, scrolls it into view and notifies the listeners as if it had been clicked.
+   *
+   * @param index the index of the tile in the tileset
+   */
+  public void selectTile(int index) {
+    if (index < 0 || index >= tileset.getTileCount()) {
+      return;
+    }
+
+    Point point = new Point(index % TILES_PER_ROW, index / TILES_PER_ROW);
+    setSelection(new Rectangle(point.x, point.y, 0, 0));
+    scrollTileToVisible(point);
+    fireTileSelectionEvent(tileset.getTile(index));
+  }
+
+  /**
+   * Paints only the rows of tiles that intersect the clip, so the cost of a repaint depends on the
+   * size of the viewport rather than the size of the tileset.
    *
    * @param g
    */
   @Override
   public void paint(Graphics g) {
-    paintBackground(g);
+    Graphics2D g2d = (Graphics2D) g.create();
 
-    Graphics2D g2d = bufferedImage.createGraphics();
-    paintTileSet(g2d);
-    paintGrid(g2d);
+    try {
+      Rectangle clipRectangle = g2d.getClipBounds();
 
-    if (selection != null) {
-      paintSelection(g2d);
-    }
+      if (clipRectangle == null) {
+        clipRectangle = new Rectangle(getWidth(), getHeight());
+        g2d.setClip(clipRectangle);
+      }
+
+      paintBackground(g2d);
+      paintTileSet(g2d, clipRectangle);
+      paintGrid(g2d, clipRectangle);
 
-    g.drawImage(bufferedImage, 0, 0, this);
+      if (selection != null) {
+        paintSelection(g2d);
+      }
+    } finally {
+      g2d.dispose();
+    }
   }
 
   /**
@@ -232,33 +258,38 @@ public final class TileSetCanvas extends JPanel implements Scrollable {
     }
   }
 
-  private void paintTileSet(Graphics2D g2d) {
-    int x = 0;
-    int y = 0;
-    int i = 0;
+  private void paintTileSet(Graphics2D g2d, Rectangle clipRectangle) {
+    int tileWidth = tileset.getTileWidth();
+    int tileHeight = tileset.getTileHeight();
+    int tileCount = tileset.getTileCount();
+
+    int startRow = Math.max(0, clipRectangle.y / tileHeight);
+    int endRow = Math.min(getRowCount() - 1,
+            (clipRectangle.y + clipRectangle.height) / tileHeight);
+    int startColumn = Math.max(0, clipRectangle.x / tileWidth);
+    int endColumn = Math.min(TILES_PER_ROW - 1,
+            (clipRectangle.x + clipRectangle.width) / tileWidth);
+
+    for (int row = startRow; row <= endRow; row++) {
+      for (int column = startColumn; column <= endColumn; column++) {
+        int index = row * TILES_PER_ROW + column;
 
-    for (Tile tile : tileset.getTiles()) {
-      g2d.drawImage(tile.getTileAsImage(), x, y, this);
+        if (index >= tileCount) {
+          return;
+        }
 
-      // Update coordinates to draw at.
-      x += 32;
-      i++;
-      if (i % 10 == 0) {
-        y += 32;
-        x = 0;
+        g2d.drawImage(tileset.getTile(index).getTileAsImage(),
+                column * tileWidth, row * tileHeight, this);
       }
     }
   }
 
-  private void paintGrid(Graphics2D g2d) {
+  private void paintGrid(Graphics2D g2d, Rectangle clipRectangle) {
     // Determine tile size
     Dimension tileSize = new Dimension(tileset.getTileWidth(),
             tileset.getTileHeight());
 
     // Determine lines to draw from clipping rectangle
-    Rectangle clipRectangle = new Rectangle(bufferedImage.getWidth(),
-            bufferedImage.getHeight());
-
     int startX = (clipRectangle.x / tileSize.width * tileSize.width);
     int startY = (clipRectangle.y / tileSize.height * tileSize.height);
     int endX = (clipRectangle.x + clipRectangle.width);
@@ -291,6 +322,12 @@ public final class TileSetCanvas extends JPanel implements Scrollable {
             (selection.height + 1) * tileset.getTileHeight() - 1);
   }
 
+  private int getRowCount() {
+    int tileCount = tileset.getTileCount();
+
+    return tileCount / TILES_PER_ROW + (tileCount % TILES_PER_ROW > 0 ? 1 : 0);
+  }
+
   private void scrollTileToVisible(Point tile) {
     int tileWidth = tileset.getTileWidth() + 1;
     int tileHeight = tileset.getTileHeight() + 1;
@@ -312,9 +349,7 @@ public final class TileSetCanvas extends JPanel implements Scrollable {
   private Point getTileCoordinates(int x, int y) {
     int tileWidth = tileset.getTileWidth() + 1;
     int tileHeight = tileset.getTileHeight() + 1;
-    int tileCount = tileset.getTileCount();
-    int rows = tileCount / TILES_PER_ROW
-            + (tileCount % TILES_PER_ROW > 0 ? 1 : 0);
+    int rows = getRowCount();
 
     int tileX = Math.max(0, Math.min(x / tileWidth, TILES_PER_ROW - 1));
     int tileY = Math.max(0, Math.min(y / tileHeight, rows - 1));
@@ -89,6 +89,11 @@ public abstract class AbstractBoardView extends JPanel implements
   // Start position properties.
   private Color startPositionColor;
 
+  /**
+   * Render statistics for this view, only gathered while the overlay is enabled.
+   */
+  protected final PerformanceOverlay performanceOverlay = new PerformanceOverlay();
+
   /**
    * Default constructor.
    */
@@ -119,6 +124,24 @@ public abstract class AbstractBoardView extends JPanel implements
     init();
   }
 
+  /**
+   * Gets the statistics overlay for this view.
+   *
+   * @return The performance overlay.
+   */
+  public PerformanceOverlay getPerformanceOverlay() {
+    return performanceOverlay;
+  }
+
+  /**
+   * Gets the back buffer the board is drawn to before being copied to the screen.
+   *
+   * @return The back buffer.
+   */
+  public BufferedImage getBufferedImage() {
+    return bufferedImage;
+  }
+
   /**
    * Gets the default color for the grid.
    *
@@ -0,0 +1,636 @@
+/**
+ * Copyright (c) 2015, rpgtoolkit.net <help@rpgtoolkit.net>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public License, v. 2.0. If a copy of
+ * the MPL was not distributed with this file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package net.rpgtoolkit.editor.editors.board;
+
+import java.awt.Rectangle;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import net.rpgtoolkit.common.assets.Board;
+import net.rpgtoolkit.common.assets.BoardLayer;
+import net.rpgtoolkit.common.assets.BoardProgram;
+import net.rpgtoolkit.common.assets.BoardSprite;
+import net.rpgtoolkit.common.assets.BoardVector;
+import net.rpgtoolkit.common.assets.Tile;
+import net.rpgtoolkit.common.assets.TileSet;
+import net.rpgtoolkit.common.utilities.PropertiesSingleton;
+import net.rpgtoolkit.editor.utilities.FileTools;
+
+/**
+ * An append-only crash recovery journal for a board that is open in an editor. Edits are recorded
+ * on the EDT into an in-memory buffer as small binary records, which a background thread appends
+ * to the journal file every few seconds. Once the file grows large it is compacted in the
+ * background so that only the latest record for each tile and layer remains.
+ *
+ * The journal is deleted whenever the board is saved or its editor is closed, so a journal found
+ * when opening a board means the editor did not shut down cleanly. {@link #replay(Board, File)}
+ * applies it over the last saved copy of the board.
+ *
+ * Each record is a type byte followed by an int length and the payload, so a record torn by a
+ * crash is simply dropped on replay.
+ */
+public final class BoardJournal {
+
+  private static final Logger LOGGER = Logger.getLogger(BoardJournal.class.getName());
+
+  private static final int MAGIC = 0x524A4E4C;
+  private static final int VERSION = 1;
+
+  // Record types.
+  private static final byte TILE = 1;
+  private static final byte OBJECTS = 2;
+  private static final byte LAYER_ADDED = 3;
+  private static final byte LAYER_MOVED_UP = 4;
+  private static final byte LAYER_MOVED_DOWN = 5;
+  private static final byte LAYER_CLONED = 6;
+  private static final byte LAYER_DELETED = 7;
+
+  private static final long FLUSH_INTERVAL_MILLIS = 2000;
+  private static final long COMPACT_THRESHOLD_BYTES = 4 * 1024 * 1024;
+
+  private static final ScheduledExecutorService WRITER = Executors.newSingleThreadScheduledExecutor(
+          new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+              Thread thread = new Thread(runnable, "board-journal");
+              thread.setDaemon(true);
+              thread.setPriority(Thread.MIN_PRIORITY);
+              return thread;
+            }
+          });
+
+  private final Board board;
+  private final File file;
+
+  // Only accessed on the EDT.
+  private final Map<BoardLayer, Tile[][]> shadows = new IdentityHashMap<>();
+  private final Map<Tile, Integer> tileIndices = new IdentityHashMap<>();
+
+  // Guarded by this, filled on the EDT and drained by the writer.
+  private ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+  private boolean truncate;
+
+  private final ScheduledFuture<?> flusher;
+
+  /**
+   * Starts journaling edits to the board.
+   *
+   * @param board the board being edited
+   * @param file the board's file
+   * @param resume true to keep appending to an existing journal that has just been replayed,
+   * false to discard it and treat the board's current state as the new base
+   */
+  public BoardJournal(Board board, File file, boolean resume) {
+    this.board = board;
+    this.file = getJournalFile(file);
+    this.truncate = !resume;
+
+    for (BoardLayer layer : board.getLayers()) {
+      shadows.put(layer, copyTiles(layer));
+    }
+
+    flusher = WRITER.scheduleWithFixedDelay(new Runnable() {
+      @Override
+      public void run() {
+        flush();
+      }
+    }, FLUSH_INTERVAL_MILLIS, FLUSH_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Gets the journal file used for a board, it sits next to the board as a hidden file.
+   *
+   * @param boardFile the board's file
+   * @return the journal file
+   */
+  public static File getJournalFile(File boardFile) {
+    return new File(boardFile.getParentFile(), "." + boardFile.getName() + ".journal");
+  }
+
+  /**
+   * Records any tiles that have changed since the last call, must be called on the EDT after a
+   * brush stroke.
+   *
+   * @param region the tiles that may have changed, or null to check every tile of every layer
+   */
+  public void recordTiles(Rectangle region) {
+    Rectangle bounds = new Rectangle(0, 0, board.getWidth(), board.getHeight());
+    Rectangle area = region == null ? bounds : region.intersection(bounds);
+
+    if (area.isEmpty()) {
+      return;
+    }
+
+    for (BoardLayer layer : board.getLayers()) {
+      Tile[][] shadow = shadows.get(layer);
+
+      if (shadow == null) {
+        shadow = new Tile[board.getWidth()][board.getHeight()];
+        shadows.put(layer, shadow);
+      }
+
+      for (int x = area.x; x < area.x + area.width; x++) {
+        for (int y = area.y; y < area.y + area.height; y++) {
+          Tile tile = layer.getTileAt(x, y);
+
+          if (tile != shadow[x][y]) {
+            shadow[x][y] = tile;
+            appendTile(layer.getNumber(), x, y, tile);
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * Records the vectors, sprites and programs of every layer, must be called on the EDT.
+   */
+  public void recordObjects() {
+    for (BoardLayer layer : board.getLayers()) {
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      DataOutputStream out = new DataOutputStream(bytes);
+
+      try {
+        out.writeInt(layer.getNumber());
+
+        out.writeInt(layer.getVectors().size());
+        for (BoardVector vector : layer.getVectors()) {
+          writeVector(out, vector);
+        }
+
+        out.writeInt(layer.getSprites().size());
+        for (BoardSprite sprite : layer.getSprites()) {
+          out.writeUTF(text(sprite.getFileName()));
+          out.writeInt((int) sprite.getX());
+          out.writeInt((int) sprite.getY());
+          out.writeUTF(text(sprite.getActivationProgram()));
+          out.writeUTF(text(sprite.getMultitaskingProgram()));
+        }
+
+        out.writeInt(layer.getPrograms().size());
+        for (BoardProgram program : layer.getPrograms()) {
+          out.writeUTF(text(program.getFileName()));
+          writeVector(out, program.getVector());
+        }
+      } catch (IOException ex) {
+        // Writing to memory, can't happen.
+        throw new IllegalStateException(ex);
+      }
+
+      append(OBJECTS, bytes.toByteArray());
+    }
+  }
+
+  public void layerAdded(BoardLayer layer) {
+    shadows.put(layer, copyTiles(layer));
+    append(LAYER_ADDED, new byte[0]);
+  }
+
+  public void layerMovedUp(BoardLayer layer) {
+    append(LAYER_MOVED_UP, intPayload(layer.getNumber() - 1));
+  }
+
+  public void layerMovedDown(BoardLayer layer) {
+    append(LAYER_MOVED_DOWN, intPayload(layer.getNumber() + 1));
+  }
+
+  public void layerCloned(BoardLayer layer) {
+    shadows.put(layer, copyTiles(layer));
+    append(LAYER_CLONED, intPayload(layer.getNumber() - 1));
+  }
+
+  public void layerDeleted(BoardLayer layer) {
+    shadows.remove(layer);
+    append(LAYER_DELETED, intPayload(layer.getNumber()));
+  }
+
+  /**
+   * Discards the journal after the board has been saved, the saved board becomes the new base.
+   */
+  public synchronized void clear() {
+    buffer = new ByteArrayOutputStream();
+    truncate = true;
+
+    WRITER.execute(new Runnable() {
+      @Override
+      public void run() {
+        flush();
+      }
+    });
+  }
+
+  /**
+   * Stops journaling and deletes the journal file, called when the editor is closed or the board
+   * has been saved. Waits for any write already in progress, so the file is gone when this returns
+   * and can't be mistaken for a journal of the newly saved board.
+   */
+  public void close() {
+    flusher.cancel(false);
+
+    Future<?> deleted = WRITER.submit(new Runnable() {
+      @Override
+      public void run() {
+        synchronized (BoardJournal.this) {
+          buffer = new ByteArrayOutputStream();
+        }
+
+        if (file.exists() && !file.delete()) {
+          LOGGER.log(Level.WARNING, "Failed to delete journal {0}", file);
+        }
+      }
+    });
+
+    try {
+      deleted.get();
+    } catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+    } catch (ExecutionException ex) {
+      LOGGER.log(Level.SEVERE, null, ex);
+    }
+  }
+
+  /**
+   * Applies a journal over a freshly loaded board.
+   *
+   * @param board the board as it was last saved
+   * @param journal the journal file
+   * @return the number of records applied
+   * @throws IOException if the journal is not a board journal or can't be read
+   */
+  public static int replay(Board board, File journal) throws IOException {
+    int applied = 0;
+    Map<String, TileSet> tileSets = new HashMap<>();
+
+    try (DataInputStream in = new DataInputStream(
+            new BufferedInputStream(new FileInputStream(journal)))) {
+      readHeader(in);
+
+      byte[] record;
+      while ((record = readRecord(in)) != null) {
+        byte type = record[0];
+        DataInputStream payload = new DataInputStream(
+                new ByteArrayInputStream(record, 1, record.length - 1));
+        List<BoardLayer> layers = board.getLayers();
+
+        switch (type) {
+          case TILE:
+            int number = payload.readInt();
+            int x = payload.readInt();
+            int y = payload.readInt();
+            String tileSetName = payload.readUTF();
+            int index = payload.readInt();
+
+            if (number < layers.size()) {
+              layers.get(number).setTileAt(x, y, resolveTile(tileSets, tileSetName, index));
+            }
+            break;
+          case OBJECTS:
+            number = payload.readInt();
+
+            if (number < layers.size()) {
+              readObjects(payload, layers.get(number));
+            }
+            break;
+          case LAYER_ADDED:
+            board.addLayer();
+            break;
+          case LAYER_MOVED_UP:
+            board.moveLayerUp(payload.readInt());
+            break;
+          case LAYER_MOVED_DOWN:
+            board.moveLayerDown(payload.readInt());
+            break;
+          case LAYER_CLONED:
+            board.cloneLayer(payload.readInt());
+            break;
+          case LAYER_DELETED:
+            board.deleteLayer(payload.readInt());
+            break;
+          default:
+            throw new IOException("Unknown journal record " + type);
+        }
+
+        applied++;
+      }
+    }
+
+    return applied;
+  }
+
+  /**
+   * Rewrites a journal keeping only the last tile record for each cell and the last object record
+   * for each layer between layer changes. Layer changes renumber layers, so records are never
+   * merged across them.
+   *
+   * @param journal the journal to compact in place
+   * @throws IOException if the journal can't be read or written
+   */
+  static void compact(File journal) throws IOException {
+    List<byte[]> records = new ArrayList<>();
+    Map<String, byte[]> segment = new LinkedHashMap<>();
+
+    try (DataInputStream in = new DataInputStream(
+            new BufferedInputStream(new FileInputStream(journal)))) {
+      readHeader(in);
+
+      byte[] record;
+      while ((record = readRecord(in)) != null) {
+        if (record[0] == TILE) {
+          // Key on the layer, x and y at the front of the payload.
+          segment.remove(key(record, 12));
+          segment.put(key(record, 12), record);
+        } else if (record[0] == OBJECTS) {
+          segment.remove(key(record, 4));
+          segment.put(key(record, 4), record);
+        } else {
+          records.addAll(segment.values());
+          segment.clear();
+          records.add(record);
+        }
+      }
+    }
+
+    records.addAll(segment.values());
+
+    File temporary = FileTools.getTemporaryFile(journal);
+
+    try {
+      try (DataOutputStream out = new DataOutputStream(
+              new BufferedOutputStream(new FileOutputStream(temporary)))) {
+        writeHeader(out);
+
+        for (byte[] record : records) {
+          out.writeByte(record[0]);
+          out.writeInt(record.length - 1);
+          out.write(record, 1, record.length - 1);
+        }
+      }
+
+      FileTools.moveAtomically(temporary, journal);
+    } finally {
+      if (temporary.exists()) {
+        temporary.delete();
+      }
+    }
+  }
+
+  private void appendTile(int layer, int x, int y, Tile tile) {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream(32);
+    DataOutputStream out = new DataOutputStream(bytes);
+
+    try {
+      out.writeInt(layer);
+      out.writeInt(x);
+      out.writeInt(y);
+
+      if (tile == null || tile.getTileSet() == null) {
+        out.writeUTF("");
+        out.writeInt(-1);
+      } else {
+        out.writeUTF(tile.getTileSet().getName());
+        out.writeInt(indexOf(tile));
+      }
+    } catch (IOException ex) {
+      throw new IllegalStateException(ex);
+    }
+
+    append(TILE, bytes.toByteArray());
+  }
+
+  private synchronized void append(byte type, byte[] payload) {
+    DataOutputStream out = new DataOutputStream(buffer);
+
+    try {
+      out.writeByte(type);
+      out.writeInt(payload.length);
+      out.write(payload);
+    } catch (IOException ex) {
+      throw new IllegalStateException(ex);
+    }
+  }
+
+  /**
+   * Appends the buffered records to the journal file, runs on the writer thread.
+   */
+  private void flush() {
+    byte[] pending;
+    boolean reset;
+
+    synchronized (this) {
+      if (buffer.size() == 0 && !truncate) {
+        return;
+      }
+
+      pending = buffer.toByteArray();
+      reset = truncate;
+      buffer = new ByteArrayOutputStream();
+      truncate = false;
+    }
+
+    try {
+      if (reset && pending.length == 0) {
+        if (file.exists() && !file.delete()) {
+          LOGGER.log(Level.WARNING, "Failed to delete journal {0}", file);
+        }
+        return;
+      }
+
+      boolean append = !reset && file.exists();
+
+      try (FileOutputStream stream = new FileOutputStream(file, append)) {
+        DataOutputStream out = new DataOutputStream(stream);
+
+        if (!append) {
+          writeHeader(out);
+        }
+
+        out.write(pending);
+        out.flush();
+        stream.getFD().sync();
+      }
+
+      if (file.length() > COMPACT_THRESHOLD_BYTES) {
+        compact(file);
+      }
+    } catch (IOException ex) {
+      LOGGER.log(Level.SEVERE, null, ex);
+    }
+  }
+
+  private int indexOf(Tile tile) {
+    Integer index = tileIndices.get(tile);
+
+    if (index == null) {
+      index = tile.getTileSet().getTiles().indexOf(tile);
+      tileIndices.put(tile, index);
+    }
+
+    return index;
+  }
+
+  private Tile[][] copyTiles(BoardLayer layer) {
+    Tile[][] copy = new Tile[board.getWidth()][board.getHeight()];
+
+    for (int x = 0; x < copy.length; x++) {
+      for (int y = 0; y < copy[x].length; y++) {
+        copy[x][y] = layer.getTileAt(x, y);
+      }
+    }
+
+    return copy;
+  }
+
+  private static Tile resolveTile(Map<String, TileSet> tileSets, String name, int index) {
+    if (name.isEmpty() || index < 0) {
+      return new Tile();
+    }
+
+    TileSet tileSet = tileSets.get(name);
+
+    if (tileSet == null) {
+      tileSet = new TileSet(new File(System.getProperty("project.path")
+              + File.separator
+              + PropertiesSingleton.getProperty("toolkit.directory.tileset")
+              + File.separator + name));
+      tileSets.put(name, tileSet);
+    }
+
+    return tileSet.getTile(index);
+  }
+
+  private static void readObjects(DataInputStream in, BoardLayer layer) throws IOException {
+    layer.getVectors().clear();
+    for (int i = in.readInt(); i > 0; i--) {
+      BoardVector vector = readVector(in);
+      vector.setLayer(layer.getNumber());
+      layer.getVectors().add(vector);
+    }
+
+    layer.getSprites().clear();
+    for (int i = in.readInt(); i > 0; i--) {
+      BoardSprite sprite = new BoardSprite();
+      sprite.setFileName(in.readUTF());
+      sprite.setX(in.readInt());
+      sprite.setY(in.readInt());
+      sprite.setActivationProgram(in.readUTF());
+      sprite.setMultitaskingProgram(in.readUTF());
+      sprite.setLayer(layer.getNumber());
+      layer.getSprites().add(sprite);
+    }
+
+    layer.getPrograms().clear();
+    for (int i = in.readInt(); i > 0; i--) {
+      BoardProgram program = new BoardProgram();
+      program.setFileName(in.readUTF());
+      program.setVector(readVector(in));
+      program.setLayer(layer.getNumber());
+      layer.getPrograms().add(program);
+    }
+  }
+
+  private static void writeVector(DataOutputStream out, BoardVector vector) throws IOException {
+    out.writeUTF(text(vector.getHandle()));
+    out.writeInt(vector.getTileType());
+    out.writeBoolean(vector.isClosed());
+    out.writeInt(vector.getPointCount());
+
+    for (int i = 0; i < vector.getPointCount(); i++) {
+      out.writeInt(vector.getPointX(i));
+      out.writeInt(vector.getPointY(i));
+    }
+  }
+
+  private static BoardVector readVector(DataInputStream in) throws IOException {
+    BoardVector vector = new BoardVector();
+    vector.setHandle(in.readUTF());
+    vector.setTileType(in.readInt());
+    vector.setClosed(in.readBoolean());
+
+    for (int i = in.readInt(); i > 0; i--) {
+      vector.addPoint(in.readInt(), in.readInt());
+    }
+
+    return vector;
+  }
+
+  private static void writeHeader(DataOutputStream out) throws IOException {
+    out.writeInt(MAGIC);
+    out.writeInt(VERSION);
+  }
+
+  private static void readHeader(DataInputStream in) throws IOException {
+    if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+      throw new IOException("Not a board journal");
+    }
+  }
+
+  /**
+   * Reads one record as its type byte followed by the payload.
+   *
+   * @return the record, or null at the end of the journal or at a torn final record
+   */
+  private static byte[] readRecord(DataInputStream in) throws IOException {
+    try {
+      byte type = in.readByte();
+      int length = in.readInt();
+
+      if (length < 0) {
+        return null;
+      }
+
+      byte[] record = new byte[length + 1];
+      record[0] = type;
+      in.readFully(record, 1, length);
+      return record;
+    } catch (EOFException ex) {
+      return null;
+    }
+  }
+
+  private static String key(byte[] record, int length) {
+    StringBuilder key = new StringBuilder().append(record[0]).append(':');
+
+    for (int i = 1; i <= length && i < record.length; i++) {
+      key.append((char) (record[i] & 0xFF));
+    }
+
+    return key.toString();
+  }
+
+  private static byte[] intPayload(int value) {
+    return new byte[]{(byte) (value >>> 24), (byte) (value >>> 16), (byte) (value >>> 8),
+      (byte) value};
+  }
+
+  private static String text(String value) {
+    return value == null ? "" : value;
+  }
+
+}
@@ -12,6 +12,7 @@ import java.awt.Color;
 import java.awt.Graphics2D;
 import java.awt.Rectangle;
 import java.util.ArrayList;
+import java.util.Set;
 
 import net.rpgtoolkit.common.assets.Board;
 import net.rpgtoolkit.common.assets.BoardLayer;
@@ -308,6 +309,24 @@ public class BoardLayerView {
     this.parentContainer = parentContainer;
   }
 
+  /**
+   * Copies the tiles in a region of this layer, the region's width and height are inclusive.
+   *
+   * @param rectangle the region in tiles
+   * @return the tiles indexed by [x][y] relative to the region
+   */
+  public Tile[][] copyRegion(Rectangle rectangle) {
+    Tile[][] tiles = new Tile[rectangle.width + 1][rectangle.height + 1];
+
+    for (int y = rectangle.y; y <= rectangle.y + rectangle.height; y++) {
+      for (int x = rectangle.x; x <= rectangle.x + rectangle.width; x++) {
+        tiles[x - rectangle.x][y - rectangle.y] = layer.getTileAt(x, y);
+      }
+    }
+
+    return tiles;
+  }
+
   /**
    * Draws the tiles for this layer.
    *
@@ -316,23 +335,71 @@ public class BoardLayerView {
    * allowed range.
    */
   public void drawTiles(Graphics2D g) throws TilePixelOutOfRangeException {
+    drawTiles(g, null);
+  }
+
+  /**
+   * Draws the tiles for this layer, collecting each tile drawn.
+   *
+   * @param g Graphics context to draw to.
+   * @param drawn Each tile drawn is added to this set, may be null.
+   * @return The number of tiles drawn.
+   * @throws TilePixelOutOfRangeException Throws an exception if the tiles pixel value is out of the
+   * allowed range.
+   */
+  public int drawTiles(Graphics2D g, Set<Tile> drawn) throws TilePixelOutOfRangeException {
+    return drawTiles(g, null, drawn);
+  }
+
+  /**
+   * Draws the tiles for this layer that lie in a region, collecting each tile drawn.
+   *
+   * @param g Graphics context to draw to.
+   * @param region The region to draw in tiles, may be null to draw the whole layer.
+   * @param drawn Each tile drawn is added to this set, may be null.
+   * @return The number of tiles drawn.
+   * @throws TilePixelOutOfRangeException Throws an exception if the tiles pixel value is out of the
+   * allowed range.
+   */
+  public int drawTiles(Graphics2D g, Rectangle region, Set<Tile> drawn)
+          throws TilePixelOutOfRangeException {
     Board parentBoard = layer.getBoard();
+    int count = 0;
+
+    int startX = 0;
+    int startY = 0;
+    int endX = parentBoard.getWidth();
+    int endY = parentBoard.getHeight();
+
+    if (region != null) {
+      startX = Math.max(startX, region.x);
+      startY = Math.max(startY, region.y);
+      endX = Math.min(endX, region.x + region.width);
+      endY = Math.min(endY, region.y + region.height);
+    }
 
     g.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_ATOP,
             opacity));
 
-    for (int x = 0; x < parentBoard.getWidth(); x++) {
-      for (int y = 0; y < parentBoard.getHeight(); y++) {
+    for (int x = startX; x < endX; x++) {
+      for (int y = startY; y < endY; y++) {
         if (layer.getTiles()[x][y] != null) {
           Tile tile = layer.getTiles()[x][y];
 
           g.drawImage(tile.getTileAsImage(), (x * 32),
                   (y * 32), null);
+          count++;
+
+          if (drawn != null) {
+            drawn.add(tile);
+          }
         } else {
           g.setColor(Color.white);
         }
       }
     }
+
+    return count;
   }
 
   /**
@@ -0,0 +1,274 @@
+/**
+ * Copyright (c) 2015, rpgtoolkit.net <help@rpgtoolkit.net>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public License, v. 2.0. If a copy of
+ * the MPL was not distributed with this file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package net.rpgtoolkit.editor.editors.board;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import net.rpgtoolkit.common.assets.Board;
+import net.rpgtoolkit.common.assets.BoardLayer;
+import net.rpgtoolkit.common.assets.TilePixelOutOfRangeException;
+import net.rpgtoolkit.editor.ui.MainWindow;
+import net.rpgtoolkit.editor.utilities.StreamingPngWriter;
+
+/**
+ * Draws a board's tiles and sprites without any of the editor's overlays, using the same
+ * {@link BoardLayerView} drawing code as the board editor. It needs no window or
+ * {@link BoardEditor} so it can be used headless, e.g. to export boards to images.
+ *
+ * Boards too large to hold as one image can be written with
+ * {@link #writePng(java.io.OutputStream, double, int)}, which renders a strip of rows at a time
+ * and streams each one to the PNG encoder.
+ */
+public class BoardRenderer {
+
+  /**
+   * The same as the board editor's background.
+   */
+  public static final Color DEFAULT_BACKGROUND = new Color(64, 64, 64);
+
+  private final Board board;
+  private final List<BoardLayerView> layers = new ArrayList<>();
+
+  private Color background = DEFAULT_BACKGROUND;
+
+  /**
+   * Renders every layer of the board.
+   *
+   * @param board the board to draw
+   */
+  public BoardRenderer(Board board) {
+    this(board, null);
+  }
+
+  /**
+   *
+   * @param board the board to draw
+   * @param layerNumbers the layers to draw, numbered from 0 at the bottom, or null for all of them
+   */
+  public BoardRenderer(Board board, Set<Integer> layerNumbers) {
+    this.board = board;
+
+    List<BoardLayer> boardLayers = board.getLayers();
+
+    for (int i = 0; i < boardLayers.size(); i++) {
+      if (layerNumbers == null || layerNumbers.contains(i)) {
+        layers.add(new BoardLayerView(boardLayers.get(i)));
+      }
+    }
+  }
+
+  public Board getBoard() {
+    return board;
+  }
+
+  /**
+   * Gets the layers that will be drawn, bottom first.
+   *
+   * @return the layer views
+   */
+  public List<BoardLayerView> getLayers() {
+    return Collections.unmodifiableList(layers);
+  }
+
+  /**
+   *
+   * @return the colour filled in behind the layers
+   */
+  public Color getBackground() {
+    return background;
+  }
+
+  /**
+   * Sets the colour filled in behind the layers. Layers are composited with SRC_ATOP, the same as
+   * in the editor, so they only show up over an opaque background.
+   *
+   * @param background an opaque colour
+   */
+  public void setBackground(Color background) {
+    if (background == null || background.getAlpha() != 255) {
+      throw new IllegalArgumentException("background must be opaque");
+    }
+
+    this.background = background;
+  }
+
+  /**
+   *
+   * @return the full width of the board in pixels
+   */
+  public int getWidth() {
+    return board.getWidth() * MainWindow.TILE_SIZE;
+  }
+
+  /**
+   *
+   * @return the full height of the board in pixels
+   */
+  public int getHeight() {
+    return board.getHeight() * MainWindow.TILE_SIZE;
+  }
+
+  /**
+   * Works out how much memory {@link #render(double)} will need for its image.
+   *
+   * @param scale the scale the board will be drawn at
+   * @return the size of the image in bytes
+   */
+  public long getImageBytes(double scale) {
+    return (long) scaled(getWidth(), scale) * scaled(getHeight(), scale) * 4;
+  }
+
+  /**
+   * Works out how much memory {@link #writePng(java.io.OutputStream, double, int)} will need for
+   * each strip.
+   *
+   * @param scale the scale the board will be drawn at
+   * @param stripRows the height of each strip in tiles
+   * @return the size of a strip image in bytes
+   */
+  public long getStripBytes(double scale, int stripRows) {
+    return (long) scaled(getWidth(), scale) * getStripHeight(scale, stripRows) * 4;
+  }
+
+  /**
+   * Draws the board into a new image.
+   *
+   * @param scale 1.0 for full size, less than 1.0 for a smaller preview
+   * @return the image
+   * @throws TilePixelOutOfRangeException if a tile has an invalid pixel
+   */
+  public BufferedImage render(double scale) throws TilePixelOutOfRangeException {
+    BufferedImage image = new BufferedImage(scaled(getWidth(), scale), scaled(getHeight(), scale),
+            BufferedImage.TYPE_INT_ARGB);
+    Graphics2D g = image.createGraphics();
+
+    try {
+      if (scale != 1.0) {
+        g.setRenderingHint(RenderingHints.KEY_INTERPOLATION,
+                RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+        g.scale(scale, scale);
+      }
+
+      render(g);
+    } finally {
+      g.dispose();
+    }
+
+    return image;
+  }
+
+  /**
+   * Draws the board as a PNG, rendering and encoding a strip of rows at a time. Only one strip is
+   * held in memory so the size of the board is limited by disk space, not the heap.
+   *
+   * @param out where to write the PNG, it is not closed
+   * @param scale 1.0 for full size, less than 1.0 for a smaller preview
+   * @param stripRows the height of each strip in tiles
+   * @throws IOException if the image could not be written
+   * @throws TilePixelOutOfRangeException if a tile has an invalid pixel
+   */
+  public void writePng(OutputStream out, double scale, int stripRows)
+          throws IOException, TilePixelOutOfRangeException {
+    int width = scaled(getWidth(), scale);
+    int height = scaled(getHeight(), scale);
+    int stripHeight = getStripHeight(scale, stripRows);
+
+    BufferedImage strip = new BufferedImage(width, stripHeight, BufferedImage.TYPE_INT_ARGB);
+    int[] pixels = ((DataBufferInt) strip.getRaster().getDataBuffer()).getData();
+    StreamingPngWriter writer = new StreamingPngWriter(out, width, height);
+
+    for (int top = 0; top < height; top += stripHeight) {
+      int rows = Math.min(stripHeight, height - top);
+
+      // The tile rows under the strip, plus one either side for the scaling filter to blend with.
+      int tileSize = MainWindow.TILE_SIZE;
+      int firstRow = (int) Math.floor(top / scale / tileSize) - 1;
+      int lastRow = (int) Math.ceil((top + rows) / scale / tileSize) + 1;
+      Rectangle region = new Rectangle(0, firstRow, board.getWidth(), lastRow - firstRow);
+
+      Graphics2D g = strip.createGraphics();
+
+      try {
+        g.translate(0, -top);
+
+        if (scale != 1.0) {
+          g.setRenderingHint(RenderingHints.KEY_INTERPOLATION,
+                  RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+          g.scale(scale, scale);
+        }
+
+        render(g, region);
+      } finally {
+        g.dispose();
+      }
+
+      writer.writeRows(pixels, 0, rows);
+    }
+
+    writer.close();
+  }
+
+  /**
+   * Draws the board at the origin of the graphics context in board pixels.
+   *
+   * @param g the graphics context to draw to
+   * @throws TilePixelOutOfRangeException if a tile has an invalid pixel
+   */
+  public void render(Graphics2D g) throws TilePixelOutOfRangeException {
+    render(g, null);
+  }
+
+  /**
+   * Draws part of the board in board pixels. Sprites are always all drawn, they may overlap the
+   * region from tiles outside of it.
+   *
+   * @param g the graphics context to draw to
+   * @param region the tiles to draw, or null for the whole board
+   * @throws TilePixelOutOfRangeException if a tile has an invalid pixel
+   */
+  public void render(Graphics2D g, Rectangle region) throws TilePixelOutOfRangeException {
+    int tileSize = MainWindow.TILE_SIZE;
+
+    g.setColor(background);
+
+    if (region == null) {
+      g.fillRect(0, 0, getWidth(), getHeight());
+    } else {
+      g.fillRect(region.x * tileSize, region.y * tileSize, region.width * tileSize,
+              region.height * tileSize);
+    }
+
+    for (BoardLayerView layer : layers) {
+      layer.drawTiles(g, region, null);
+    }
+
+    for (BoardLayerView layer : layers) {
+      layer.drawSprites(g);
+    }
+  }
+
+  private int getStripHeight(double scale, int stripRows) {
+    int height = scaled(getHeight(), scale);
+    return Math.min(height, scaled(Math.max(1, stripRows) * MainWindow.TILE_SIZE, scale));
+  }
+
+  private static int scaled(int size, double scale) {
+    return Math.max(1, (int) Math.ceil(size * scale));
+  }
+
+}
@@ -18,13 +18,17 @@ import java.awt.RenderingHints;
 import java.awt.font.FontRenderContext;
 import java.awt.geom.Rectangle2D;
 import java.util.ArrayList;
+import java.util.Set;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import net.rpgtoolkit.common.assets.Board;
+import net.rpgtoolkit.common.assets.Tile;
 import net.rpgtoolkit.common.assets.TilePixelOutOfRangeException;
 import net.rpgtoolkit.editor.editors.BoardEditor;
 import net.rpgtoolkit.editor.ui.MainWindow;
+import net.rpgtoolkit.editor.utilities.metrics.MetricsRegistry;
+import net.rpgtoolkit.editor.utilities.metrics.Timer;
 
 /**
  * A concrete class for drawing 2D RPG-Toolkit Boards, this is the view component. It defines the
@@ -40,6 +44,8 @@ import net.rpgtoolkit.editor.ui.MainWindow;
  */
 public final class BoardView2D extends AbstractBoardView {
 
+  private static final Timer REPAINT_TIMER = MetricsRegistry.getInstance().timer("board.repaint");
+
   /**
    * Default constructor.
    */
@@ -74,8 +80,18 @@ public final class BoardView2D extends AbstractBoardView {
    */
   @Override
   public void paintComponent(Graphics g) {
+    long start = System.nanoTime();
     super.paintComponent(g);
 
+    boolean showStatistics = boardEditor != null
+            && MainWindow.getInstance().isShowPerformanceOverlay();
+    performanceOverlay.setEnabled(showStatistics);
+    Graphics2D overlay = showStatistics ? (Graphics2D) g.create() : null;
+
+    if (showStatistics) {
+      performanceOverlay.beginFrame();
+    }
+
     Graphics2D g2d = (Graphics2D) g;
     g2d.transform(affineTransform);
 
@@ -89,6 +105,14 @@ public final class BoardView2D extends AbstractBoardView {
       g.drawImage(bufferedImage, 0, 0, null);
     }
 
+    REPAINT_TIMER.stop(start);
+
+    if (showStatistics) {
+      performanceOverlay.endFrame();
+      performanceOverlay.paint(overlay, getVisibleRect(), this);
+      overlay.dispose();
+    }
+
     g.dispose();
     g2d.dispose();
   }
@@ -97,10 +121,14 @@ public final class BoardView2D extends AbstractBoardView {
    * Paints the board to the screen using a BufferedImage, it calls multiple sub methods which each
    * draw part of the board (if they are set to).
    *
+   * A view without a parent BoardEditor, e.g. one used to render a board offscreen, only draws the
+   * board itself and none of the editing overlays. Public so such a view can be painted without a
+   * screen, the result is in getBufferedImage().
+   *
    * @throws TilePixelOutOfRangeException Thrown if a tiles pixel value is out of the allowed range.
    */
   @Override
-  protected void paintBoard() throws TilePixelOutOfRangeException {
+  public void paintBoard() throws TilePixelOutOfRangeException {
     Graphics2D g = bufferedImage.createGraphics();
 
     // Draw background colour first.
@@ -115,6 +143,11 @@ public final class BoardView2D extends AbstractBoardView {
     g.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_ATOP,
             1.0f));
 
+    if (boardEditor == null) {
+      g.dispose();
+      return;
+    }
+
     if (MainWindow.getInstance().isShowGrid()) {
       paintGrid(g);
     }
@@ -138,6 +171,7 @@ public final class BoardView2D extends AbstractBoardView {
     }
 
     paintBrushPreview(g);
+    g.dispose();
   }
 
   /**
@@ -149,11 +183,17 @@ public final class BoardView2D extends AbstractBoardView {
   @Override
   protected void paintLayers(Graphics2D g) {
     ArrayList<BoardLayerView> layers = getLayerArrayList();
+    Set<Tile> drawn = performanceOverlay.isEnabled()
+            ? performanceOverlay.getDistinctTiles() : null;
 
     for (BoardLayerView layer : layers) {
       if (layer.isVisible()) {
         try {
-          layer.drawTiles(g);
+          int tiles = layer.drawTiles(g, drawn);
+
+          if (drawn != null) {
+            performanceOverlay.layerDrawn(tiles);
+          }
         } catch (TilePixelOutOfRangeException ex) {
           Logger.getLogger(BoardView2D.class.getName()).
                   log(Level.SEVERE, null, ex);
@@ -246,6 +286,10 @@ public final class BoardView2D extends AbstractBoardView {
     for (BoardLayerView layer : layers) {
       if (layer.isIsVisible()) {
         layer.drawSprites(g);
+
+        if (performanceOverlay.isEnabled()) {
+          performanceOverlay.spritesDrawn(layer.getLayer().getSprites().size());
+        }
       }
     }
   }
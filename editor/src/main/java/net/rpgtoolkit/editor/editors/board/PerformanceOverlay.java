@@ -0,0 +1,272 @@
+/**
+ * Copyright (c) 2015, rpgtoolkit.net <help@rpgtoolkit.net>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public License, v. 2.0. If a copy of
+ * the MPL was not distributed with this file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package net.rpgtoolkit.editor.editors.board;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import net.rpgtoolkit.common.assets.Tile;
+
+/**
+ * Collects per-frame render statistics for a board view and paints them as a heads up display in
+ * the corner of the view. Statistics are only gathered while the overlay is enabled, a disabled
+ * overlay costs a single boolean check per frame.
+ *
+ * Tiles are counted as they are drawn, "tile reuse" is the share of those draws that used a tile
+ * image that had already been drawn earlier in the same frame.
+ */
+public class PerformanceOverlay {
+
+  private static final int HISTORY = 60;
+  private static final int PADDING = 6;
+  private static final Font FONT = new Font(Font.MONOSPACED, Font.PLAIN, 11);
+  private static final Color BACKGROUND = new Color(0, 0, 0, 180);
+  private static final Color FOREGROUND = new Color(220, 220, 220);
+  private static final Color WARNING = new Color(255, 120, 100);
+
+  /**
+   * Frames slower than this are highlighted, roughly 30 frames per second.
+   */
+  private static final long SLOW_FRAME_NANOS = TimeUnit.MILLISECONDS.toNanos(33);
+
+  private boolean enabled;
+
+  // Ring buffers of the most recent frames.
+  private final long[] frameStarts = new long[HISTORY];
+  private final long[] frameTimes = new long[HISTORY];
+  private int frames;
+  private int next;
+
+  private long frameStart;
+  private int tilesDrawn;
+  private int layersComposited;
+  private int spritesDrawn;
+  private final Set<Tile> distinctTiles
+          = Collections.newSetFromMap(new IdentityHashMap<Tile, Boolean>());
+
+  // Totals for the last finished frame.
+  private int lastTilesDrawn;
+  private int lastDistinctTiles;
+  private int lastLayersComposited;
+  private int lastSpritesDrawn;
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Turns statistics gathering on or off, turning it on starts from an empty history.
+   *
+   * @param enabled true to gather and paint statistics
+   */
+  public void setEnabled(boolean enabled) {
+    if (enabled && !this.enabled) {
+      reset();
+    }
+
+    this.enabled = enabled;
+  }
+
+  /**
+   * Clears the frame history.
+   */
+  public void reset() {
+    frames = 0;
+    next = 0;
+    lastTilesDrawn = 0;
+    lastDistinctTiles = 0;
+    lastLayersComposited = 0;
+    lastSpritesDrawn = 0;
+  }
+
+  /**
+   * Marks the start of a frame.
+   */
+  public void beginFrame() {
+    frameStart = System.nanoTime();
+    tilesDrawn = 0;
+    layersComposited = 0;
+    spritesDrawn = 0;
+    distinctTiles.clear();
+  }
+
+  /**
+   * The set that layers should add each tile they draw to during the current frame.
+   *
+   * @return the distinct tiles drawn so far this frame
+   */
+  public Set<Tile> getDistinctTiles() {
+    return distinctTiles;
+  }
+
+  /**
+   * Records one layer having been composited into the frame.
+   *
+   * @param tiles the number of tiles the layer drew
+   */
+  public void layerDrawn(int tiles) {
+    tilesDrawn += tiles;
+    layersComposited++;
+  }
+
+  /**
+   *
+   * @param sprites the number of sprites drawn
+   */
+  public void spritesDrawn(int sprites) {
+    spritesDrawn += sprites;
+  }
+
+  /**
+   * Marks the end of a frame and adds it to the history.
+   */
+  public void endFrame() {
+    frameStarts[next] = frameStart;
+    frameTimes[next] = System.nanoTime() - frameStart;
+    next = (next + 1) % HISTORY;
+    frames = Math.min(frames + 1, HISTORY);
+
+    lastTilesDrawn = tilesDrawn;
+    lastDistinctTiles = distinctTiles.size();
+    lastLayersComposited = layersComposited;
+    lastSpritesDrawn = spritesDrawn;
+    distinctTiles.clear();
+  }
+
+  /**
+   *
+   * @return the duration of the most recent frame in milliseconds
+   */
+  public double getLastFrameTime() {
+    if (frames == 0) {
+      return 0;
+    }
+
+    return frameTimes[(next + HISTORY - 1) % HISTORY] / 1000000.0;
+  }
+
+  /**
+   *
+   * @return the average frame duration over the history in milliseconds
+   */
+  public double getAverageFrameTime() {
+    if (frames == 0) {
+      return 0;
+    }
+
+    long total = 0;
+
+    for (int i = 0; i < frames; i++) {
+      total += frameTimes[i];
+    }
+
+    return total / (frames * 1000000.0);
+  }
+
+  /**
+   *
+   * @return the number of frames painted in the last second
+   */
+  public int getRepaintsPerSecond() {
+    long since = System.nanoTime() - TimeUnit.SECONDS.toNanos(1);
+    int count = 0;
+
+    for (int i = 0; i < frames; i++) {
+      if (frameStarts[i] - since >= 0) {
+        count++;
+      }
+    }
+
+    return count;
+  }
+
+  public int getTilesDrawn() {
+    return lastTilesDrawn;
+  }
+
+  public int getLayersComposited() {
+    return lastLayersComposited;
+  }
+
+  public int getSpritesDrawn() {
+    return lastSpritesDrawn;
+  }
+
+  /**
+   *
+   * @return the share of tile draws in the last frame that reused an image already drawn in that
+   * frame, between 0 and 1
+   */
+  public double getTileReuse() {
+    if (lastTilesDrawn == 0) {
+      return 0;
+    }
+
+    return 1.0 - (double) lastDistinctTiles / lastTilesDrawn;
+  }
+
+  /**
+   * Paints the statistics in the top left corner of the visible area. The graphics context must be
+   * in component coordinates, i.e. not zoomed.
+   *
+   * @param g the graphics context to draw to
+   * @param visible the visible area of the view
+   * @param view the view the statistics belong to
+   */
+  public void paint(Graphics2D g, Rectangle visible, AbstractBoardView view) {
+    BufferedImage backBuffer = view.getBufferedImage();
+    long bufferBytes = backBuffer == null ? 0
+            : (long) backBuffer.getWidth() * backBuffer.getHeight() * 4;
+
+    String[] lines = {
+      String.format("Frame      %6.2f ms (avg %.2f)", getLastFrameTime(), getAverageFrameTime()),
+      String.format("Repaints   %6d /s", getRepaintsPerSecond()),
+      String.format("Tiles      %6d (%d distinct)", lastTilesDrawn, lastDistinctTiles),
+      String.format("Tile reuse %6.1f %%", getTileReuse() * 100),
+      String.format("Layers     %6d of %d", lastLayersComposited, view.getLayerArrayList().size()),
+      String.format("Sprites    %6d", lastSpritesDrawn),
+      String.format("Board      %6s", view.getBoard().getWidth() + "x"
+              + view.getBoard().getHeight()),
+      String.format("Zoom       %6.0f %%", view.getZoom() * 100),
+      String.format("Buffer     %6.1f MB", bufferBytes / (1024.0 * 1024.0))
+    };
+
+    g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING,
+            RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+    g.setFont(FONT);
+    FontMetrics metrics = g.getFontMetrics();
+
+    int width = 0;
+
+    for (String line : lines) {
+      width = Math.max(width, metrics.stringWidth(line));
+    }
+
+    int lineHeight = metrics.getHeight();
+    int x = visible.x + PADDING;
+    int y = visible.y + PADDING;
+
+    g.setColor(BACKGROUND);
+    g.fillRect(x, y, width + PADDING * 2, lineHeight * lines.length + PADDING * 2);
+
+    long averageNanos = (long) (getAverageFrameTime() * 1000000);
+
+    for (int i = 0; i < lines.length; i++) {
+      g.setColor(i == 0 && averageNanos > SLOW_FRAME_NANOS ? WARNING : FOREGROUND);
+      g.drawString(lines[i], x + PADDING, y + PADDING + metrics.getAscent() + i * lineHeight);
+    }
+  }
+
+}
@@ -0,0 +1,193 @@
+/**
+ * Copyright (c) 2015, rpgtoolkit.net <help@rpgtoolkit.net>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public License, v. 2.0. If a copy of
+ * the MPL was not distributed with this file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package net.rpgtoolkit.editor.ui;
+
+import java.awt.Component;
+import java.awt.Frame;
+import java.awt.Window;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import javax.swing.JInternalFrame;
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+
+/**
+ * Drives every animation preview in the editor from a single Swing timer. Each registered
+ * animation advances at its own frame delay, the timer is rescheduled to fire when the next one
+ * is due and stops entirely when nothing is playing. Animations whose component is not showing,
+ * e.g. in an iconified editor or a hidden tab, are not advanced, and ones in an editor that has
+ * been closed are dropped. All methods must be called on the EDT.
+ */
+public final class AnimationClock {
+
+  /**
+   * Something that is advanced by the clock.
+   */
+  public interface Animated {
+
+    /**
+     *
+     * @return the component showing the animation, used to skip hidden animations
+     */
+    public Component getComponent();
+
+    /**
+     *
+     * @return the delay between frames in milliseconds
+     */
+    public int getFrameDelay();
+
+    /**
+     * Advances to the next frame.
+     */
+    public void nextFrame();
+  }
+
+  private static final int MIN_DELAY = 5;
+
+  private static final AnimationClock instance = new AnimationClock();
+
+  private final List<Entry> entries = new ArrayList<>();
+  private final Timer timer;
+
+  private AnimationClock() {
+    timer = new Timer(MIN_DELAY, new ActionListener() {
+      @Override
+      public void actionPerformed(ActionEvent e) {
+        tick();
+      }
+    });
+    timer.setRepeats(false);
+  }
+
+  public static AnimationClock getInstance() {
+    return instance;
+  }
+
+  /**
+   * Starts advancing the animation, its first frame change is one frame delay from now.
+   *
+   * @param animated the animation to advance
+   */
+  public void start(Animated animated) {
+    stop(animated);
+    entries.add(new Entry(animated, now() + Math.max(1, animated.getFrameDelay())));
+    schedule();
+  }
+
+  /**
+   * Stops advancing the animation.
+   *
+   * @param animated the animation to stop
+   */
+  public void stop(Animated animated) {
+    for (int i = entries.size() - 1; i >= 0; i--) {
+      if (entries.get(i).animated == animated) {
+        entries.remove(i);
+      }
+    }
+
+    if (entries.isEmpty()) {
+      timer.stop();
+    }
+  }
+
+  public boolean isRunning(Animated animated) {
+    for (Entry entry : entries) {
+      if (entry.animated == animated) {
+        return true;
+      }
+    }
+
+    return false;
+  }
+
+  private void tick() {
+    long now = now();
+
+    // Iterate over a copy, a frame change may start or stop other animations.
+    for (Entry entry : new ArrayList<>(entries)) {
+      if (entry.due > now) {
+        continue;
+      }
+
+      if (isClosed(entry.animated.getComponent())) {
+        entries.remove(entry);
+        continue;
+      }
+
+      long delay = Math.max(1, entry.animated.getFrameDelay());
+
+      if (isVisible(entry.animated.getComponent())) {
+        entry.animated.nextFrame();
+      }
+
+      entry.due += delay;
+
+      // Don't try to catch up after a stall or while hidden, just carry on from now.
+      if (entry.due <= now) {
+        entry.due = now + delay;
+      }
+    }
+
+    schedule();
+  }
+
+  private void schedule() {
+    if (entries.isEmpty()) {
+      timer.stop();
+      return;
+    }
+
+    long next = Long.MAX_VALUE;
+
+    for (Entry entry : entries) {
+      next = Math.min(next, entry.due);
+    }
+
+    timer.setInitialDelay((int) Math.max(MIN_DELAY, next - now()));
+    timer.restart();
+  }
+
+  private static boolean isVisible(Component component) {
+    if (component == null || !component.isShowing()) {
+      return false;
+    }
+
+    Window window = SwingUtilities.getWindowAncestor(component);
+
+    return !(window instanceof Frame)
+            || (((Frame) window).getExtendedState() & Frame.ICONIFIED) == 0;
+  }
+
+  private static boolean isClosed(Component component) {
+    JInternalFrame frame = (JInternalFrame) SwingUtilities.getAncestorOfClass(
+            JInternalFrame.class, component);
+
+    return frame != null && frame.isClosed();
+  }
+
+  private static long now() {
+    return TimeUnit.NANOSECONDS.toMillis(System.nanoTime());
+  }
+
+  private static final class Entry {
+
+    private final Animated animated;
+    private long due;
+
+    private Entry(Animated animated, long due) {
+      this.animated = animated;
+      this.due = due;
+    }
+
+  }
+
+}
@@ -0,0 +1,203 @@
+/**
+ * Copyright (c) 2015, rpgtoolkit.net <help@rpgtoolkit.net>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public License, v. 2.0. If a copy of
+ * the MPL was not distributed with this file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package net.rpgtoolkit.editor.ui;
+
+import java.awt.Component;
+import java.awt.Dimension;
+import java.awt.Graphics;
+import java.awt.image.BufferedImage;
+import javax.swing.JComponent;
+import net.rpgtoolkit.editor.utilities.CachedAnimation;
+
+/**
+ * Previews an animation by drawing its pre-decoded frames in turn. Advancing a frame only changes
+ * an index and repaints, nothing is allocated while playing. Playback is driven by the shared
+ * {@link AnimationClock}.
+ *
+ * While playing, the time actually taken between frames is recorded over a short window so it can
+ * be compared with the animation's frame delay. Every frame change fires a "frame" property change.
+ */
+public class AnimationPlayer extends JComponent implements AnimationClock.Animated {
+
+  private static final int TIMING_WINDOW = 32;
+
+  private CachedAnimation animation;
+  private int frame;
+
+  private final long[] frameTimes = new long[TIMING_WINDOW];
+  private int frameTimeCount;
+  private int frameTimeIndex;
+  private long lastFrameNanos;
+
+  public AnimationPlayer() {
+
+  }
+
+  public CachedAnimation getAnimation() {
+    return animation;
+  }
+
+  /**
+   * Shows the first frame of an animation, stopping any animation that is playing.
+   *
+   * @param animation the animation to show, or null to show nothing
+   */
+  public void setAnimation(CachedAnimation animation) {
+    stop();
+    this.animation = animation;
+
+    revalidate();
+    repaint();
+  }
+
+  public boolean isPlaying() {
+    return AnimationClock.getInstance().isRunning(this);
+  }
+
+  public void play() {
+    if (animation == null || animation.getFrameCount() == 0) {
+      return;
+    }
+
+    resetTiming();
+    AnimationClock.getInstance().start(this);
+  }
+
+  /**
+   * Stops playing and returns to the first frame.
+   */
+  public void stop() {
+    AnimationClock.getInstance().stop(this);
+    resetTiming();
+    setFrame(0);
+  }
+
+  /**
+   * Stops playing, leaving the current frame showing.
+   */
+  public void pause() {
+    AnimationClock.getInstance().stop(this);
+    resetTiming();
+  }
+
+  public int getFrame() {
+    return frame;
+  }
+
+  /**
+   * Shows a particular frame, e.g. when scrubbing. Playback carries on from it if playing.
+   *
+   * @param frame the index of the frame
+   */
+  public void setFrame(int frame) {
+    int old = this.frame;
+
+    if (old == frame) {
+      return;
+    }
+
+    this.frame = frame;
+    repaint();
+    firePropertyChange("frame", old, frame);
+  }
+
+  /**
+   * Gets the average time between frames over the most recent frames played.
+   *
+   * @return the average in milliseconds, or 0 if fewer than two frames have been played
+   */
+  public double getAverageFrameTime() {
+    if (frameTimeCount == 0) {
+      return 0;
+    }
+
+    long total = 0;
+
+    for (int i = 0; i < frameTimeCount; i++) {
+      total += frameTimes[i];
+    }
+
+    return total / (frameTimeCount * 1000000.0);
+  }
+
+  /**
+   * Gets the longest time between frames over the most recent frames played.
+   *
+   * @return the longest time in milliseconds, or 0 if fewer than two frames have been played
+   */
+  public double getMaxFrameTime() {
+    long max = 0;
+
+    for (int i = 0; i < frameTimeCount; i++) {
+      max = Math.max(max, frameTimes[i]);
+    }
+
+    return max / 1000000.0;
+  }
+
+  @Override
+  public Component getComponent() {
+    return this;
+  }
+
+  @Override
+  public int getFrameDelay() {
+    return animation == null ? 0 : animation.getFrameDelay();
+  }
+
+  /**
+   * Advances to the next frame, looping after the last one.
+   */
+  @Override
+  public void nextFrame() {
+    if (animation == null || animation.getFrameCount() == 0) {
+      return;
+    }
+
+    long now = System.nanoTime();
+
+    if (lastFrameNanos != 0) {
+      frameTimes[frameTimeIndex] = now - lastFrameNanos;
+      frameTimeIndex = (frameTimeIndex + 1) % TIMING_WINDOW;
+      frameTimeCount = Math.min(frameTimeCount + 1, TIMING_WINDOW);
+    }
+
+    lastFrameNanos = now;
+    setFrame((frame + 1) % animation.getFrameCount());
+  }
+
+  private void resetTiming() {
+    frameTimeCount = 0;
+    frameTimeIndex = 0;
+    lastFrameNanos = 0;
+  }
+
+  @Override
+  public Dimension getPreferredSize() {
+    if (isPreferredSizeSet() || animation == null) {
+      return super.getPreferredSize();
+    }
+
+    return new Dimension(animation.getWidth(), animation.getHeight());
+  }
+
+  @Override
+  protected void paintComponent(Graphics g) {
+    super.paintComponent(g);
+
+    if (animation == null || animation.getFrameCount() == 0) {
+      return;
+    }
+
+    BufferedImage image = animation.getFrame(frame);
+
+    if (image != null) {
+      g.drawImage(image, 0, 0, null);
+    }
+  }
+
+}
@@ -0,0 +1,267 @@
+/**
+ * Copyright (c) 2015, rpgtoolkit.net <help@rpgtoolkit.net>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public License, v. 2.0. If a copy of
+ * the MPL was not distributed with this file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package net.rpgtoolkit.editor.ui;
+
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Graphics;
+import java.awt.Rectangle;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.image.BufferedImage;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import javax.swing.JComponent;
+import javax.swing.SwingUtilities;
+import net.rpgtoolkit.common.assets.Animation;
+import net.rpgtoolkit.editor.utilities.ThumbnailService;
+
+/**
+ * A strip of frame thumbnails for an animation, meant to be placed in a scroll pane. Only the
+ * frames inside the visible region are painted and thumbnails are created for them on demand on a
+ * background thread, so opening a long animation costs the same as a short one. Thumbnails are
+ * kept in a small LRU, work queued for frames that have been scrolled out of view is cancelled.
+ *
+ * Clicking a frame selects it and fires a "selectedFrame" property change.
+ */
+public class AnimationTimeline extends JComponent {
+
+  public static final int THUMBNAIL_SIZE = 64;
+
+  private static final int GAP = 4;
+  private static final int CELL_WIDTH = THUMBNAIL_SIZE + GAP;
+  private static final int MAX_THUMBNAILS = 128;
+
+  private static final ExecutorService executor = Executors.newSingleThreadExecutor(
+          new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+              Thread thread = new Thread(runnable, "animation-timeline");
+              thread.setDaemon(true);
+              thread.setPriority(Thread.MIN_PRIORITY);
+              return thread;
+            }
+          });
+
+  private final Animation animation;
+  private int selectedFrame;
+
+  // Only accessed on the EDT.
+  private final Map<Integer, BufferedImage> thumbnails
+          = new LinkedHashMap<Integer, BufferedImage>(32, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, BufferedImage> eldest) {
+              return size() > MAX_THUMBNAILS;
+            }
+          };
+  private final Map<Integer, ThumbnailRequest> requests = new HashMap<>();
+
+  public AnimationTimeline(Animation animation) {
+    this.animation = animation;
+
+    setOpaque(true);
+    setBackground(Color.WHITE);
+
+    addMouseListener(new MouseAdapter() {
+      @Override
+      public void mousePressed(MouseEvent e) {
+        int frame = e.getX() / CELL_WIDTH;
+
+        if (frame < getFrameCount()) {
+          setSelectedFrame(frame);
+        }
+      }
+    });
+  }
+
+  public int getSelectedFrame() {
+    return selectedFrame;
+  }
+
+  /**
+   * Selects a frame and scrolls it into view.
+   *
+   * @param frame the index of the frame
+   */
+  public void setSelectedFrame(int frame) {
+    int old = selectedFrame;
+
+    if (old == frame) {
+      return;
+    }
+
+    selectedFrame = frame;
+    repaint(getCellBounds(old));
+    repaint(getCellBounds(frame));
+    scrollRectToVisible(getCellBounds(frame));
+    firePropertyChange("selectedFrame", old, frame);
+  }
+
+  /**
+   * Drops the thumbnail of a frame so it is recreated the next time it is shown.
+   *
+   * @param frame the index of the frame that changed
+   */
+  public void invalidateFrame(int frame) {
+    thumbnails.remove(frame);
+    cancel(frame);
+    repaint(getCellBounds(frame));
+  }
+
+  /**
+   * Drops all thumbnails, e.g. after frames have been added or removed.
+   */
+  public void invalidateAll() {
+    thumbnails.clear();
+
+    for (ThumbnailRequest request : requests.values()) {
+      request.future.cancel(false);
+    }
+
+    requests.clear();
+    revalidate();
+    repaint();
+  }
+
+  @Override
+  public Dimension getPreferredSize() {
+    if (isPreferredSizeSet()) {
+      return super.getPreferredSize();
+    }
+
+    return new Dimension(getFrameCount() * CELL_WIDTH + GAP, THUMBNAIL_SIZE + 2 * GAP);
+  }
+
+  @Override
+  public void removeNotify() {
+    super.removeNotify();
+    invalidateAll();
+  }
+
+  @Override
+  protected void paintComponent(Graphics g) {
+    Rectangle clip = g.getClipBounds();
+
+    if (clip == null) {
+      clip = new Rectangle(0, 0, getWidth(), getHeight());
+    }
+
+    g.setColor(getBackground());
+    g.fillRect(clip.x, clip.y, clip.width, clip.height);
+
+    int count = getFrameCount();
+    int first = Math.max(0, clip.x / CELL_WIDTH);
+    int last = Math.min(count - 1, (clip.x + clip.width) / CELL_WIDTH);
+
+    Rectangle visible = getVisibleRect();
+    cancelOutside(visible.x / CELL_WIDTH, (visible.x + visible.width) / CELL_WIDTH);
+
+    for (int i = first; i <= last; i++) {
+      Rectangle cell = getCellBounds(i);
+
+      if (!animation.getFrame(i).getFrameName().equals("")) {
+        BufferedImage thumbnail = thumbnails.get(i);
+
+        if (thumbnail != null) {
+          g.drawImage(thumbnail,
+                  cell.x + (cell.width - thumbnail.getWidth()) / 2,
+                  cell.y + (cell.height - thumbnail.getHeight()) / 2, null);
+        } else {
+          request(i);
+        }
+      }
+
+      g.setColor(i == selectedFrame ? Color.RED : Color.BLACK);
+      g.drawRect(cell.x, cell.y, cell.width - 1, cell.height - 1);
+    }
+  }
+
+  private int getFrameCount() {
+    return (int) animation.getFrameCount();
+  }
+
+  private Rectangle getCellBounds(int frame) {
+    return new Rectangle(GAP + frame * CELL_WIDTH, GAP, THUMBNAIL_SIZE, THUMBNAIL_SIZE);
+  }
+
+  private void request(int frame) {
+    if (requests.containsKey(frame)) {
+      return;
+    }
+
+    ThumbnailRequest request = new ThumbnailRequest(frame);
+    requests.put(frame, request);
+    request.future = executor.submit(request);
+  }
+
+  private void cancel(int frame) {
+    ThumbnailRequest request = requests.remove(frame);
+
+    if (request != null) {
+      request.future.cancel(false);
+    }
+  }
+
+  private void cancelOutside(int first, int last) {
+    Iterator<Map.Entry<Integer, ThumbnailRequest>> iterator = requests.entrySet().iterator();
+
+    while (iterator.hasNext()) {
+      Map.Entry<Integer, ThumbnailRequest> entry = iterator.next();
+      int frame = entry.getKey();
+
+      if (frame < first || frame > last) {
+        entry.getValue().future.cancel(false);
+        iterator.remove();
+      }
+    }
+  }
+
+  /**
+   * Creates the thumbnail for one frame in the background and hands it back on the EDT, unless the
+   * request was cancelled in the meantime.
+   */
+  private class ThumbnailRequest implements Runnable {
+
+    private final int frame;
+    private Future<?> future;
+
+    ThumbnailRequest(int frame) {
+      this.frame = frame;
+    }
+
+    @Override
+    public void run() {
+      BufferedImage image = animation.getFrame(frame).getFrameImage();
+      final BufferedImage thumbnail = image == null ? null
+              : ThumbnailService.scale(image, THUMBNAIL_SIZE, THUMBNAIL_SIZE);
+
+      SwingUtilities.invokeLater(new Runnable() {
+        @Override
+        public void run() {
+          if (requests.get(frame) != ThumbnailRequest.this) {
+            return;
+          }
+
+          requests.remove(frame);
+
+          if (thumbnail != null) {
+            thumbnails.put(frame, thumbnail);
+            repaint(getCellBounds(frame));
+          }
+        }
+      });
+    }
+
+  }
+
+}
@@ -0,0 +1,341 @@
+/**
+ * Copyright (c) 2015, rpgtoolkit.net <help@rpgtoolkit.net>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public License, v. 2.0. If a copy of
+ * the MPL was not distributed with this file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package net.rpgtoolkit.editor.ui;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.swing.SwingUtilities;
+import net.rpgtoolkit.editor.utilities.FileTools;
+import net.rpgtoolkit.editor.utilities.metrics.MetricsRegistry;
+
+/**
+ * Saves editor windows without blocking the EDT. Pending edits are committed on the EDT, the model
+ * is written to a temporary file on a background thread and then renamed over the original, so a
+ * crash part way through never leaves a corrupt file behind. Results are reported back on the EDT
+ * through {@link SaveListener}s.
+ *
+ * While a window is being written it is locked against edits. A save requested for a window that
+ * is already being written is coalesced into a single follow-up save.
+ */
+public class BackgroundSaver {
+
+  /**
+   * Notified on the EDT when a background save finishes.
+   */
+  public interface SaveListener {
+
+    /**
+     *
+     * @param window the window that was saved
+     * @param file the file it was saved to
+     * @param elapsedMillis how long the write took
+     */
+    public void saveSucceeded(ToolkitEditorWindow window, File file, long elapsedMillis);
+
+    /**
+     * Not called for windows saved as part of {@link #saveAll(java.util.Collection)}, their
+     * failures are reported together in {@link #saveAllCompleted(int, java.util.List, long)}.
+     *
+     * @param window the window that failed to save
+     * @param file the file it was being saved to
+     * @param cause why it failed
+     */
+    public void saveFailed(ToolkitEditorWindow window, File file, Exception cause);
+
+    /**
+     *
+     * @param saved the number of files that were written
+     * @param failed the files that could not be written
+     * @param elapsedMillis wall clock time from the first write starting to the last finishing
+     */
+    public void saveAllCompleted(int saved, List<File> failed, long elapsedMillis);
+  }
+
+  /**
+   * Tracks the windows of a single "Save All" so it can be reported once they have all finished.
+   */
+  private static class Batch {
+
+    private final long start = System.nanoTime();
+    private final List<File> failed = new ArrayList<>();
+    private int remaining;
+    private int saved;
+
+  }
+
+  private final ExecutorService executor;
+  private final List<SaveListener> listeners = new CopyOnWriteArrayList<>();
+
+  // Only accessed on the EDT.
+  private final Set<ToolkitEditorWindow> inFlight = new HashSet<>();
+  private final Set<ToolkitEditorWindow> pending = new HashSet<>();
+
+  /**
+   *
+   * @param threads the maximum number of files written at once
+   */
+  public BackgroundSaver(int threads) {
+    executor = Executors.newFixedThreadPool(threads, new ThreadFactory() {
+      private final AtomicInteger count = new AtomicInteger();
+
+      @Override
+      public Thread newThread(Runnable runnable) {
+        Thread thread = new Thread(runnable, "background-saver-" + count.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+      }
+    });
+  }
+
+  public void addSaveListener(SaveListener listener) {
+    listeners.add(listener);
+  }
+
+  public void removeSaveListener(SaveListener listener) {
+    listeners.remove(listener);
+  }
+
+  /**
+   * Is a save in progress for the window? Must be called on the EDT.
+   *
+   * @param window the window to check
+   * @return true if the window is being written
+   */
+  public boolean isSaving(ToolkitEditorWindow window) {
+    return inFlight.contains(window);
+  }
+
+  /**
+   * Saves the window in the background if it has unsaved changes. Must be called on the EDT.
+   *
+   * @param window the window to save
+   * @return false if the user cancelled the save, true if it was queued or the window is clean
+   */
+  public boolean save(ToolkitEditorWindow window) {
+    return save(window, null);
+  }
+
+  /**
+   * Saves every window concurrently, bounded by the size of the thread pool, and reports a summary
+   * to the listeners once the last one has finished. Windows are prepared one at a time on the EDT
+   * first, so any "Save As" prompts for new files happen before the writes start. Must be called
+   * on the EDT.
+   *
+   * @param windows the windows to save
+   * @return the number of windows queued, excluding clean and cancelled ones and ones already
+   * being saved
+   */
+  public int saveAll(Collection<? extends ToolkitEditorWindow> windows) {
+    Batch batch = new Batch();
+    List<ToolkitEditorWindow> prepared = new ArrayList<>();
+    List<File> targets = new ArrayList<>();
+
+    for (ToolkitEditorWindow window : windows) {
+      if (!window.isDirty()) {
+        continue;
+      }
+
+      if (inFlight.contains(window)) {
+        pending.add(window);
+        continue;
+      }
+
+      File target = window.prepareSave();
+
+      if (target != null) {
+        prepared.add(window);
+        targets.add(target);
+      }
+    }
+
+    batch.remaining = prepared.size();
+
+    for (int i = 0; i < prepared.size(); i++) {
+      submit(prepared.get(i), targets.get(i), batch);
+    }
+
+    return prepared.size();
+  }
+
+  private boolean save(ToolkitEditorWindow window, Batch batch) {
+    if (!window.isDirty()) {
+      return true;
+    }
+
+    if (inFlight.contains(window)) {
+      pending.add(window);
+      return true;
+    }
+
+    File target = window.prepareSave();
+
+    if (target == null) {
+      return false;
+    }
+
+    submit(window, target, batch);
+    return true;
+  }
+
+  private void submit(final ToolkitEditorWindow window, final File target, final Batch batch) {
+    inFlight.add(window);
+    window.setSaving(true);
+
+    // Anything changed after this point was not written and keeps the window dirty.
+    final int changeCount = window.getChangeCount();
+
+    // Only the EDT changes the model, the writer thread just reads it.
+    final File temporary = FileTools.getTemporaryFile(target);
+    window.setModelFile(temporary);
+
+    executor.execute(new Runnable() {
+      @Override
+      public void run() {
+        long start = System.nanoTime();
+        Exception failure = null;
+
+        try {
+          writeTemporary(window, temporary, target);
+        } catch (IOException | RuntimeException ex) {
+          failure = ex;
+        }
+
+        final Exception cause = failure;
+        final long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        SwingUtilities.invokeLater(new Runnable() {
+          @Override
+          public void run() {
+            finish(window, target, changeCount, elapsed, cause, batch);
+          }
+        });
+      }
+    });
+  }
+
+  /**
+   * Waits for queued saves to finish and stops the background threads. Follow-up saves for edits
+   * made during a write are not started once this has been called.
+   *
+   * @param timeoutMillis how long to wait
+   * @return true if every save finished, false if the timeout ran out first
+   * @throws InterruptedException if interrupted while waiting
+   */
+  public boolean shutdown(long timeoutMillis) throws InterruptedException {
+    executor.shutdown();
+    return executor.awaitTermination(timeoutMillis, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Writes the window's model to a temporary file and then moves it over the target. Must be
+   * called on the EDT.
+   *
+   * @param window the window to write
+   * @param target the final location
+   * @throws IOException if the model could not be written or moved
+   */
+  public static void write(ToolkitEditorWindow window, File target) throws IOException {
+    File temporary = FileTools.getTemporaryFile(target);
+    window.setModelFile(temporary);
+
+    try {
+      writeTemporary(window, temporary, target);
+    } finally {
+      window.setModelFile(target);
+    }
+  }
+
+  /**
+   * Writes a model that already points at its temporary file, then moves the file over the target.
+   *
+   * @param window the window to write
+   * @param temporary where the model points
+   * @param target the final location
+   * @throws IOException if the model could not be written or moved
+   */
+  private static void writeTemporary(ToolkitEditorWindow window, File temporary, File target)
+          throws IOException {
+    long start = System.nanoTime();
+
+    try {
+      if (!window.writeModel()) {
+        MetricsRegistry.getInstance().counter("asset.save.failures").increment();
+        throw new IOException("Failed to write " + target.getName());
+      }
+
+      FileTools.moveAtomically(temporary, target);
+      MetricsRegistry.getInstance().timer("asset.save").stop(start);
+    } finally {
+      if (temporary.exists()) {
+        temporary.delete();
+      }
+    }
+  }
+
+  private void finish(ToolkitEditorWindow window, File target, int changeCount, long elapsed,
+          Exception cause, Batch batch) {
+    inFlight.remove(window);
+    window.setModelFile(target);
+    window.setSaving(false);
+
+    if (cause == null) {
+      if (window.getChangeCount() == changeCount) {
+        window.setDirty(false);
+      } else {
+        pending.add(window);
+      }
+
+      window.saveCompleted(target);
+
+      for (SaveListener listener : listeners) {
+        listener.saveSucceeded(window, target, elapsed);
+      }
+    } else {
+      Logger.getLogger(BackgroundSaver.class.getName()).log(Level.SEVERE, null, cause);
+
+      if (batch == null) {
+        for (SaveListener listener : listeners) {
+          listener.saveFailed(window, target, cause);
+        }
+      }
+    }
+
+    if (batch != null) {
+      if (cause == null) {
+        batch.saved++;
+      } else {
+        batch.failed.add(target);
+      }
+
+      if (--batch.remaining == 0) {
+        long total = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - batch.start);
+
+        for (SaveListener listener : listeners) {
+          listener.saveAllCompleted(batch.saved, batch.failed, total);
+        }
+      }
+    }
+
+    if (pending.remove(window) && window.isDisplayable()) {
+      save(window);
+    }
+  }
+
+}
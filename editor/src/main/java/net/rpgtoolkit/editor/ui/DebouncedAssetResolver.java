@@ -0,0 +1,195 @@
+/**
+ * Copyright (c) 2015, rpgtoolkit.net <help@rpgtoolkit.net>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public License, v. 2.0. If a copy of
+ * the MPL was not distributed with this file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package net.rpgtoolkit.editor.ui;
+
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import javax.swing.text.JTextComponent;
+
+/**
+ * Resolves the asset named in a text field without blocking typing. Requests are debounced until
+ * the text has stopped changing, resolved on a shared background executor and the result is
+ * published back on the EDT. Only the most recent request is ever published, older ones are
+ * cancelled.
+ *
+ * @param <T> the type of asset that is resolved
+ */
+public class DebouncedAssetResolver<T> {
+
+  public static final int DEFAULT_DELAY = 250;
+
+  /**
+   * Turns text into an asset, called on a background thread.
+   *
+   * @param <T> the type of asset that is resolved
+   */
+  public interface Resolver<T> {
+
+    /**
+     *
+     * @param text the text to resolve
+     * @return the asset, or null if the text does not name one
+     * @throws Exception if the asset can't be loaded
+     */
+    public T resolve(String text) throws Exception;
+  }
+
+  /**
+   * Receives resolved assets on the EDT.
+   *
+   * @param <T> the type of asset that is resolved
+   */
+  public interface Callback<T> {
+
+    /**
+     *
+     * @param text the text that was resolved
+     * @param asset the asset, or null if it could not be resolved
+     */
+    public void resolved(String text, T asset);
+  }
+
+  private static final ExecutorService EXECUTOR = Executors.newFixedThreadPool(2,
+          new ThreadFactory() {
+            private final AtomicInteger count = new AtomicInteger();
+
+            @Override
+            public Thread newThread(Runnable runnable) {
+              Thread thread = new Thread(runnable, "asset-resolver-" + count.incrementAndGet());
+              thread.setDaemon(true);
+              return thread;
+            }
+          });
+
+  private final Resolver<T> resolver;
+  private final Callback<T> callback;
+  private final Timer timer;
+
+  // Only accessed on the EDT.
+  private String text;
+  private int generation;
+  private Future<?> current;
+
+  /**
+   *
+   * @param delay how long the text must be left alone before it is resolved, in milliseconds
+   * @param resolver loads the asset on a background thread
+   * @param callback receives the asset on the EDT
+   */
+  public DebouncedAssetResolver(int delay, Resolver<T> resolver, Callback<T> callback) {
+    this.resolver = resolver;
+    this.callback = callback;
+
+    timer = new Timer(delay, new ActionListener() {
+      @Override
+      public void actionPerformed(ActionEvent e) {
+        submit();
+      }
+    });
+    timer.setRepeats(false);
+  }
+
+  /**
+   * Resolves the field's text every time it changes.
+   *
+   * @param field the field to watch
+   */
+  public void attach(final JTextComponent field) {
+    field.getDocument().addDocumentListener(new DocumentListener() {
+      @Override
+      public void insertUpdate(DocumentEvent e) {
+        request(field.getText());
+      }
+
+      @Override
+      public void removeUpdate(DocumentEvent e) {
+        request(field.getText());
+      }
+
+      @Override
+      public void changedUpdate(DocumentEvent e) {
+
+      }
+    });
+  }
+
+  /**
+   * Schedules the text to be resolved once it has stopped changing, replacing any earlier request.
+   * Must be called on the EDT.
+   *
+   * @param text the text to resolve
+   */
+  public void request(String text) {
+    this.text = text;
+    cancelCurrent();
+    timer.restart();
+  }
+
+  /**
+   * Abandons any pending request, its result will not be published. Must be called on the EDT.
+   */
+  public void cancel() {
+    timer.stop();
+    cancelCurrent();
+  }
+
+  private void cancelCurrent() {
+    // Bumping the generation stops a request that has already finished from being published.
+    generation++;
+
+    if (current != null) {
+      current.cancel(true);
+      current = null;
+    }
+  }
+
+  private void submit() {
+    final String requested = text;
+    final int requestGeneration = ++generation;
+
+    current = EXECUTOR.submit(new Runnable() {
+      @Override
+      public void run() {
+        T asset = null;
+
+        try {
+          asset = resolver.resolve(requested);
+        } catch (Exception ex) {
+          Logger.getLogger(DebouncedAssetResolver.class.getName()).log(Level.FINE,
+                  "Failed to resolve " + requested, ex);
+        }
+
+        if (Thread.currentThread().isInterrupted()) {
+          return;
+        }
+
+        final T result = asset;
+        SwingUtilities.invokeLater(new Runnable() {
+          @Override
+          public void run() {
+            if (requestGeneration == generation) {
+              current = null;
+              callback.resolved(requested, result);
+            }
+          }
+        });
+      }
+    });
+  }
+
+}
@@ -18,6 +18,7 @@ import net.rpgtoolkit.editor.ui.actions.NewProjectAction;
 import net.rpgtoolkit.editor.ui.actions.OpenFileAction;
 import net.rpgtoolkit.editor.ui.actions.OpenProjectAction;
 import net.rpgtoolkit.editor.ui.actions.SaveAction;
+import net.rpgtoolkit.editor.ui.actions.SaveAllAction;
 import net.rpgtoolkit.editor.ui.resources.Icons;
 
 /**
@@ -109,6 +110,7 @@ public final class FileMenu extends JMenu implements ActionListener {
   public void doEnableItems() {
     newBoardMenuItem.setEnabled(true);
     openFileMenuItem.setEnabled(true);
+    saveAllMenuItem.setEnabled(true);
   }
 
   /**
@@ -202,7 +204,9 @@ public final class FileMenu extends JMenu implements ActionListener {
   }
 
   private void configureSaveAllMenuItem() {
-    saveAllMenuItem = new JMenuItem("Save All");
+    saveAllMenuItem = new JMenuItem();
+    saveAllMenuItem.setAction(new SaveAllAction());
+    saveAllMenuItem.setText("Save All");
     saveAllMenuItem.setIcon(Icons.getSmallIcon("save-all"));
     saveAllMenuItem.setAccelerator(
             KeyStroke.getKeyStroke(KeyEvent.VK_S, ActionEvent.CTRL_MASK
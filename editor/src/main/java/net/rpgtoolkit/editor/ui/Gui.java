@@ -7,22 +7,23 @@
  */
 package net.rpgtoolkit.editor.ui;
 
-import java.awt.Graphics2D;
-import java.awt.RenderingHints;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.awt.image.BufferedImage;
+import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import javax.imageio.ImageIO;
 import javax.swing.DefaultListModel;
 import javax.swing.GroupLayout;
 import javax.swing.ImageIcon;
+import javax.swing.JLabel;
 import javax.swing.JList;
 import javax.swing.JPanel;
 import javax.swing.ListModel;
 import javax.swing.ListSelectionModel;
 import net.rpgtoolkit.common.utilities.PropertiesSingleton;
+import net.rpgtoolkit.editor.utilities.ThumbnailService;
 
 /**
  * Contains useful shortcuts and constants for building editors via Swing.
@@ -33,6 +34,8 @@ public abstract class Gui {
     
     public static final int JTF_HEIGHT = 24;
 
+    private static final String THUMBNAIL_PROPERTY = "gui.thumbnail";
+
     /**
      * Creates a GroupLayout for the specified panel and assigns it to that
      * panel. Common settings are applied: auto create gaps and auto create
@@ -108,27 +111,55 @@ public abstract class Gui {
      */
     public static ImageIcon ImageToIcon(BufferedImage image, int width, int height) {
         if(image == null) { return null; }
-        double scale;
-        int originalW = image.getWidth();
-        int originalH = image.getHeight();
-        if(originalW >= originalH) {
-            scale = (double)width / originalW;
-        } else {
-            scale = (double)height / originalH;
+        return new ImageIcon(ThumbnailService.scale(image, width, height));
+    }
+
+    /**
+     * Shows a thumbnail of an image in the Bitmap directory on a label. The
+     * image is loaded and scaled in the background through the
+     * {@link ThumbnailService}, the label is updated on the EDT once it is
+     * ready unless another thumbnail has been requested for it since.
+     *
+     * @param label the label to show the thumbnail on
+     * @param fileName the fileName of the image, relative to the Bitmap
+     * directory
+     * @param width the width of the box to fit the image in
+     * @param height the height of the box to fit the image in
+     */
+    public static void loadThumbnail(final JLabel label, String fileName,
+            int width, int height) {
+        final File file = getImageFile(fileName);
+        label.putClientProperty(THUMBNAIL_PROPERTY, file);
+        if(file == null) {
+            label.setIcon(null);
+            return;
+        }
+        ThumbnailService.getInstance().request(file, width, height,
+                new ThumbnailService.Callback() {
+            @Override
+            public void thumbnailReady(File source, BufferedImage thumbnail) {
+                if(source.equals(label.getClientProperty(THUMBNAIL_PROPERTY))) {
+                    label.setIcon(thumbnail == null ? null : new ImageIcon(thumbnail));
+                }
+            }
+        });
+    }
+
+    /**
+     * Resolves a filename relative to the Bitmap directory.
+     *
+     * @param fileName the fileName of the image, relative to the Bitmap
+     * directory
+     * @return the image file, or null if given a blank fileName
+     */
+    public static File getImageFile(String fileName) {
+        if(fileName == null || fileName.equals("")) {
+            return null;
         }
-        int resizedW = (int)(originalW * scale);
-        int resizedH = (int)(originalH * scale);
-        BufferedImage resized = new BufferedImage(
-                resizedW, resizedH, BufferedImage.TRANSLUCENT
-        );
-        Graphics2D g = resized.createGraphics();
-        g.addRenderingHints(new RenderingHints(
-                RenderingHints.KEY_RENDERING,
-                RenderingHints.VALUE_RENDER_QUALITY
-        ));
-        g.drawImage(image, 0, 0, resizedW, resizedH, null);
-        g.dispose();
-        return new ImageIcon(resized);
+        return new File(System.getProperty("project.path")
+                + "/" +
+                PropertiesSingleton.getProperty("toolkit.directory.bitmap")
+                + "/" + fileName);
     }
 
     /**
@@ -0,0 +1,82 @@
+/**
+ * Copyright (c) 2015, rpgtoolkit.net <help@rpgtoolkit.net>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public License, v. 2.0. If a copy of
+ * the MPL was not distributed with this file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package net.rpgtoolkit.editor.ui;
+
+import java.awt.Component;
+import java.awt.Cursor;
+import java.awt.KeyEventDispatcher;
+import java.awt.KeyboardFocusManager;
+import java.awt.event.KeyEvent;
+import java.awt.event.MouseAdapter;
+import javax.swing.SwingUtilities;
+
+/**
+ * Swallows the mouse and keyboard input for a component and everything inside it, e.g. while its
+ * model is being written. Mouse input is caught by a glass pane laid over the component, key events
+ * are discarded before they reach the focused component so typing, key bindings and menu
+ * accelerators are all blocked.
+ */
+final class InputBlocker implements KeyEventDispatcher {
+
+  private final Component root;
+  private final Component glassPane;
+  private boolean blocking;
+
+  /**
+   *
+   * @param root the component to block, along with its children
+   * @param glassPane a glass pane covering the root, e.g. its internal frame's or JLayer's
+   */
+  InputBlocker(Component root, Component glassPane) {
+    this.root = root;
+    this.glassPane = glassPane;
+
+    MouseAdapter swallow = new MouseAdapter() {
+    };
+    glassPane.addMouseListener(swallow);
+    glassPane.addMouseMotionListener(swallow);
+    glassPane.addMouseWheelListener(swallow);
+    glassPane.setVisible(false);
+  }
+
+  boolean isBlocking() {
+    return blocking;
+  }
+
+  /**
+   * Must be called on the EDT.
+   *
+   * @param blocking true to swallow input, false to let it through again
+   */
+  void setBlocking(boolean blocking) {
+    if (this.blocking == blocking) {
+      return;
+    }
+
+    this.blocking = blocking;
+
+    KeyboardFocusManager focusManager = KeyboardFocusManager.getCurrentKeyboardFocusManager();
+
+    if (blocking) {
+      focusManager.addKeyEventDispatcher(this);
+    } else {
+      focusManager.removeKeyEventDispatcher(this);
+    }
+
+    glassPane.setCursor(blocking ? Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR) : null);
+    glassPane.setVisible(blocking);
+  }
+
+  @Override
+  public boolean dispatchKeyEvent(KeyEvent e) {
+    Component target = e.getComponent();
+
+    // Returning true stops the event from being dispatched any further.
+    return target != null && SwingUtilities.isDescendingFrom(target, root);
+  }
+
+}
@@ -81,6 +81,7 @@ public class MainMenuBar extends JMenuBar {
 
   public void enableMenus(boolean enable) {
     fileMenu.doEnableItems();
+    toolsMenu.doEnableItems();
   }
 
 }
@@ -20,6 +20,7 @@ import net.rpgtoolkit.editor.ui.actions.PencilAction;
 import net.rpgtoolkit.editor.ui.actions.ProgramAction;
 import net.rpgtoolkit.editor.ui.actions.RunAction;
 import net.rpgtoolkit.editor.ui.actions.SaveAction;
+import net.rpgtoolkit.editor.ui.actions.SaveAllAction;
 import net.rpgtoolkit.editor.ui.actions.SelectionAction;
 import net.rpgtoolkit.editor.ui.actions.SpriteAction;
 import net.rpgtoolkit.editor.ui.actions.StartPositionAction;
@@ -96,6 +97,7 @@ public class MainToolBar extends JToolBar {
     saveButton.setIcon(Icons.getSmallIcon("save"));
 
     saveAllButton = new EditorButton();
+    saveAllButton.setAction(new SaveAllAction());
     saveAllButton.setIcon(Icons.getSmallIcon("save-all"));
 
     cutButton = new EditorButton();
@@ -11,19 +11,33 @@ import java.awt.Color;
 import java.awt.Dimension;
 import java.awt.GridLayout;
 import java.awt.Rectangle;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
 import java.beans.PropertyVetoException;
 import java.io.File;
 import java.io.IOException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import javax.swing.DefaultListModel;
 import javax.swing.JDesktopPane;
 import javax.swing.JFileChooser;
 import javax.swing.JFrame;
+import javax.swing.JInternalFrame;
+import javax.swing.JLabel;
+import javax.swing.JLayer;
+import javax.swing.JList;
 import javax.swing.JOptionPane;
 import javax.swing.JPanel;
 import javax.swing.JScrollPane;
 import javax.swing.JTabbedPane;
 import javax.swing.JTextArea;
+import javax.swing.SwingUtilities;
 import javax.swing.event.InternalFrameEvent;
 import javax.swing.event.InternalFrameListener;
 import javax.swing.filechooser.FileNameExtensionFilter;
@@ -40,12 +54,6 @@ import net.rpgtoolkit.common.assets.Project;
 import net.rpgtoolkit.common.assets.SpecialMove;
 import net.rpgtoolkit.common.assets.Tile;
 import net.rpgtoolkit.common.assets.TileSet;
-import net.rpgtoolkit.common.assets.files.FileAssetHandleResolver;
-import net.rpgtoolkit.common.assets.serialization.JsonBoardSerializer;
-import net.rpgtoolkit.common.assets.serialization.JsonProjectSerializer;
-import net.rpgtoolkit.common.assets.serialization.JsonSMoveSerializer;
-import net.rpgtoolkit.common.assets.serialization.legacy.LegacyAnimatedTileSerializer;
-import net.rpgtoolkit.common.assets.serialization.legacy.LegacyItemSerializer;
 import net.rpgtoolkit.editor.editors.AnimationEditor;
 import net.rpgtoolkit.editor.editors.BoardEditor;
 import net.rpgtoolkit.editor.editors.CharacterEditor;
@@ -65,7 +73,14 @@ import net.rpgtoolkit.editor.editors.board.NewBoardDialog;
 import net.rpgtoolkit.editor.ui.resources.Icons;
 import net.rpgtoolkit.editor.editors.board.ProgramBrush;
 import net.rpgtoolkit.common.utilities.PropertiesSingleton;
+import net.rpgtoolkit.editor.utilities.AssetReferenceIndex;
+import net.rpgtoolkit.editor.utilities.AssetTools;
 import net.rpgtoolkit.editor.utilities.FileTools;
+import net.rpgtoolkit.editor.utilities.TileDeduplicator;
+import net.rpgtoolkit.editor.utilities.TileIndex;
+import net.rpgtoolkit.editor.utilities.metrics.EventDispatchMonitor;
+import net.rpgtoolkit.editor.utilities.metrics.EventDispatchWatchdog;
+import net.rpgtoolkit.editor.utilities.metrics.MetricsRegistry;
 
 /**
  * Currently opening TileSets, tiles, programs, boards, animations, characters etc.
@@ -78,6 +93,8 @@ public class MainWindow extends JFrame implements InternalFrameListener {
   // Singleton.
   private static final MainWindow instance = new MainWindow();
 
+  private static final long SAVE_SHUTDOWN_TIMEOUT_MILLIS = 30000;
+
   public static final int TILE_SIZE = 32;
 
   private final JDesktopPane desktopPane;
@@ -92,6 +109,8 @@ public class MainWindow extends JFrame implements InternalFrameListener {
   private final TileSetTabbedPane tileSetPanel;
   private final PropertiesPanel propertiesPanel;
   private final LayerPanel layerPanel;
+  private final MinimapPanel minimapPanel;
+  private final InputBlocker toolboxBlocker;
 
   private JFileChooser fileChooser;
   private final String workingDir = PropertiesSingleton.getProjectsDirectory();
@@ -101,18 +120,30 @@ public class MainWindow extends JFrame implements InternalFrameListener {
 
   // Project Related.
   private Project activeProject;
+  private final AssetReferenceIndex referenceIndex;
+  private final TileIndex tileIndex;
+  private final BackgroundSaver backgroundSaver;
+  private final EventDispatchMonitor eventDispatchMonitor;
+  private final EventDispatchWatchdog eventDispatchWatchdog;
 
   // Board Related.
   private boolean showGrid;
   private boolean showVectors;
   private boolean showPrograms;
   private boolean showCoordinates;
+  private boolean showPerformanceOverlay;
   private boolean snapToGrid;
   private AbstractBrush currentBrush;
   private Tile lastSelectedTile;
 
   // Listeners.
   private final TileSetSelectionListener tileSetSelectionListener;
+  private final PropertyChangeListener savingListener = new PropertyChangeListener() {
+    @Override
+    public void propertyChange(PropertyChangeEvent evt) {
+      toolboxBlocker.setBlocking((Boolean) evt.getNewValue());
+    }
+  };
 
   private MainWindow() {
     super("RPG Toolkit 4.0");
@@ -129,14 +160,19 @@ public class MainWindow extends JFrame implements InternalFrameListener {
 
     this.propertiesPanel = new PropertiesPanel();
     this.layerPanel = new LayerPanel();
+    this.minimapPanel = new MinimapPanel();
     this.lowerTabbedPane = new JTabbedPane();
     this.lowerTabbedPane.addTab("Properties", this.propertiesPanel);
     this.lowerTabbedPane.addTab("Layers", this.layerPanel);
+    this.lowerTabbedPane.addTab("Minimap", this.minimapPanel);
 
     this.toolboxPanel = new JPanel(new GridLayout(2, 1));
     this.toolboxPanel.setPreferredSize(new Dimension(352, 0));
     this.toolboxPanel.add(this.upperTabbedPane);
-    this.toolboxPanel.add(this.lowerTabbedPane);
+    // The properties and layers panels edit the active board, lock them while it is saving.
+    JLayer<JTabbedPane> lowerLayer = new JLayer<>(this.lowerTabbedPane);
+    this.toolboxBlocker = new InputBlocker(lowerLayer, lowerLayer.getGlassPane());
+    this.toolboxPanel.add(lowerLayer);
 
     // Application icon.
     this.setIconImage(Icons.getLargeIcon("application").getImage());
@@ -150,8 +186,28 @@ public class MainWindow extends JFrame implements InternalFrameListener {
     this.debugScrollPane.setVerticalScrollBarPolicy(
             JScrollPane.VERTICAL_SCROLLBAR_ALWAYS);
 
-    this.registerResolvers();
-    this.registerSerializers();
+    AssetTools.registerAssetHandlers();
+
+    this.referenceIndex = new AssetReferenceIndex();
+    this.tileIndex = new TileIndex();
+
+    this.backgroundSaver = new BackgroundSaver(
+            Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors())));
+    this.backgroundSaver.addSaveListener(new SaveReporter());
+
+    this.eventDispatchMonitor = new EventDispatchMonitor(250);
+    this.eventDispatchMonitor.start();
+
+    this.eventDispatchWatchdog = new EventDispatchWatchdog();
+    this.eventDispatchWatchdog.addStallListener(new StallReporter());
+
+    try {
+      this.eventDispatchWatchdog.logToDirectory(EventDispatchWatchdog.DEFAULT_LOG_DIRECTORY);
+    } catch (IOException ex) {
+      Logger.getLogger(MainWindow.class.getName()).log(Level.WARNING, null, ex);
+    }
+
+    this.eventDispatchWatchdog.start();
 
     this.fileChooser = new JFileChooser();
     this.fileChooser.setCurrentDirectory(new File(this.workingDir));
@@ -175,7 +231,13 @@ public class MainWindow extends JFrame implements InternalFrameListener {
     this.add(parent, BorderLayout.CENTER);
     this.add(this.toolboxPanel, BorderLayout.EAST);
 
-    this.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+    this.setDefaultCloseOperation(JFrame.DO_NOTHING_ON_CLOSE);
+    this.addWindowListener(new WindowAdapter() {
+      @Override
+      public void windowClosing(WindowEvent e) {
+        exit();
+      }
+    });
     this.setExtendedState(JFrame.MAXIMIZED_BOTH);
     this.setSize(new Dimension(1024, 768));
     this.setLocationByPlatform(true);
@@ -214,6 +276,14 @@ public class MainWindow extends JFrame implements InternalFrameListener {
     this.showPrograms = showPrograms;
   }
 
+  public boolean isShowPerformanceOverlay() {
+    return showPerformanceOverlay;
+  }
+
+  public void setShowPerformanceOverlay(boolean showPerformanceOverlay) {
+    this.showPerformanceOverlay = showPerformanceOverlay;
+  }
+
   public boolean isShowCoordinates() {
     return showCoordinates;
   }
@@ -274,6 +344,18 @@ public class MainWindow extends JFrame implements InternalFrameListener {
     return tileSetSelectionListener;
   }
 
+  public AssetReferenceIndex getReferenceIndex() {
+    return referenceIndex;
+  }
+
+  public TileIndex getTileIndex() {
+    return tileIndex;
+  }
+
+  public BackgroundSaver getBackgroundSaver() {
+    return backgroundSaver;
+  }
+
   @Override
   public void internalFrameOpened(InternalFrameEvent e) {
     if (e.getInternalFrame() instanceof BoardEditor) {
@@ -310,6 +392,9 @@ public class MainWindow extends JFrame implements InternalFrameListener {
     if (e.getInternalFrame() instanceof BoardEditor) {
       BoardEditor editor = (BoardEditor) e.getInternalFrame();
       this.layerPanel.setBoardView(editor.getBoardView());
+      this.minimapPanel.setBoardEditor(editor);
+      editor.addPropertyChangeListener("saving", savingListener);
+      this.toolboxBlocker.setBlocking(editor.isSaving());
 
       if (editor.getSelectedObject() != null) {
         this.propertiesPanel.setModel(editor.getSelectedObject());
@@ -328,6 +413,13 @@ public class MainWindow extends JFrame implements InternalFrameListener {
         this.layerPanel.clearTable();
       }
 
+      if (this.minimapPanel.getBoardEditor() == editor) {
+        this.minimapPanel.setBoardEditor(null);
+      }
+
+      editor.removePropertyChangeListener("saving", savingListener);
+      this.toolboxBlocker.setBlocking(false);
+
       if (this.propertiesPanel.getModel() == editor.getSelectedObject()
               || propertiesPanel.getModel() == editor.getBoard()) {
         this.propertiesPanel.setModel(null);
@@ -346,19 +438,6 @@ public class MainWindow extends JFrame implements InternalFrameListener {
     }
   }
 
-  private void registerResolvers() {
-    AssetManager.getInstance().registerResolver(new FileAssetHandleResolver());
-  }
-
-  private void registerSerializers() {
-    AssetManager assetManager = AssetManager.getInstance();
-    assetManager.registerSerializer(new LegacyAnimatedTileSerializer());
-    assetManager.registerSerializer(new LegacyItemSerializer());
-    assetManager.registerSerializer(new JsonBoardSerializer());
-    assetManager.registerSerializer(new JsonProjectSerializer());
-    assetManager.registerSerializer(new JsonSMoveSerializer());
-  }
-
   public void openProject() {
     this.fileChooser.resetChoosableFileFilters();
     FileNameExtensionFilter filter = new FileNameExtensionFilter(
@@ -383,6 +462,8 @@ public class MainWindow extends JFrame implements InternalFrameListener {
               + File.separator
               + fileName + File.separator);
 
+      long start = System.nanoTime();
+
       if (fileChooser.getSelectedFile().getName().endsWith(".gam")) {
         activeProject = new Project(this.fileChooser.getSelectedFile(),
               System.getProperty("project.path"));
@@ -396,6 +477,8 @@ public class MainWindow extends JFrame implements InternalFrameListener {
           Logger.getLogger(MainWindow.class.getName()).log(Level.SEVERE, null, ex);
         }
       }
+
+      MetricsRegistry.getInstance().timer("asset.load.project").stop(start);
       
       setupProject();
     }
@@ -491,7 +574,9 @@ public class MainWindow extends JFrame implements InternalFrameListener {
    * Creates an animation editor window for modifying the specified animation file.
    */
   public void openAnimation() {
+    long start = System.nanoTime();
     Animation animation = new Animation(fileChooser.getSelectedFile());
+    MetricsRegistry.getInstance().timer("asset.load.animation").stop(start);
     AnimationEditor animationEditor = new AnimationEditor(animation);
     desktopPane.add(animationEditor);
 
@@ -520,6 +605,7 @@ public class MainWindow extends JFrame implements InternalFrameListener {
       File selectedFile = fileChooser.getSelectedFile();
 
       if (selectedFile.canRead()) {
+        long start = System.nanoTime();
         Board board;
 
         if (selectedFile.getName().endsWith(".brd")) {
@@ -531,6 +617,7 @@ public class MainWindow extends JFrame implements InternalFrameListener {
           board = (Board) handle.getAsset();
         }
 
+        MetricsRegistry.getInstance().timer("asset.load.board").stop(start);
         boardEditor = new BoardEditor(board);
       } else {
         boardEditor = new BoardEditor();
@@ -551,7 +638,9 @@ public class MainWindow extends JFrame implements InternalFrameListener {
    * Creates an animation editor window for modifying the specified animation file.
    */
   public void openEnemy() {
+    long start = System.nanoTime();
     Enemy enemy = new Enemy(fileChooser.getSelectedFile());
+    MetricsRegistry.getInstance().timer("asset.load.enemy").stop(start);
     EnemyEditor enemyEditor = new EnemyEditor(enemy);
     desktopPane.add(enemyEditor);
 
@@ -563,7 +652,9 @@ public class MainWindow extends JFrame implements InternalFrameListener {
    */
   public void openCharacter() {
     System.out.println("openCharacter()");
+    long start = System.nanoTime();
     Player player = new Player(fileChooser.getSelectedFile());
+    MetricsRegistry.getInstance().timer("asset.load.character").stop(start);
     CharacterEditor chEditor = new CharacterEditor(player);
     desktopPane.add(chEditor);
 
@@ -580,7 +671,9 @@ public class MainWindow extends JFrame implements InternalFrameListener {
   }
 
   public void openTileset() {
+    long start = System.nanoTime();
     TileSet tileSet = new TileSet(fileChooser.getSelectedFile());
+    MetricsRegistry.getInstance().timer("asset.load.tileset").stop(start);
     tileSetPanel.addTileSet(tileSet);
   }
 
@@ -588,9 +681,11 @@ public class MainWindow extends JFrame implements InternalFrameListener {
     try {
       SpecialMoveEditor sMoveEditor;
       if (fileChooser.getSelectedFile().canRead()) {
+        long start = System.nanoTime();
         AssetHandle handle = AssetManager.getInstance().deserialize(
                 new AssetDescriptor(fileChooser.getSelectedFile().toURI()));
         SpecialMove move = (SpecialMove) handle.getAsset();
+        MetricsRegistry.getInstance().timer("asset.load.specialmove").stop(start);
         sMoveEditor = new SpecialMoveEditor(move);
       } else {
         sMoveEditor = new SpecialMoveEditor();
@@ -602,6 +697,244 @@ public class MainWindow extends JFrame implements InternalFrameListener {
     }
   }
 
+  /**
+   * Waits for any background saves that are still writing to finish, then exits.
+   */
+  public void exit() {
+    try {
+      if (!backgroundSaver.shutdown(SAVE_SHUTDOWN_TIMEOUT_MILLIS)) {
+        Logger.getLogger(MainWindow.class.getName()).log(Level.WARNING,
+                "Exiting with saves still in progress");
+      }
+    } catch (InterruptedException ex) {
+      Logger.getLogger(MainWindow.class.getName()).log(Level.SEVERE, null, ex);
+    }
+
+    System.exit(0);
+  }
+
+  /**
+   * Writes the current value of every editor metric to the debug log.
+   */
+  public void showMetricsSummary() {
+    String summary = MetricsRegistry.getInstance().getSummary();
+
+    debugLog.append("Metrics:\n");
+    debugLog.append(summary.isEmpty() ? "    nothing recorded yet\n"
+            : "    " + summary.replace("\n", "\n    ").trim() + "\n");
+  }
+
+  /**
+   * Asks the user for a project file and lists every board that references it.
+   */
+  public void findUsages() {
+    this.primeFileChooser();
+
+    if (this.fileChooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) {
+      return;
+    }
+
+    File file = this.fileChooser.getSelectedFile();
+    Set<String> usages = this.referenceIndex.findUsages(file);
+
+    StringBuilder message = new StringBuilder();
+
+    if (usages.isEmpty()) {
+      message.append(file.getName()).append(" is not referenced by any board.");
+    } else {
+      message.append(file.getName()).append(" is referenced by:\n\n");
+
+      for (String usage : usages) {
+        message.append(usage).append("\n");
+      }
+    }
+
+    JOptionPane.showMessageDialog(this, message.toString(), "Find Usages",
+            JOptionPane.INFORMATION_MESSAGE);
+  }
+
+  /**
+   * Asks the user for a tile name, index or colour and lists the matching tiles in the opened
+   * tilesets.
+   */
+  public void findTile() {
+    String query = JOptionPane.showInputDialog(this,
+            "Tileset name, tile index (e.g. town:12) or colour (e.g. #3a7d2c):",
+            "Find Tile", JOptionPane.QUESTION_MESSAGE);
+
+    if (query == null || query.trim().isEmpty()) {
+      return;
+    }
+
+    List<TileIndex.Entry> results;
+
+    if (query.trim().startsWith("#")) {
+      try {
+        results = this.tileIndex.findByColour(Color.decode(query.trim()), 48);
+      } catch (NumberFormatException ex) {
+        JOptionPane.showMessageDialog(this, query + " is not a valid colour.",
+                "Find Tile", JOptionPane.ERROR_MESSAGE);
+        return;
+      }
+    } else {
+      results = this.tileIndex.findByName(query);
+    }
+
+    this.showTileResults(results, "Find Tile");
+  }
+
+  /**
+   * Lists the tiles in the opened tilesets that look like the last selected tile.
+   */
+  public void findSimilarTiles() {
+    if (this.lastSelectedTile.getTileSet() == null) {
+      JOptionPane.showMessageDialog(this, "Select a tile from a tileset first.",
+              "Find Similar Tiles", JOptionPane.INFORMATION_MESSAGE);
+      return;
+    }
+
+    this.showTileResults(this.tileIndex.findSimilar(this.lastSelectedTile, 10),
+            "Find Similar Tiles");
+  }
+
+  /**
+   * Hashes every tile in the project's tilesets in the background, reports the identical ones and
+   * offers to point the boards that are not open at a single copy of each.
+   */
+  public void findDuplicateTiles() {
+    final File projectDirectory = new File(System.getProperty("project.path"));
+    final File tileSetDirectory = new File(projectDirectory,
+            PropertiesSingleton.getProperty("toolkit.directory.tileset"));
+
+    this.debugLog.append("Searching for duplicate tiles...\n");
+
+    Thread scanner = new Thread(new Runnable() {
+      @Override
+      public void run() {
+        TileDeduplicator deduplicator = new TileDeduplicator(
+                Runtime.getRuntime().availableProcessors());
+
+        try {
+          final TileDeduplicator.Report report = deduplicator.scan(tileSetDirectory);
+
+          SwingUtilities.invokeLater(new Runnable() {
+            @Override
+            public void run() {
+              showDuplicateTiles(report, projectDirectory);
+            }
+          });
+        } catch (InterruptedException ex) {
+          Thread.currentThread().interrupt();
+        } finally {
+          deduplicator.shutdown();
+        }
+      }
+    }, "duplicate-tile-scan");
+    scanner.setDaemon(true);
+    scanner.start();
+  }
+
+  private void showDuplicateTiles(TileDeduplicator.Report report, final File projectDirectory) {
+    this.debugLog.append("Hashed " + report.getTileCount() + " tiles in "
+            + report.getTileSetCount() + " tilesets in " + report.getElapsedMillis()
+            + " ms, found " + report.getDuplicateCount() + " duplicates\n");
+
+    if (report.getGroups().isEmpty()) {
+      JOptionPane.showMessageDialog(this, "No duplicate tiles were found.",
+              "Find Duplicate Tiles", JOptionPane.INFORMATION_MESSAGE);
+      return;
+    }
+
+    DefaultListModel<String> model = new DefaultListModel<>();
+
+    for (List<TileDeduplicator.TileRef> group : report.getGroups()) {
+      StringBuilder line = new StringBuilder(group.get(0).toString()).append(" <- ");
+
+      for (int i = 1; i < group.size(); i++) {
+        line.append(i > 1 ? ", " : "").append(group.get(i));
+      }
+
+      model.addElement(line.toString());
+    }
+
+    JList<String> list = new JList<>(model);
+    list.setVisibleRowCount(12);
+
+    JPanel panel = new JPanel(new BorderLayout(0, 8));
+    panel.add(new JLabel(report.getDuplicateCount() + " tiles are identical to another tile."
+            + " Remap boards to use the first tile of each group?"), BorderLayout.NORTH);
+    panel.add(new JScrollPane(list), BorderLayout.CENTER);
+
+    int option = JOptionPane.showConfirmDialog(this, panel, "Find Duplicate Tiles",
+            JOptionPane.YES_NO_OPTION, JOptionPane.PLAIN_MESSAGE);
+
+    if (option != JOptionPane.YES_OPTION) {
+      return;
+    }
+
+    // Boards open in an editor would be overwritten by their next save, leave them alone.
+    final Set<File> openBoards = new HashSet<>();
+
+    for (JInternalFrame frame : this.desktopPane.getAllFrames()) {
+      if (frame instanceof BoardEditor
+              && ((BoardEditor) frame).getBoard().getFile() != null) {
+        openBoards.add(((BoardEditor) frame).getBoard().getFile().getAbsoluteFile());
+      }
+    }
+
+    final Map<TileDeduplicator.TileRef, TileDeduplicator.TileRef> remapping
+            = report.getRemapping();
+
+    Thread remapper = new Thread(new Runnable() {
+      @Override
+      public void run() {
+        final List<File> changed = TileDeduplicator.remapBoards(projectDirectory, remapping,
+                openBoards);
+
+        SwingUtilities.invokeLater(new Runnable() {
+          @Override
+          public void run() {
+            debugLog.append("Remapped duplicate tiles in " + changed.size() + " boards\n");
+
+            for (File file : changed) {
+              referenceIndex.indexBoard(file);
+            }
+
+            if (!openBoards.isEmpty()) {
+              debugLog.append("    skipped " + openBoards.size() + " open boards\n");
+            }
+          }
+        });
+      }
+    }, "duplicate-tile-remap");
+    remapper.setDaemon(true);
+    remapper.start();
+  }
+
+  private void showTileResults(List<TileIndex.Entry> results, String title) {
+    if (results.isEmpty()) {
+      JOptionPane.showMessageDialog(this, "No matching tiles were found.", title,
+              JOptionPane.INFORMATION_MESSAGE);
+      return;
+    }
+
+    JList<TileIndex.Entry> list = new JList<>(
+            results.toArray(new TileIndex.Entry[results.size()]));
+    list.setSelectedIndex(0);
+    list.setVisibleRowCount(12);
+
+    int option = JOptionPane.showConfirmDialog(this, new JScrollPane(list),
+            title + " - " + results.size() + " tiles", JOptionPane.OK_CANCEL_OPTION,
+            JOptionPane.PLAIN_MESSAGE);
+
+    TileIndex.Entry entry = list.getSelectedValue();
+
+    if (option == JOptionPane.OK_OPTION && entry != null) {
+      this.upperTabbedPane.setSelectedComponent(this.tileSetPanel);
+      this.tileSetPanel.showTile(entry.getTileSet(), entry.getIndex());
+    }
+  }
+
   public String getTypeSubdirectory(Class<? extends BasicType> type) {
     switch (type.getSimpleName()) {
       case "Animation":
@@ -871,6 +1204,15 @@ public class MainWindow extends JFrame implements InternalFrameListener {
     }
   }
 
+  public void tooglePerformanceOverlayOnBoardEditor(boolean isVisible) {
+    this.showPerformanceOverlay = isVisible;
+
+    if (desktopPane.getSelectedFrame() instanceof BoardEditor) {
+      BoardEditor editor = (BoardEditor) desktopPane.getSelectedFrame();
+      editor.getBoardView().repaint();
+    }
+  }
+
   public void toogleProgramsOnBoardEditor(boolean isVisible) {
     this.showPrograms = isVisible;
 
@@ -893,6 +1235,9 @@ public class MainWindow extends JFrame implements InternalFrameListener {
 
     this.menuBar.enableMenus(true);
     this.toolBar.toggleButtonStates(true);
+
+    this.tileIndex.clear();
+    this.referenceIndex.indexProject(new File(System.getProperty("project.path")));
   }
 
   private void selectToolkitWindow(ToolkitEditorWindow window) {
@@ -946,6 +1291,79 @@ public class MainWindow extends JFrame implements InternalFrameListener {
     return false;
   }
 
+  /**
+   * Reports the outcome of background saves in the debug log.
+   */
+  private class SaveReporter implements BackgroundSaver.SaveListener {
+
+    @Override
+    public void saveSucceeded(ToolkitEditorWindow window, File file, long elapsedMillis) {
+      debugLog.append("Saved " + file.getName() + " in " + elapsedMillis + " ms\n");
+    }
+
+    @Override
+    public void saveFailed(ToolkitEditorWindow window, File file, Exception cause) {
+      debugLog.append("Failed to save " + file.getName() + "\n");
+
+      JOptionPane.showMessageDialog(MainWindow.this,
+              "Error saving file please ensure the filename extension are correct.",
+              "Error on Save",
+              JOptionPane.ERROR_MESSAGE);
+    }
+
+    @Override
+    public void saveAllCompleted(int saved, List<File> failed, long elapsedMillis) {
+      debugLog.append("Saved " + saved + " of " + (saved + failed.size()) + " files in "
+              + elapsedMillis + " ms\n");
+
+      if (failed.isEmpty()) {
+        return;
+      }
+
+      StringBuilder message = new StringBuilder("The following files could not be saved:\n\n");
+
+      for (File file : failed) {
+        debugLog.append("    failed: " + file.getAbsolutePath() + "\n");
+        message.append(file.getName()).append("\n");
+      }
+
+      JOptionPane.showMessageDialog(MainWindow.this, message.toString(), "Error on Save All",
+              JOptionPane.ERROR_MESSAGE);
+    }
+
+  }
+
+  /**
+   * Reports event dispatch thread stalls in the debug log, the full stack goes to the log file.
+   */
+  private class StallReporter implements EventDispatchWatchdog.StallListener {
+
+    private static final int STACK_DEPTH = 8;
+
+    @Override
+    public void stallDetected(long elapsedMillis, StackTraceElement[] stack) {
+      final StringBuilder message = new StringBuilder("EDT blocked for over ")
+              .append(elapsedMillis).append(" ms in:\n");
+
+      for (int i = 0; i < Math.min(STACK_DEPTH, stack.length); i++) {
+        message.append("    at ").append(stack[i]).append("\n");
+      }
+
+      SwingUtilities.invokeLater(new Runnable() {
+        @Override
+        public void run() {
+          debugLog.append(message.toString());
+        }
+      });
+    }
+
+    @Override
+    public void stallEnded(long elapsedMillis) {
+      debugLog.append("EDT recovered after " + elapsedMillis + " ms\n");
+    }
+
+  }
+
   private class TileSetSelectionListener implements TileSelectionListener {
 
     @Override
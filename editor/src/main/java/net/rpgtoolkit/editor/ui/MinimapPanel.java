@@ -0,0 +1,387 @@
+/**
+ * Copyright (c) 2015, rpgtoolkit.net <help@rpgtoolkit.net>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public License, v. 2.0. If a copy of
+ * the MPL was not distributed with this file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package net.rpgtoolkit.editor.ui;
+
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.Point;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import javax.swing.JPanel;
+import javax.swing.JViewport;
+import javax.swing.SwingUtilities;
+import javax.swing.event.ChangeEvent;
+import javax.swing.event.ChangeListener;
+import net.rpgtoolkit.common.assets.Board;
+import net.rpgtoolkit.common.assets.BoardChangeListener;
+import net.rpgtoolkit.common.assets.BoardChangedEvent;
+import net.rpgtoolkit.common.assets.Tile;
+import net.rpgtoolkit.editor.editors.BoardEditor;
+import net.rpgtoolkit.editor.editors.board.BoardLayerView;
+
+/**
+ * Shows the whole of the active board at one pixel per tile with the visible part of the board
+ * editor outlined. Clicking jumps the editor to that point and dragging pans it.
+ *
+ * Each tile is reduced to its average colour once, and the map is the visible layers' colours
+ * blended bottom to top. When a brush paints, only the tiles in the editor's "tilesChanged"
+ * region are recomputed, so the map stays cheap to maintain however large the board is. Any other
+ * change to the board, including a layer being hidden, shown or faded, rebuilds the whole map once
+ * the burst of change events is over.
+ */
+public class MinimapPanel extends JPanel {
+
+  private static final Color VIEWPORT_COLOR = new Color(255, 64, 64);
+  private static final int BACKGROUND = 0xff404040;
+
+  private BoardEditor editor;
+  private BufferedImage map;
+  private int[] pixels;
+
+  // Average colour of each tile, so repainted regions don't have to look at tile pixels again.
+  private final Map<Tile, Integer> colours = new IdentityHashMap<>();
+
+  private final PropertyChangeListener tilesListener = new PropertyChangeListener() {
+    @Override
+    public void propertyChange(PropertyChangeEvent evt) {
+      update((Rectangle) evt.getNewValue());
+    }
+  };
+
+  private final ChangeListener viewportListener = new ChangeListener() {
+    @Override
+    public void stateChanged(ChangeEvent e) {
+      repaint();
+    }
+  };
+
+  private final BoardChangeListener boardListener = new BoardChangeListener() {
+    @Override
+    public void boardChanged(BoardChangedEvent e) {
+      rebuildLater();
+    }
+
+    @Override
+    public void boardLayerAdded(BoardChangedEvent e) {
+      rebuildLater();
+    }
+
+    @Override
+    public void boardLayerMovedUp(BoardChangedEvent e) {
+      rebuildLater();
+    }
+
+    @Override
+    public void boardLayerMovedDown(BoardChangedEvent e) {
+      rebuildLater();
+    }
+
+    @Override
+    public void boardLayerCloned(BoardChangedEvent e) {
+      rebuildLater();
+    }
+
+    @Override
+    public void boardLayerDeleted(BoardChangedEvent e) {
+      rebuildLater();
+    }
+  };
+
+  private boolean rebuildPending;
+
+  public MinimapPanel() {
+    setPreferredSize(new Dimension(160, 160));
+    setBackground(Color.DARK_GRAY);
+
+    MouseAdapter navigator = new MouseAdapter() {
+      @Override
+      public void mousePressed(MouseEvent e) {
+        centreViewportOn(e.getPoint());
+      }
+
+      @Override
+      public void mouseDragged(MouseEvent e) {
+        centreViewportOn(e.getPoint());
+      }
+    };
+    addMouseListener(navigator);
+    addMouseMotionListener(navigator);
+  }
+
+  public BoardEditor getBoardEditor() {
+    return editor;
+  }
+
+  /**
+   * Shows the board of another editor.
+   *
+   * @param editor the board editor to follow, or null to show nothing
+   */
+  public void setBoardEditor(BoardEditor editor) {
+    if (this.editor == editor) {
+      return;
+    }
+
+    if (this.editor != null) {
+      this.editor.removePropertyChangeListener("tilesChanged", tilesListener);
+      this.editor.getScrollPane().getViewport().removeChangeListener(viewportListener);
+      this.editor.getBoard().removeBoardChangeListener(boardListener);
+    }
+
+    this.editor = editor;
+    colours.clear();
+
+    if (editor != null) {
+      editor.addPropertyChangeListener("tilesChanged", tilesListener);
+      editor.getScrollPane().getViewport().addChangeListener(viewportListener);
+      editor.getBoard().addBoardChangeListener(boardListener);
+    }
+
+    rebuild();
+  }
+
+  /**
+   * Recomputes the whole map from the board.
+   */
+  public void rebuild() {
+    if (editor == null) {
+      map = null;
+      pixels = null;
+      repaint();
+      return;
+    }
+
+    Board board = editor.getBoard();
+    map = new BufferedImage(Math.max(1, board.getWidth()), Math.max(1, board.getHeight()),
+            BufferedImage.TYPE_INT_ARGB);
+    pixels = ((DataBufferInt) map.getRaster().getDataBuffer()).getData();
+    update(new Rectangle(0, 0, board.getWidth(), board.getHeight()));
+  }
+
+  /**
+   * Recomputes part of the map.
+   *
+   * @param region the tiles that changed
+   */
+  public void update(Rectangle region) {
+    if (map == null) {
+      return;
+    }
+
+    Rectangle bounds = region.intersection(
+            new Rectangle(0, 0, map.getWidth(), map.getHeight()));
+
+    if (bounds.isEmpty()) {
+      return;
+    }
+
+    List<BoardLayerView> layers = new ArrayList<>();
+
+    for (BoardLayerView layer : editor.getBoardView().getLayerArrayList()) {
+      if (layer.isVisible()) {
+        layers.add(layer);
+      }
+    }
+
+    int width = map.getWidth();
+
+    for (int y = bounds.y; y < bounds.y + bounds.height; y++) {
+      for (int x = bounds.x; x < bounds.x + bounds.width; x++) {
+        pixels[y * width + x] = composite(layers, x, y);
+      }
+    }
+
+    repaint();
+  }
+
+  @Override
+  protected void paintComponent(Graphics g) {
+    super.paintComponent(g);
+
+    if (map == null) {
+      return;
+    }
+
+    Rectangle area = getMapArea();
+    Graphics2D g2d = (Graphics2D) g.create();
+
+    try {
+      g2d.setRenderingHint(RenderingHints.KEY_INTERPOLATION,
+              RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR);
+      g2d.drawImage(map, area.x, area.y, area.width, area.height, null);
+
+      Rectangle view = getVisibleTiles();
+
+      if (view != null) {
+        double scale = (double) area.width / map.getWidth();
+        g2d.setColor(VIEWPORT_COLOR);
+        g2d.drawRect(area.x + (int) (view.x * scale), area.y + (int) (view.y * scale),
+                Math.max(2, (int) (view.width * scale)) - 1,
+                Math.max(2, (int) (view.height * scale)) - 1);
+      }
+    } finally {
+      g2d.dispose();
+    }
+  }
+
+  /**
+   * Gets where the map is drawn, as large as fits in the panel without changing its shape.
+   *
+   * @return the map's area in panel coordinates
+   */
+  private Rectangle getMapArea() {
+    double scale = Math.min((double) getWidth() / map.getWidth(),
+            (double) getHeight() / map.getHeight());
+    int width = Math.max(1, (int) (map.getWidth() * scale));
+    int height = Math.max(1, (int) (map.getHeight() * scale));
+
+    return new Rectangle((getWidth() - width) / 2, (getHeight() - height) / 2, width, height);
+  }
+
+  /**
+   * Gets the part of the board visible in the editor, in tiles.
+   *
+   * @return the visible tiles, or null if there is no editor
+   */
+  private Rectangle getVisibleTiles() {
+    if (editor == null) {
+      return null;
+    }
+
+    Rectangle view = editor.getScrollPane().getViewport().getViewRect();
+    double pixelsPerTile = MainWindow.TILE_SIZE * editor.getBoardView().getZoom();
+
+    return new Rectangle((int) (view.x / pixelsPerTile), (int) (view.y / pixelsPerTile),
+            (int) Math.ceil(view.width / pixelsPerTile),
+            (int) Math.ceil(view.height / pixelsPerTile));
+  }
+
+  private void centreViewportOn(Point point) {
+    if (editor == null || map == null) {
+      return;
+    }
+
+    Rectangle area = getMapArea();
+    double tileX = (point.x - area.x) * (double) map.getWidth() / area.width;
+    double tileY = (point.y - area.y) * (double) map.getHeight() / area.height;
+
+    JViewport viewport = editor.getScrollPane().getViewport();
+    double pixelsPerTile = MainWindow.TILE_SIZE * editor.getBoardView().getZoom();
+    Dimension extent = viewport.getExtentSize();
+    Dimension size = viewport.getViewSize();
+
+    int x = (int) (tileX * pixelsPerTile) - extent.width / 2;
+    int y = (int) (tileY * pixelsPerTile) - extent.height / 2;
+    x = Math.max(0, Math.min(x, size.width - extent.width));
+    y = Math.max(0, Math.min(y, size.height - extent.height));
+
+    viewport.setViewPosition(new Point(x, y));
+  }
+
+  private void rebuildLater() {
+    if (rebuildPending) {
+      return;
+    }
+
+    // The board view updates its layer list from the same event, let it go first.
+    rebuildPending = true;
+    SwingUtilities.invokeLater(new Runnable() {
+      @Override
+      public void run() {
+        rebuildPending = false;
+        rebuild();
+      }
+    });
+  }
+
+  /**
+   * Blends the average colours of the tiles at a location, bottom layer first.
+   */
+  private int composite(List<BoardLayerView> layers, int x, int y) {
+    int red = (BACKGROUND >> 16) & 0xff;
+    int green = (BACKGROUND >> 8) & 0xff;
+    int blue = BACKGROUND & 0xff;
+
+    for (BoardLayerView layer : layers) {
+      Tile tile = layer.getLayer().getTileAt(x, y);
+
+      if (tile == null) {
+        continue;
+      }
+
+      int colour = getColour(tile);
+      float alpha = ((colour >>> 24) / 255f) * layer.getOpacity();
+
+      red += (int) ((((colour >> 16) & 0xff) - red) * alpha);
+      green += (int) ((((colour >> 8) & 0xff) - green) * alpha);
+      blue += (int) (((colour & 0xff) - blue) * alpha);
+    }
+
+    return 0xff000000 | red << 16 | green << 8 | blue;
+  }
+
+  private int getColour(Tile tile) {
+    Integer cached = colours.get(tile);
+
+    if (cached != null) {
+      return cached;
+    }
+
+    int colour = averageColour(tile.getTileAsImage());
+    colours.put(tile, colour);
+    return colour;
+  }
+
+  /**
+   * Averages an image's pixels, weighting each colour by its alpha.
+   *
+   * @param image the image to average
+   * @return the average colour as ARGB
+   */
+  static int averageColour(BufferedImage image) {
+    if (image == null) {
+      return 0;
+    }
+
+    long alpha = 0;
+    long red = 0;
+    long green = 0;
+    long blue = 0;
+
+    int width = image.getWidth();
+    int height = image.getHeight();
+    int[] argb = image.getRGB(0, 0, width, height, null, 0, width);
+
+    for (int pixel : argb) {
+      int a = pixel >>> 24;
+      alpha += a;
+      red += ((pixel >> 16) & 0xff) * a;
+      green += ((pixel >> 8) & 0xff) * a;
+      blue += (pixel & 0xff) * a;
+    }
+
+    if (alpha == 0) {
+      return 0;
+    }
+
+    return (int) (alpha / argb.length) << 24 | (int) (red / alpha) << 16
+            | (int) (green / alpha) << 8 | (int) (blue / alpha);
+  }
+
+}
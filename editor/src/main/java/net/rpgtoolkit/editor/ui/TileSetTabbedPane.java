@@ -50,7 +50,11 @@ public class TileSetTabbedPane extends JTabbedPane {
         int index = tabs.indexAtLocation(e.getX(), e.getY());
 
         if (index > 0 && e.getButton() == MouseEvent.BUTTON2) {
+          JScrollPane scrollPane = (JScrollPane) tabs.getComponentAt(index);
+          TileSet tileSet = ((TileSetCanvas) scrollPane.getViewport().getView()).getTileSet();
+
           tabs.remove(index);
+          MainWindow.getInstance().getTileIndex().remove(tileSet);
         }
       }
 
@@ -76,9 +80,31 @@ public class TileSetTabbedPane extends JTabbedPane {
 
       addTab(tileSet.getName().replace(".tst", ""), scrollPane);
       setSelectedIndex(indexOfTab(tabName));
+
+      MainWindow.getInstance().getTileIndex().index(tileSet);
     }
   }
 
+  /**
+   * Shows a tile, opening its tileset first if needed, and selects it.
+   *
+   * @param tileSet the tileset containing the tile
+   * @param index the index of the tile in the tileset
+   */
+  public void showTile(TileSet tileSet, int index) {
+    String tabName = tileSet.getName().replace(".tst", "");
+
+    if (indexOfTab(tabName) < 0) {
+      addTileSet(tileSet);
+    }
+
+    int tab = indexOfTab(tabName);
+    setSelectedIndex(tab);
+
+    JScrollPane scrollPane = (JScrollPane) getComponentAt(tab);
+    ((TileSetCanvas) scrollPane.getViewport().getView()).selectTile(index);
+  }
+
   public void addTileSets(Collection<TileSet> tileSets) {
     for (TileSet tileSet : tileSets) {
       addTileSet(tileSet);
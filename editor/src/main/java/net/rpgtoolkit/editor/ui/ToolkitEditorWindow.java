@@ -6,11 +6,39 @@
  */
 package net.rpgtoolkit.editor.ui;
 
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
 import java.io.File;
+import java.io.IOException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.swing.AbstractButton;
+import javax.swing.JComponent;
 import javax.swing.JInternalFrame;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import javax.swing.text.JTextComponent;
 
+/**
+ * Base class for all editor windows. Saving is split into steps so that the write can be done off
+ * the EDT: {@link #prepareSave()} runs on the EDT and commits any pending UI state to the model,
+ * {@link #setModelFile(java.io.File)} points the model at a temporary file, also on the EDT, then
+ * {@link #writeModel()} writes the model out and may be called from a background thread. The
+ * temporary file is then renamed over the target and the model pointed back at it. The window is
+ * locked against all input while the write runs, so nothing changes the model under it.
+ *
+ * Windows also track whether their model has unsaved changes, clean windows are skipped by
+ * {@link BackgroundSaver} and dirty ones are marked with a "*" in their title.
+ */
 public abstract class ToolkitEditorWindow extends JInternalFrame {
 
+  private boolean saving;
+  private InputBlocker inputBlocker;
+
+  private boolean dirty;
+  private int changeCount;
+  private String cleanTitle;
+
   public ToolkitEditorWindow() {
 
   }
@@ -20,8 +48,190 @@ public abstract class ToolkitEditorWindow extends JInternalFrame {
     super(title, resizeable, closeable, maximizable, iconifiable);
   }
 
-  public abstract boolean save();
-  
+  /**
+   * Saves synchronously on the calling thread, see {@link BackgroundSaver} for saving without
+   * blocking the EDT.
+   *
+   * @return true if the model was written
+   */
+  public boolean save() {
+    File file = prepareSave();
+
+    if (file == null) {
+      return false;
+    }
+
+    try {
+      BackgroundSaver.write(this, file);
+    } catch (IOException ex) {
+      Logger.getLogger(ToolkitEditorWindow.class.getName()).log(Level.SEVERE, null, ex);
+      return false;
+    }
+
+    setDirty(false);
+    saveCompleted(file);
+    return true;
+  }
+
   public abstract boolean saveAs(File file);
 
+  /**
+   * Commits any pending edits to the model and works out where it will be saved, asking the user
+   * if the model has never been saved. Always called on the EDT.
+   *
+   * @return the file to save to, or null to cancel the save
+   */
+  public abstract File prepareSave();
+
+  /**
+   * Points the model at another file without writing it. Always called on the EDT, before a write
+   * to point the model at the temporary file and afterwards to point it back at the target.
+   *
+   * @param file the file the model will be written to
+   */
+  public abstract void setModelFile(File file);
+
+  /**
+   * Writes the model to the file it points at without touching any Swing components or changing
+   * the model. May be called from a background thread, the window is locked against edits while it
+   * runs.
+   *
+   * @return true if the model was written
+   */
+  public abstract boolean writeModel();
+
+  /**
+   * Called on the EDT once the model has been written to its final location.
+   *
+   * @param file the file that was saved
+   */
+  public void saveCompleted(File file) {
+
+  }
+
+  @Override
+  public void setTitle(String title) {
+    cleanTitle = title;
+    super.setTitle(dirty ? "*" + title : title);
+  }
+
+  /**
+   * Does the model have changes that have not been saved?
+   *
+   * @return true if the model needs saving
+   */
+  public boolean isDirty() {
+    return dirty;
+  }
+
+  /**
+   * Marks the model as changed or saved and updates the title bar to match. Fires a "dirty"
+   * property change.
+   *
+   * @param dirty true if the model has unsaved changes
+   */
+  public void setDirty(boolean dirty) {
+    if (dirty) {
+      changeCount++;
+    }
+
+    if (this.dirty == dirty) {
+      return;
+    }
+
+    if (cleanTitle == null) {
+      cleanTitle = getTitle();
+    }
+
+    this.dirty = dirty;
+    super.setTitle(dirty ? "*" + cleanTitle : cleanTitle);
+    firePropertyChange("dirty", !dirty, dirty);
+  }
+
+  /**
+   * Counts every change marked with {@link #setDirty(boolean)}, so a save can tell whether the
+   * model was changed again after it was prepared.
+   *
+   * @return the number of changes made so far
+   */
+  public int getChangeCount() {
+    return changeCount;
+  }
+
+  /**
+   * Marks the window dirty whenever one of the fields is edited. Only for editors that copy their
+   * fields into the model in {@link #prepareSave()}, editors that write to the model as it is
+   * edited mark themselves dirty where they change it.
+   *
+   * @param fields the text components and toggle buttons that hold the model's state
+   */
+  protected void trackChanges(JComponent... fields) {
+    ChangeTracker tracker = new ChangeTracker();
+
+    for (JComponent field : fields) {
+      if (field instanceof JTextComponent) {
+        ((JTextComponent) field).getDocument().addDocumentListener(tracker);
+      } else if (field instanceof AbstractButton) {
+        ((AbstractButton) field).addActionListener(tracker);
+      }
+    }
+  }
+
+  /**
+   * Is a save currently in progress for this window?
+   *
+   * @return true while the model is being written
+   */
+  public boolean isSaving() {
+    return saving;
+  }
+
+  /**
+   * Locks or unlocks the window against mouse and keyboard input while the model is being
+   * written. Fires a "saving" property change so panels outside of the window that edit its model
+   * can lock themselves too.
+   *
+   * @param saving true while the model is being written
+   */
+  public void setSaving(boolean saving) {
+    if (this.saving == saving) {
+      return;
+    }
+
+    if (inputBlocker == null) {
+      inputBlocker = new InputBlocker(this, getGlassPane());
+    }
+
+    this.saving = saving;
+    inputBlocker.setBlocking(saving);
+    firePropertyChange("saving", !saving, saving);
+  }
+
+  /**
+   * Marks the window dirty on any edit to the fields it is attached to.
+   */
+  private class ChangeTracker implements DocumentListener, ActionListener {
+
+    @Override
+    public void insertUpdate(DocumentEvent e) {
+      setDirty(true);
+    }
+
+    @Override
+    public void removeUpdate(DocumentEvent e) {
+      setDirty(true);
+    }
+
+    @Override
+    public void changedUpdate(DocumentEvent e) {
+      setDirty(true);
+    }
+
+    @Override
+    public void actionPerformed(ActionEvent e) {
+      setDirty(true);
+    }
+
+  }
+
 }
@@ -6,18 +6,122 @@
  */
 package net.rpgtoolkit.editor.ui;
 
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
 import java.awt.event.KeyEvent;
 import javax.swing.JMenu;
+import javax.swing.JMenuItem;
+import net.rpgtoolkit.editor.ui.resources.Icons;
 
 /**
  *
  * @author Joshua Michael Daly
  */
-public final class ToolsMenu extends JMenu {
+public final class ToolsMenu extends JMenu implements ActionListener {
+
+  private JMenuItem findUsagesMenuItem;
+  private JMenuItem findTileMenuItem;
+  private JMenuItem findSimilarTilesMenuItem;
+  private JMenuItem findDuplicateTilesMenuItem;
+  private JMenuItem metricsSummaryMenuItem;
 
   public ToolsMenu() {
     super("Tools");
 
     this.setMnemonic(KeyEvent.VK_T);
+
+    configureFindUsagesMenuItem();
+    configureFindTileMenuItem();
+    configureFindSimilarTilesMenuItem();
+    configureFindDuplicateTilesMenuItem();
+    configureMetricsSummaryMenuItem();
+
+    add(findUsagesMenuItem);
+    addSeparator();
+    add(findTileMenuItem);
+    add(findSimilarTilesMenuItem);
+    add(findDuplicateTilesMenuItem);
+    addSeparator();
+    add(metricsSummaryMenuItem);
+  }
+
+  public JMenuItem getFindUsagesMenuItem() {
+    return findUsagesMenuItem;
+  }
+
+  public JMenuItem getFindTileMenuItem() {
+    return findTileMenuItem;
+  }
+
+  public JMenuItem getFindSimilarTilesMenuItem() {
+    return findSimilarTilesMenuItem;
+  }
+
+  public JMenuItem getFindDuplicateTilesMenuItem() {
+    return findDuplicateTilesMenuItem;
+  }
+
+  public JMenuItem getMetricsSummaryMenuItem() {
+    return metricsSummaryMenuItem;
+  }
+
+  @Override
+  public void actionPerformed(ActionEvent e) {
+    if (e.getSource() == findUsagesMenuItem) {
+      MainWindow.getInstance().findUsages();
+    } else if (e.getSource() == findTileMenuItem) {
+      MainWindow.getInstance().findTile();
+    } else if (e.getSource() == findSimilarTilesMenuItem) {
+      MainWindow.getInstance().findSimilarTiles();
+    } else if (e.getSource() == findDuplicateTilesMenuItem) {
+      MainWindow.getInstance().findDuplicateTiles();
+    } else if (e.getSource() == metricsSummaryMenuItem) {
+      MainWindow.getInstance().showMetricsSummary();
+    }
+  }
+
+  /**
+   * Enable all the menu items after a project has been opened.
+   */
+  public void doEnableItems() {
+    findUsagesMenuItem.setEnabled(true);
+    findTileMenuItem.setEnabled(true);
+    findSimilarTilesMenuItem.setEnabled(true);
+    findDuplicateTilesMenuItem.setEnabled(true);
+  }
+
+  private void configureFindUsagesMenuItem() {
+    findUsagesMenuItem = new JMenuItem("Find Usages");
+    findUsagesMenuItem.setIcon(Icons.getSmallIcon("find"));
+    findUsagesMenuItem.setMnemonic(KeyEvent.VK_U);
+    findUsagesMenuItem.setEnabled(false);
+    findUsagesMenuItem.addActionListener(this);
+  }
+
+  private void configureFindTileMenuItem() {
+    findTileMenuItem = new JMenuItem("Find Tile...");
+    findTileMenuItem.setMnemonic(KeyEvent.VK_T);
+    findTileMenuItem.setEnabled(false);
+    findTileMenuItem.addActionListener(this);
+  }
+
+  private void configureFindSimilarTilesMenuItem() {
+    findSimilarTilesMenuItem = new JMenuItem("Find Similar Tiles");
+    findSimilarTilesMenuItem.setMnemonic(KeyEvent.VK_S);
+    findSimilarTilesMenuItem.setEnabled(false);
+    findSimilarTilesMenuItem.addActionListener(this);
+  }
+
+  private void configureFindDuplicateTilesMenuItem() {
+    findDuplicateTilesMenuItem = new JMenuItem("Find Duplicate Tiles...");
+    findDuplicateTilesMenuItem.setMnemonic(KeyEvent.VK_D);
+    findDuplicateTilesMenuItem.setEnabled(false);
+    findDuplicateTilesMenuItem.addActionListener(this);
+  }
+
+  private void configureMetricsSummaryMenuItem() {
+    metricsSummaryMenuItem = new JMenuItem("Metrics Summary");
+    metricsSummaryMenuItem.setMnemonic(KeyEvent.VK_M);
+    metricsSummaryMenuItem.addActionListener(this);
   }
 }
@@ -11,6 +11,7 @@ import net.rpgtoolkit.editor.ui.listeners.ShowVectorsItemListener;
 import net.rpgtoolkit.editor.ui.listeners.ShowProgramsItemListener;
 import net.rpgtoolkit.editor.ui.listeners.ShowGridItemListener;
 import net.rpgtoolkit.editor.ui.listeners.ShowCoordinatesItemListener;
+import net.rpgtoolkit.editor.ui.listeners.ShowPerformanceOverlayItemListener;
 import java.awt.event.ActionEvent;
 import java.awt.event.KeyEvent;
 import javax.swing.JCheckBoxMenuItem;
@@ -34,6 +35,7 @@ public final class ViewMenu extends JMenu {
   private JCheckBoxMenuItem showCoordinatesMenuItem;
   private JCheckBoxMenuItem showVectorsMenuItem;
   private JCheckBoxMenuItem showProgramsMenuItem;
+  private JCheckBoxMenuItem showPerformanceOverlayMenuItem;
   private JCheckBoxMenuItem snapToGridMenuItem;
 
   /**
@@ -50,6 +52,7 @@ public final class ViewMenu extends JMenu {
     configureShowCoordinatesMenuItem();
     configureShowVectorsMenuItem();
     configureShowProgramsMenuItem();
+    configureShowPerformanceOverlayMenuItem();
     configureSnapToGridMenuItem();
 
     add(zoomInMenuItem);
@@ -59,6 +62,7 @@ public final class ViewMenu extends JMenu {
     add(showCoordinatesMenuItem);
     add(showVectorsMenuItem);
     add(showProgramsMenuItem);
+    add(showPerformanceOverlayMenuItem);
     add(new JSeparator());
     add(snapToGridMenuItem);
   }
@@ -87,6 +91,10 @@ public final class ViewMenu extends JMenu {
     return showProgramsMenuItem;
   }
 
+  public JCheckBoxMenuItem getShowPerformanceOverlayMenuItem() {
+    return showPerformanceOverlayMenuItem;
+  }
+
   /**
    *
    */
@@ -158,6 +166,16 @@ public final class ViewMenu extends JMenu {
     showProgramsMenuItem.addItemListener(new ShowProgramsItemListener());
   }
 
+  /**
+   *
+   */
+  public void configureShowPerformanceOverlayMenuItem() {
+    showPerformanceOverlayMenuItem = new JCheckBoxMenuItem("Show Render Statistics");
+    showPerformanceOverlayMenuItem.setAccelerator(
+            KeyStroke.getKeyStroke(KeyEvent.VK_F3, 0));
+    showPerformanceOverlayMenuItem.addItemListener(new ShowPerformanceOverlayItemListener());
+  }
+
   /**
    *
    */
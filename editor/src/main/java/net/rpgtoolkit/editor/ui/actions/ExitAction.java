@@ -8,6 +8,7 @@ package net.rpgtoolkit.editor.ui.actions;
 
 import java.awt.event.ActionEvent;
 import javax.swing.AbstractAction;
+import net.rpgtoolkit.editor.ui.MainWindow;
 
 /**
  * 
@@ -18,7 +19,7 @@ public class ExitAction extends AbstractAction {
 
   @Override
   public void actionPerformed(ActionEvent e) {
-    System.exit(0);
+    MainWindow.getInstance().exit();
   }
   
 }
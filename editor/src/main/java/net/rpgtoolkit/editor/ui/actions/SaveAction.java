@@ -8,7 +8,6 @@ package net.rpgtoolkit.editor.ui.actions;
 
 import java.awt.event.ActionEvent;
 import javax.swing.AbstractAction;
-import javax.swing.JOptionPane;
 import net.rpgtoolkit.editor.ui.MainWindow;
 import net.rpgtoolkit.editor.ui.ToolkitEditorWindow;
 
@@ -26,13 +25,8 @@ public class SaveAction extends AbstractAction {
       if (w.getDesktopPane().getSelectedFrame() instanceof ToolkitEditorWindow) {
         ToolkitEditorWindow window = (ToolkitEditorWindow) w.getDesktopPane().getSelectedFrame();
 
-        if (!window.save()) {
-          JOptionPane.showMessageDialog(MainWindow.getInstance(),
-                  "Error saving file please ensure the filename extension are correct.",
-                  "Error on Save",
-                  JOptionPane.ERROR_MESSAGE);
-
-        }
+        // Failures are reported asynchronously by the main window.
+        w.getBackgroundSaver().save(window);
       }
     }
   }
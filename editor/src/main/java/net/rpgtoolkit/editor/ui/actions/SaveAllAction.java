@@ -0,0 +1,38 @@
+/**
+ * Copyright (c) 2015, rpgtoolkit.net <help@rpgtoolkit.net>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public License, v. 2.0. If a copy of
+ * the MPL was not distributed with this file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package net.rpgtoolkit.editor.ui.actions;
+
+import java.awt.event.ActionEvent;
+import java.util.ArrayList;
+import java.util.List;
+import javax.swing.AbstractAction;
+import javax.swing.JInternalFrame;
+import net.rpgtoolkit.editor.ui.MainWindow;
+import net.rpgtoolkit.editor.ui.ToolkitEditorWindow;
+
+/**
+ * Saves every open editor window concurrently.
+ */
+public class SaveAllAction extends AbstractAction {
+
+  @Override
+  public void actionPerformed(ActionEvent e) {
+    MainWindow w = MainWindow.getInstance();
+    List<ToolkitEditorWindow> windows = new ArrayList<>();
+
+    for (JInternalFrame frame : w.getDesktopPane().getAllFrames()) {
+      if (frame instanceof ToolkitEditorWindow) {
+        windows.add((ToolkitEditorWindow) frame);
+      }
+    }
+
+    if (!windows.isEmpty()) {
+      w.getBackgroundSaver().saveAll(windows);
+    }
+  }
+
+}
@@ -11,6 +11,7 @@ import java.util.Collection;
 import javax.swing.JComboBox;
 import javax.swing.event.PopupMenuEvent;
 import javax.swing.event.PopupMenuListener;
+import net.rpgtoolkit.editor.utilities.FileTools;
 import org.apache.commons.io.FileUtils;
 
 /**
@@ -54,7 +55,9 @@ public class PopupListFilesListener implements PopupMenuListener {
     Collection<File> files = FileUtils.listFiles(rootDirectory, extension, recursive);
     
     for (File file : files) {
-      comboBox.addItem(file.getName());
+      if (!FileTools.isTemporaryFile(file)) {
+        comboBox.addItem(file.getName());
+      }
     }
   }
 
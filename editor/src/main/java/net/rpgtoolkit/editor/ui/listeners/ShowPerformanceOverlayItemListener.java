@@ -0,0 +1,26 @@
+/**
+ * Copyright (c) 2015, rpgtoolkit.net <help@rpgtoolkit.net>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public License, v. 2.0. If a copy of
+ * the MPL was not distributed with this file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package net.rpgtoolkit.editor.ui.listeners;
+
+import java.awt.event.ItemEvent;
+import java.awt.event.ItemListener;
+import javax.swing.JCheckBoxMenuItem;
+import net.rpgtoolkit.editor.ui.MainWindow;
+
+/**
+ * Toggles the render statistics overlay on the board editors.
+ */
+public class ShowPerformanceOverlayItemListener implements ItemListener {
+
+  @Override
+  public void itemStateChanged(ItemEvent e) {
+    JCheckBoxMenuItem showPerformanceOverlayMenuItem = (JCheckBoxMenuItem) e.getItem();
+
+    MainWindow.getInstance().tooglePerformanceOverlayOnBoardEditor(
+            showPerformanceOverlayMenuItem.isSelected());
+  }
+}
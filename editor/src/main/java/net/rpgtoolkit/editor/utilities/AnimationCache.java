@@ -0,0 +1,139 @@
+/**
+ * Copyright (c) 2015, rpgtoolkit.net <help@rpgtoolkit.net>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public License, v. 2.0. If a copy of
+ * the MPL was not distributed with this file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package net.rpgtoolkit.editor.utilities;
+
+import java.awt.Graphics2D;
+import java.awt.GraphicsEnvironment;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import net.rpgtoolkit.common.assets.Animation;
+import net.rpgtoolkit.editor.utilities.metrics.Counter;
+import net.rpgtoolkit.editor.utilities.metrics.MetricsRegistry;
+
+/**
+ * A shared, bounded cache of decoded animations. Entries are keyed by the absolute path and last
+ * modified time of the animation file, so an animation that is edited and saved is reloaded the
+ * next time it is requested. Every frame is decoded once into an image compatible with the
+ * screen, so previews never have to convert or allocate while playing.
+ */
+public final class AnimationCache {
+
+  private static final int MAX_ENTRIES = 64;
+
+  private static final AnimationCache instance = new AnimationCache();
+
+  private static final Counter HITS = MetricsRegistry.getInstance().counter("cache.animation.hits");
+  private static final Counter MISSES
+          = MetricsRegistry.getInstance().counter("cache.animation.misses");
+
+  private final Map<String, CachedAnimation> entries
+          = new LinkedHashMap<String, CachedAnimation>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedAnimation> eldest) {
+              return size() > MAX_ENTRIES;
+            }
+          };
+
+  private AnimationCache() {
+
+  }
+
+  public static AnimationCache getInstance() {
+    return instance;
+  }
+
+  /**
+   * Gets the decoded animation for a file, loading and decoding it if it is not cached or has
+   * changed on disk since it was cached. Safe to call from any thread.
+   *
+   * @param file the animation file
+   * @return the decoded animation, or null if the file can't be read
+   */
+  public CachedAnimation get(File file) {
+    if (!file.canRead()) {
+      return null;
+    }
+
+    String key = file.getAbsolutePath() + '@' + file.lastModified();
+
+    synchronized (entries) {
+      CachedAnimation cached = entries.get(key);
+
+      if (cached != null) {
+        HITS.increment();
+        return cached;
+      }
+    }
+
+    MISSES.increment();
+
+    // Decode outside of the lock, two threads racing on the same file just do the work twice.
+    CachedAnimation decoded = decode(new Animation(file));
+
+    synchronized (entries) {
+      entries.put(key, decoded);
+    }
+
+    return decoded;
+  }
+
+  /**
+   * Drops every cached animation.
+   */
+  public void clear() {
+    synchronized (entries) {
+      entries.clear();
+    }
+  }
+
+  /**
+   * Decodes all of an animation's frames into screen compatible images.
+   *
+   * @param animation the animation to decode
+   * @return the decoded animation
+   */
+  public static CachedAnimation decode(Animation animation) {
+    BufferedImage[] frames = new BufferedImage[(int) animation.getFrameCount()];
+
+    for (int i = 0; i < frames.length; i++) {
+      BufferedImage image = animation.getFrame(i).getFrameImage();
+
+      if (image != null) {
+        frames[i] = toCompatibleImage(image);
+      }
+    }
+
+    return new CachedAnimation(frames, (int) (animation.getFrameDelay() * 1000));
+  }
+
+  private static BufferedImage toCompatibleImage(BufferedImage image) {
+    BufferedImage compatible;
+
+    if (GraphicsEnvironment.isHeadless()) {
+      compatible = new BufferedImage(image.getWidth(), image.getHeight(),
+              BufferedImage.TYPE_INT_ARGB);
+    } else {
+      compatible = GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice()
+              .getDefaultConfiguration().createCompatibleImage(image.getWidth(),
+                      image.getHeight(), Transparency.TRANSLUCENT);
+    }
+
+    if (compatible.getColorModel().equals(image.getColorModel())) {
+      return image;
+    }
+
+    Graphics2D g = compatible.createGraphics();
+    g.drawImage(image, 0, 0, null);
+    g.dispose();
+
+    return compatible;
+  }
+
+}
@@ -0,0 +1,378 @@
+/**
+ * Copyright (c) 2015, rpgtoolkit.net <help@rpgtoolkit.net>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public License, v. 2.0. If a copy of
+ * the MPL was not distributed with this file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package net.rpgtoolkit.editor.utilities;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import net.rpgtoolkit.common.assets.AssetException;
+import net.rpgtoolkit.common.assets.Board;
+import net.rpgtoolkit.common.assets.BoardLayer;
+import net.rpgtoolkit.common.assets.BoardProgram;
+import net.rpgtoolkit.common.assets.BoardSprite;
+import net.rpgtoolkit.common.assets.Tile;
+import net.rpgtoolkit.common.utilities.PropertiesSingleton;
+import org.apache.commons.io.FileUtils;
+
+/**
+ * An inverted index of which boards reference which assets (tilesets, items, programs, music and
+ * neighbouring boards). Boards are parsed on a single background thread, queries are answered from
+ * memory.
+ *
+ * Both sources and targets are keyed by their path relative to the project directory using "/" as
+ * the separator, e.g. "Boards/town.brd" references "Media/town.mp3".
+ */
+public final class AssetReferenceIndex {
+
+  private static final Logger LOGGER = Logger.getLogger(AssetReferenceIndex.class.getName());
+
+  // Board -> assets it references.
+  private final Map<String, Set<String>> references = new HashMap<>();
+  // Asset -> boards that reference it.
+  private final Map<String, Set<String>> usages = new HashMap<>();
+
+  private final ExecutorService executor;
+
+  private volatile File projectDirectory;
+
+  public AssetReferenceIndex() {
+    executor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+      @Override
+      public Thread newThread(Runnable runnable) {
+        Thread thread = new Thread(runnable, "asset-reference-indexer");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        return thread;
+      }
+    });
+  }
+
+  /**
+   * Replaces the references recorded for a source.
+   *
+   * @param source relative path of the referencing asset
+   * @param targets relative paths of the assets it references
+   */
+  public synchronized void update(String source, Collection<String> targets) {
+    remove(source);
+
+    Set<String> copy = new HashSet<>(targets);
+    references.put(source, copy);
+
+    for (String target : copy) {
+      Set<String> sources = usages.get(target);
+
+      if (sources == null) {
+        sources = new HashSet<>();
+        usages.put(target, sources);
+      }
+
+      sources.add(source);
+    }
+  }
+
+  /**
+   * Removes a source and all of the references it made.
+   *
+   * @param source relative path of the referencing asset
+   */
+  public synchronized void remove(String source) {
+    Set<String> targets = references.remove(source);
+
+    if (targets == null) {
+      return;
+    }
+
+    for (String target : targets) {
+      Set<String> sources = usages.get(target);
+
+      if (sources != null) {
+        sources.remove(source);
+
+        if (sources.isEmpty()) {
+          usages.remove(target);
+        }
+      }
+    }
+  }
+
+  /**
+   * Removes everything from the index.
+   */
+  public synchronized void clear() {
+    references.clear();
+    usages.clear();
+  }
+
+  /**
+   * Finds every source that references the target.
+   *
+   * @param target relative path of the asset
+   * @return a sorted copy of the referencing sources, empty if there are none
+   */
+  public synchronized Set<String> findUsages(String target) {
+    Set<String> sources = usages.get(normalize(target));
+
+    if (sources == null) {
+      return Collections.emptySet();
+    }
+
+    return Collections.unmodifiableSet(new TreeSet<>(sources));
+  }
+
+  /**
+   * Finds every board that references the file.
+   *
+   * @param file absolute location of the asset
+   * @return a sorted copy of the referencing boards, empty if there are none
+   */
+  public Set<String> findUsages(File file) {
+    String relative = relativize(file);
+
+    if (relative == null) {
+      return Collections.emptySet();
+    }
+
+    return findUsages(relative);
+  }
+
+  /**
+   * Is the asset referenced anywhere? Useful before a delete or rename.
+   *
+   * @param file absolute location of the asset
+   * @return true if at least one indexed board references it
+   */
+  public boolean isReferenced(File file) {
+    return !findUsages(file).isEmpty();
+  }
+
+  /**
+   * Gets the assets that a source references.
+   *
+   * @param source relative path of the referencing asset
+   * @return a sorted copy of the references, empty if the source is not indexed
+   */
+  public synchronized Set<String> getReferences(String source) {
+    Set<String> targets = references.get(normalize(source));
+
+    if (targets == null) {
+      return Collections.emptySet();
+    }
+
+    return Collections.unmodifiableSet(new TreeSet<>(targets));
+  }
+
+  /**
+   * Gets the number of indexed sources.
+   *
+   * @return number of sources
+   */
+  public synchronized int size() {
+    return references.size();
+  }
+
+  /**
+   * Clears the index and re-indexes every board in the project on the background thread.
+   *
+   * @param directory the project directory, i.e. "project.path"
+   * @return a future that completes when the whole project has been indexed
+   */
+  public Future<?> indexProject(final File directory) {
+    projectDirectory = directory;
+
+    return executor.submit(new Runnable() {
+      @Override
+      public void run() {
+        // Cleared here rather than by the caller, so boards from the previous project that were
+        // still queued can't be added back after the clear.
+        clear();
+
+        File boardDirectory = new File(directory,
+                PropertiesSingleton.getProperty("toolkit.directory.board"));
+
+        if (!boardDirectory.isDirectory()) {
+          return;
+        }
+
+        long start = System.currentTimeMillis();
+        Collection<File> files = FileUtils.listFiles(boardDirectory, null, true);
+
+        for (File file : files) {
+          if (AssetTools.isBoardFile(file)) {
+            indexBoardNow(file);
+          }
+        }
+
+        LOGGER.log(Level.INFO, "Indexed {0} boards in {1} ms",
+                new Object[]{size(), System.currentTimeMillis() - start});
+      }
+    });
+  }
+
+  /**
+   * Re-indexes a single board file on the background thread, i.e. after it has been saved.
+   *
+   * @param file the board file
+   * @return a future that completes when the board has been indexed
+   */
+  public Future<?> indexBoard(final File file) {
+    return executor.submit(new Runnable() {
+      @Override
+      public void run() {
+        indexBoardNow(file);
+      }
+    });
+  }
+
+  /**
+   * Re-indexes an in-memory board on the background thread, avoiding a second parse.
+   *
+   * @param file the location the board was saved to
+   * @param board the board model
+   */
+  public void indexBoard(File file, Board board) {
+    final String source = relativize(file);
+
+    if (source == null) {
+      return;
+    }
+
+    final Set<String> targets = extractReferences(board);
+    executor.submit(new Runnable() {
+      @Override
+      public void run() {
+        update(source, targets);
+      }
+    });
+  }
+
+  /**
+   * Stops the background indexer.
+   */
+  public void shutdown() {
+    executor.shutdownNow();
+  }
+
+  /**
+   * Collects the relative paths of every asset a board references.
+   *
+   * @param board the board to inspect
+   * @return the relative paths, keyed by the toolkit directory of each asset type
+   */
+  public static Set<String> extractReferences(Board board) {
+    Set<String> targets = new HashSet<>();
+
+    String boardDirectory = PropertiesSingleton.getProperty("toolkit.directory.board");
+    String programDirectory = PropertiesSingleton.getProperty("toolkit.directory.program");
+    String itemDirectory = PropertiesSingleton.getProperty("toolkit.directory.item");
+    String mediaDirectory = PropertiesSingleton.getProperty("toolkit.directory.media");
+    String tilesetDirectory = PropertiesSingleton.getProperty("toolkit.directory.tileset");
+
+    addReference(targets, mediaDirectory, board.getBackgroundMusic());
+    addReference(targets, programDirectory, board.getFirstRunProgram());
+
+    if (board.getDirectionalLinks() != null) {
+      for (String link : board.getDirectionalLinks()) {
+        addReference(targets, boardDirectory, link);
+      }
+    }
+
+    for (BoardLayer layer : board.getLayers()) {
+      for (BoardProgram program : layer.getPrograms()) {
+        addReference(targets, programDirectory, program.getFileName());
+      }
+
+      for (BoardSprite sprite : layer.getSprites()) {
+        addReference(targets, itemDirectory, sprite.getFileName());
+        addReference(targets, programDirectory, sprite.getActivationProgram());
+        addReference(targets, programDirectory, sprite.getMultitaskingProgram());
+      }
+
+      // Tiles are shared instances, so only look up each tileset once.
+      Set<Object> seen = new HashSet<>();
+      Tile[][] tiles = layer.getTiles();
+
+      for (Tile[] column : tiles) {
+        for (Tile tile : column) {
+          if (tile != null && tile.getTileSet() != null && seen.add(tile.getTileSet())) {
+            addReference(targets, tilesetDirectory, tile.getTileSet().getName());
+          }
+        }
+      }
+    }
+
+    return targets;
+  }
+
+  /**
+   * Converts a path into the form used for keys.
+   *
+   * @param path a relative path
+   * @return the path using "/" as the separator
+   */
+  public static String normalize(String path) {
+    return path.replace('\\', '/');
+  }
+
+  private String relativize(File file) {
+    File directory = projectDirectory;
+
+    if (directory == null) {
+      return null;
+    }
+
+    String root = directory.getAbsolutePath();
+    String path = file.getAbsolutePath();
+
+    if (!path.startsWith(root)) {
+      return null;
+    }
+
+    path = path.substring(root.length());
+
+    while (path.startsWith(File.separator)) {
+      path = path.substring(1);
+    }
+
+    return normalize(path);
+  }
+
+  private void indexBoardNow(File file) {
+    String source = relativize(file);
+
+    if (source == null) {
+      return;
+    }
+
+    try {
+      update(source, extractReferences(AssetTools.loadBoard(file)));
+    } catch (IOException | AssetException | RuntimeException ex) {
+      // A broken board should not stop the rest of the project from being indexed.
+      LOGGER.log(Level.WARNING, "Failed to index " + file, ex);
+      remove(source);
+    }
+  }
+
+  private static void addReference(Set<String> targets, String directory, String name) {
+    if (name != null && !name.isEmpty()) {
+      targets.add(normalize(directory + "/" + name));
+    }
+  }
+
+}
@@ -0,0 +1,87 @@
+/**
+ * Copyright (c) 2015, rpgtoolkit.net <help@rpgtoolkit.net>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public License, v. 2.0. If a copy of
+ * the MPL was not distributed with this file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package net.rpgtoolkit.editor.utilities;
+
+import java.io.File;
+import java.io.IOException;
+import net.rpgtoolkit.common.assets.AssetDescriptor;
+import net.rpgtoolkit.common.assets.AssetException;
+import net.rpgtoolkit.common.assets.AssetHandle;
+import net.rpgtoolkit.common.assets.AssetManager;
+import net.rpgtoolkit.common.assets.Board;
+import net.rpgtoolkit.common.assets.files.FileAssetHandleResolver;
+import net.rpgtoolkit.common.assets.serialization.JsonBoardSerializer;
+import net.rpgtoolkit.common.assets.serialization.JsonProjectSerializer;
+import net.rpgtoolkit.common.assets.serialization.JsonSMoveSerializer;
+import net.rpgtoolkit.common.assets.serialization.legacy.LegacyAnimatedTileSerializer;
+import net.rpgtoolkit.common.assets.serialization.legacy.LegacyItemSerializer;
+
+/**
+ * Helpers for loading assets outside of the editor windows, i.e. on background threads.
+ */
+public final class AssetTools {
+
+  private static boolean registered;
+
+  private AssetTools() {
+
+  }
+
+  /**
+   * Registers the file resolver and the serializers the editor uses with the AssetManager. Safe to
+   * call more than once, only the first call has any effect.
+   */
+  public static synchronized void registerAssetHandlers() {
+    if (registered) {
+      return;
+    }
+
+    AssetManager assetManager = AssetManager.getInstance();
+    assetManager.registerResolver(new FileAssetHandleResolver());
+    assetManager.registerSerializer(new LegacyAnimatedTileSerializer());
+    assetManager.registerSerializer(new LegacyItemSerializer());
+    assetManager.registerSerializer(new JsonBoardSerializer());
+    assetManager.registerSerializer(new JsonProjectSerializer());
+    assetManager.registerSerializer(new JsonSMoveSerializer());
+    registered = true;
+  }
+
+  /**
+   * Loads a board from either the legacy binary format or JSON, mirroring how the editor opens
+   * boards.
+   *
+   * @param file board file, either ".brd" or ".brd.json"
+   * @return the loaded board
+   * @throws IOException if the file could not be read
+   * @throws AssetException if the file could not be deserialized
+   */
+  public static Board loadBoard(File file) throws IOException, AssetException {
+    if (file.getName().toLowerCase().endsWith(".brd")) {
+      Board board = new Board(file);
+      board.openBinary();
+      return board;
+    }
+
+    AssetHandle handle = AssetManager.getInstance().deserialize(
+            new AssetDescriptor(file.toURI()));
+    return (Board) handle.getAsset();
+  }
+
+  /**
+   * Is the file a board file that {@link #loadBoard(java.io.File)} understands? Temporary files
+   * left behind by a failed save are not.
+   *
+   * @param file the file to check
+   * @return true if it has a board extension
+   */
+  public static boolean isBoardFile(File file) {
+    String name = file.getName().toLowerCase();
+    return !FileTools.isTemporaryFile(file)
+            && (name.endsWith(".brd") || name.endsWith(".brd.json"));
+  }
+
+}
@@ -0,0 +1,70 @@
+/**
+ * Copyright (c) 2015, rpgtoolkit.net <help@rpgtoolkit.net>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public License, v. 2.0. If a copy of
+ * the MPL was not distributed with this file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package net.rpgtoolkit.editor.utilities;
+
+import java.awt.image.BufferedImage;
+
+/**
+ * An animation whose frames have already been decoded into images that are cheap to draw, see
+ * {@link AnimationCache}. Instances are immutable and shared between editors, so the frame
+ * images must not be modified.
+ */
+public final class CachedAnimation {
+
+  private final BufferedImage[] frames;
+  private final int frameDelay;
+  private final int width;
+  private final int height;
+
+  CachedAnimation(BufferedImage[] frames, int frameDelay) {
+    this.frames = frames;
+    this.frameDelay = frameDelay;
+
+    int maxWidth = 0;
+    int maxHeight = 0;
+
+    for (BufferedImage frame : frames) {
+      if (frame != null) {
+        maxWidth = Math.max(maxWidth, frame.getWidth());
+        maxHeight = Math.max(maxHeight, frame.getHeight());
+      }
+    }
+
+    this.width = maxWidth;
+    this.height = maxHeight;
+  }
+
+  public int getFrameCount() {
+    return frames.length;
+  }
+
+  /**
+   *
+   * @param index the frame number
+   * @return the decoded frame, or null if the frame has no image
+   */
+  public BufferedImage getFrame(int index) {
+    return frames[index];
+  }
+
+  /**
+   *
+   * @return the delay between frames in milliseconds
+   */
+  public int getFrameDelay() {
+    return frameDelay;
+  }
+
+  public int getWidth() {
+    return width;
+  }
+
+  public int getHeight() {
+    return height;
+  }
+
+}
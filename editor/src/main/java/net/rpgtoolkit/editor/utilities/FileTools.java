@@ -7,6 +7,10 @@
 package net.rpgtoolkit.editor.utilities;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import javax.swing.JFileChooser;
 import javax.swing.filechooser.FileNameExtensionFilter;
 import net.rpgtoolkit.common.utilities.PropertiesSingleton;
@@ -19,6 +23,8 @@ import net.rpgtoolkit.editor.ui.SingleRootFileSystemView;
  */
 public final class FileTools {
 
+  private static final String TEMPORARY_PREFIX = ".~";
+
   public static boolean createDirectoryStructure(String path, String projectName) {
     boolean result = true;
 
@@ -76,4 +82,64 @@ public final class FileTools {
     return null;
   }
 
-}
\ No newline at end of file
+  /**
+   * Gets the temporary file used while writing the target. It sits in the same directory so that
+   * it can be renamed over the target, and keeps the full name so that serializers which choose a
+   * format by extension still work.
+   *
+   * @param target the file that will eventually be written
+   * @return the temporary sibling of the target
+   */
+  public static File getTemporaryFile(File target) {
+    return new File(target.getAbsoluteFile().getParentFile(), TEMPORARY_PREFIX + target.getName());
+  }
+
+  /**
+   * Is the file one of the temporary files from {@link #getTemporaryFile(java.io.File)}? They are
+   * left behind if a save crashes part way through and must not be mistaken for real assets.
+   *
+   * @param file the file to check
+   * @return true if it is a temporary file
+   */
+  public static boolean isTemporaryFile(File file) {
+    return file.getName().startsWith(TEMPORARY_PREFIX);
+  }
+
+  /**
+   * Looks for the game directory that a file or directory belongs to, for the command line tools
+   * that have to point "project.path" at it without the editor.
+   *
+   * @param file a file or directory inside the project
+   * @return the nearest directory at or above the file with a tileset directory, or null
+   */
+  public static File findProjectDirectory(File file) {
+    String tileSets = PropertiesSingleton.getProperty("toolkit.directory.tileset");
+
+    for (File directory = file.isDirectory() ? file : file.getParentFile(); directory != null;
+            directory = directory.getParentFile()) {
+      if (new File(directory, tileSets).isDirectory()) {
+        return directory;
+      }
+    }
+
+    return null;
+  }
+
+  /**
+   * Moves a file over the target in a single step where the file system allows it, so the target
+   * is never left half written.
+   *
+   * @param source the fully written file
+   * @param target the file to replace
+   * @throws IOException if the move failed
+   */
+  public static void moveAtomically(File source, File target) throws IOException {
+    try {
+      Files.move(source.toPath(), target.toPath(), StandardCopyOption.ATOMIC_MOVE,
+              StandardCopyOption.REPLACE_EXISTING);
+    } catch (AtomicMoveNotSupportedException ex) {
+      Files.move(source.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+  }
+
+}
@@ -0,0 +1,240 @@
+/**
+ * Copyright (c) 2015, rpgtoolkit.net <help@rpgtoolkit.net>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public License, v. 2.0. If a copy of
+ * the MPL was not distributed with this file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package net.rpgtoolkit.editor.utilities;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * Writes a 32-bit RGBA PNG a few rows at a time, so an image can be encoded without ever holding
+ * all of it in memory. ImageIO needs the whole image up front, which doesn't work for boards
+ * larger than the heap.
+ *
+ * The header is written on construction, rows are passed to {@link #writeRows(int[], int, int)}
+ * top to bottom, and {@link #close()} finishes the image once every row has been written. Each
+ * row is filtered with whichever of the "Sub" and "Up" filters is likely to compress better.
+ */
+public class StreamingPngWriter implements Closeable {
+
+  private static final byte[] SIGNATURE = {
+    (byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1a, '\n'
+  };
+
+  private static final int CHUNK_SIZE = 64 * 1024;
+
+  private static final int FILTER_SUB = 1;
+  private static final int FILTER_UP = 2;
+
+  private final DataOutputStream out;
+  private final int width;
+  private final int height;
+  private final Deflater compressor;
+  private final DeflaterOutputStream deflater;
+
+  private byte[] previous;
+  private byte[] current;
+  private final byte[] sub;
+  private final byte[] up;
+  private int rowsWritten;
+
+  /**
+   *
+   * @param out where to write the PNG, it is not closed by this writer
+   * @param width image width in pixels
+   * @param height image height in pixels
+   * @throws IOException if the header could not be written
+   */
+  public StreamingPngWriter(OutputStream out, int width, int height) throws IOException {
+    if (width <= 0 || height <= 0) {
+      throw new IllegalArgumentException("Invalid image size " + width + "x" + height);
+    }
+
+    this.out = new DataOutputStream(out);
+    this.width = width;
+    this.height = height;
+
+    int rowBytes = width * 4;
+    previous = new byte[rowBytes];
+    current = new byte[rowBytes];
+    sub = new byte[rowBytes];
+    up = new byte[rowBytes];
+
+    this.out.write(SIGNATURE);
+
+    ByteArrayOutputStream header = new ByteArrayOutputStream(13);
+    DataOutputStream data = new DataOutputStream(header);
+    data.writeInt(width);
+    data.writeInt(height);
+    data.writeByte(8); // Bit depth.
+    data.writeByte(6); // Colour type, RGBA.
+    data.writeByte(0); // Compression.
+    data.writeByte(0); // Filter method.
+    data.writeByte(0); // No interlacing.
+    writeChunk("IHDR", header.toByteArray(), header.size());
+
+    compressor = new Deflater(Deflater.DEFAULT_COMPRESSION);
+    deflater = new DeflaterOutputStream(new ChunkOutputStream(), compressor, CHUNK_SIZE);
+  }
+
+  public int getWidth() {
+    return width;
+  }
+
+  public int getHeight() {
+    return height;
+  }
+
+  /**
+   *
+   * @return the number of rows written so far
+   */
+  public int getRowsWritten() {
+    return rowsWritten;
+  }
+
+  /**
+   * Writes the next rows of the image.
+   *
+   * @param argb packed ARGB pixels, as returned by BufferedImage.getRGB
+   * @param offset index of the first pixel of the first row
+   * @param rows number of rows, each {@link #getWidth()} pixels long
+   * @throws IOException if the rows could not be written
+   */
+  public void writeRows(int[] argb, int offset, int rows) throws IOException {
+    if (rowsWritten + rows > height) {
+      throw new IllegalStateException("Image only has " + height + " rows");
+    }
+
+    for (int row = 0; row < rows; row++) {
+      int start = offset + row * width;
+
+      for (int x = 0; x < width; x++) {
+        int pixel = argb[start + x];
+        int i = x * 4;
+        current[i] = (byte) (pixel >> 16);
+        current[i + 1] = (byte) (pixel >> 8);
+        current[i + 2] = (byte) pixel;
+        current[i + 3] = (byte) (pixel >>> 24);
+      }
+
+      writeFiltered();
+      rowsWritten++;
+    }
+  }
+
+  /**
+   * Finishes the image, every row must have been written.
+   *
+   * @throws IOException if the image could not be finished
+   */
+  @Override
+  public void close() throws IOException {
+    if (rowsWritten != height) {
+      throw new IllegalStateException("Only " + rowsWritten + " of " + height
+              + " rows were written");
+    }
+
+    try {
+      deflater.finish();
+      deflater.flush();
+      writeChunk("IEND", new byte[0], 0);
+      out.flush();
+    } finally {
+      compressor.end();
+    }
+  }
+
+  private void writeFiltered() throws IOException {
+    long subCost = 0;
+    long upCost = 0;
+
+    for (int i = 0; i < current.length; i++) {
+      int left = i >= 4 ? current[i - 4] : 0;
+      sub[i] = (byte) (current[i] - left);
+      up[i] = (byte) (current[i] - previous[i]);
+
+      // The usual heuristic, treat the filtered bytes as signed and prefer the smaller sum.
+      subCost += Math.abs(sub[i]);
+      upCost += Math.abs(up[i]);
+    }
+
+    if (subCost <= upCost) {
+      deflater.write(FILTER_SUB);
+      deflater.write(sub);
+    } else {
+      deflater.write(FILTER_UP);
+      deflater.write(up);
+    }
+
+    byte[] swap = previous;
+    previous = current;
+    current = swap;
+  }
+
+  private void writeChunk(String type, byte[] data, int length) throws IOException {
+    byte[] typeBytes = type.getBytes(StandardCharsets.US_ASCII);
+
+    CRC32 crc = new CRC32();
+    crc.update(typeBytes);
+    crc.update(data, 0, length);
+
+    out.writeInt(length);
+    out.write(typeBytes);
+    out.write(data, 0, length);
+    out.writeInt((int) crc.getValue());
+  }
+
+  /**
+   * Collects compressed bytes and writes them out as IDAT chunks.
+   */
+  private class ChunkOutputStream extends OutputStream {
+
+    private final byte[] buffer = new byte[CHUNK_SIZE];
+    private int count;
+
+    @Override
+    public void write(int b) throws IOException {
+      if (count == buffer.length) {
+        flush();
+      }
+
+      buffer[count++] = (byte) b;
+    }
+
+    @Override
+    public void write(byte[] bytes, int offset, int length) throws IOException {
+      while (length > 0) {
+        if (count == buffer.length) {
+          flush();
+        }
+
+        int copied = Math.min(length, buffer.length - count);
+        System.arraycopy(bytes, offset, buffer, count, copied);
+        count += copied;
+        offset += copied;
+        length -= copied;
+      }
+    }
+
+    @Override
+    public void flush() throws IOException {
+      if (count > 0) {
+        writeChunk("IDAT", buffer, count);
+        count = 0;
+      }
+    }
+
+  }
+
+}
@@ -0,0 +1,297 @@
+/**
+ * Copyright (c) 2015, rpgtoolkit.net <help@rpgtoolkit.net>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public License, v. 2.0. If a copy of
+ * the MPL was not distributed with this file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package net.rpgtoolkit.editor.utilities;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.imageio.ImageIO;
+import javax.swing.SwingUtilities;
+import net.rpgtoolkit.editor.utilities.metrics.Counter;
+import net.rpgtoolkit.editor.utilities.metrics.MetricsRegistry;
+
+/**
+ * Creates scaled down copies of images for previews. Thumbnails are cached at two levels: an in
+ * memory LRU keyed by file, modification time and size, and an on-disk cache of PNGs keyed by a
+ * hash of the image's contents and the size, so a thumbnail survives restarts and is shared
+ * between copies of the same image. Loading and scaling happen on background threads.
+ */
+public final class ThumbnailService {
+
+  private static final Logger LOGGER = Logger.getLogger(ThumbnailService.class.getName());
+
+  private static final Counter MEMORY_HITS
+          = MetricsRegistry.getInstance().counter("cache.thumbnail.memory.hits");
+  private static final Counter DISK_HITS
+          = MetricsRegistry.getInstance().counter("cache.thumbnail.disk.hits");
+  private static final Counter MISSES
+          = MetricsRegistry.getInstance().counter("cache.thumbnail.misses");
+
+  private static final int MAX_MEMORY_ENTRIES = 256;
+
+  private static final ThumbnailService instance = new ThumbnailService(new File(
+          System.getProperty("user.home") + File.separator + ".rpgtoolkit"
+          + File.separator + "thumbnails"));
+
+  /**
+   * Receives a thumbnail on the EDT.
+   */
+  public interface Callback {
+
+    /**
+     *
+     * @param file the source image
+     * @param thumbnail the thumbnail, or null if the image could not be read
+     */
+    public void thumbnailReady(File file, BufferedImage thumbnail);
+  }
+
+  private final File cacheDirectory;
+  private final ExecutorService executor;
+
+  private final Map<String, BufferedImage> memory
+          = new LinkedHashMap<String, BufferedImage>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, BufferedImage> eldest) {
+              return size() > MAX_MEMORY_ENTRIES;
+            }
+          };
+
+  /**
+   *
+   * @param cacheDirectory where thumbnails are stored on disk
+   */
+  public ThumbnailService(File cacheDirectory) {
+    this.cacheDirectory = cacheDirectory;
+    this.executor = Executors.newFixedThreadPool(2, new ThreadFactory() {
+      private final AtomicInteger count = new AtomicInteger();
+
+      @Override
+      public Thread newThread(Runnable runnable) {
+        Thread thread = new Thread(runnable, "thumbnail-" + count.incrementAndGet());
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        return thread;
+      }
+    });
+  }
+
+  public static ThumbnailService getInstance() {
+    return instance;
+  }
+
+  /**
+   * Gets a thumbnail that fits in the box, preserving the aspect ratio. The callback is invoked
+   * on the EDT, straight away if the thumbnail is already in memory.
+   *
+   * @param file the source image
+   * @param width the width of the box
+   * @param height the height of the box
+   * @param callback receives the thumbnail
+   */
+  public void request(final File file, final int width, final int height,
+          final Callback callback) {
+    final String key = memoryKey(file, width, height);
+    BufferedImage cached;
+
+    synchronized (memory) {
+      cached = memory.get(key);
+    }
+
+    if (cached != null) {
+      MEMORY_HITS.increment();
+      callback.thumbnailReady(file, cached);
+      return;
+    }
+
+    executor.execute(new Runnable() {
+      @Override
+      public void run() {
+        final BufferedImage thumbnail = load(file, width, height);
+
+        if (thumbnail != null) {
+          synchronized (memory) {
+            memory.put(key, thumbnail);
+          }
+        }
+
+        SwingUtilities.invokeLater(new Runnable() {
+          @Override
+          public void run() {
+            callback.thumbnailReady(file, thumbnail);
+          }
+        });
+      }
+    });
+  }
+
+  /**
+   * Gets a thumbnail on the calling thread, going through both caches.
+   *
+   * @param file the source image
+   * @param width the width of the box
+   * @param height the height of the box
+   * @return the thumbnail, or null if the image could not be read
+   */
+  public BufferedImage load(File file, int width, int height) {
+    String key = memoryKey(file, width, height);
+
+    synchronized (memory) {
+      BufferedImage cached = memory.get(key);
+
+      if (cached != null) {
+        MEMORY_HITS.increment();
+        return cached;
+      }
+    }
+
+    try {
+      byte[] contents = Files.readAllBytes(file.toPath());
+      File cacheFile = new File(cacheDirectory, hash(contents) + "-" + width + "x" + height
+              + ".png");
+
+      if (cacheFile.canRead()) {
+        BufferedImage thumbnail = ImageIO.read(cacheFile);
+
+        if (thumbnail != null) {
+          DISK_HITS.increment();
+          return thumbnail;
+        }
+      }
+
+      MISSES.increment();
+      BufferedImage image = ImageIO.read(new ByteArrayInputStream(contents));
+
+      if (image == null) {
+        return null;
+      }
+
+      BufferedImage thumbnail = scale(image, width, height);
+      store(thumbnail, cacheFile);
+
+      return thumbnail;
+    } catch (IOException ex) {
+      LOGGER.log(Level.WARNING, "Failed to create thumbnail for " + file, ex);
+      return null;
+    }
+  }
+
+  /**
+   * Drops the in memory cache, the on-disk cache is kept.
+   */
+  public void clearMemory() {
+    synchronized (memory) {
+      memory.clear();
+    }
+  }
+
+  /**
+   * Scales an image to fit in a box, preserving its aspect ratio. Large reductions are done in
+   * several halving steps so the result stays smooth without the cost of area averaging.
+   *
+   * @param image the image to scale
+   * @param width the width of the box
+   * @param height the height of the box
+   * @return the scaled image
+   */
+  public static BufferedImage scale(BufferedImage image, int width, int height) {
+    int originalW = image.getWidth();
+    int originalH = image.getHeight();
+    double scale;
+
+    if (originalW >= originalH) {
+      scale = (double) width / originalW;
+    } else {
+      scale = (double) height / originalH;
+    }
+
+    int targetW = Math.max(1, (int) (originalW * scale));
+    int targetH = Math.max(1, (int) (originalH * scale));
+
+    BufferedImage current = image;
+    int currentW = originalW;
+    int currentH = originalH;
+
+    // Halve until within a factor of two of the target, then do the final step.
+    do {
+      if (currentW / 2 >= targetW && currentH / 2 >= targetH) {
+        currentW /= 2;
+        currentH /= 2;
+      } else {
+        currentW = targetW;
+        currentH = targetH;
+      }
+
+      BufferedImage step = new BufferedImage(currentW, currentH, BufferedImage.TYPE_INT_ARGB);
+      Graphics2D g = step.createGraphics();
+      g.setRenderingHint(RenderingHints.KEY_INTERPOLATION,
+              RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+      g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+      g.drawImage(current, 0, 0, currentW, currentH, null);
+      g.dispose();
+
+      current = step;
+    } while (currentW != targetW || currentH != targetH);
+
+    return current;
+  }
+
+  private void store(BufferedImage thumbnail, File cacheFile) {
+    if (!cacheDirectory.isDirectory() && !cacheDirectory.mkdirs()) {
+      return;
+    }
+
+    File temporary = FileTools.getTemporaryFile(cacheFile);
+
+    try {
+      if (ImageIO.write(thumbnail, "png", temporary)) {
+        FileTools.moveAtomically(temporary, cacheFile);
+      }
+    } catch (IOException ex) {
+      LOGGER.log(Level.WARNING, "Failed to cache thumbnail " + cacheFile, ex);
+    } finally {
+      if (temporary.exists()) {
+        temporary.delete();
+      }
+    }
+  }
+
+  private static String memoryKey(File file, int width, int height) {
+    return file.getAbsolutePath() + '@' + file.lastModified() + '-' + width + 'x' + height;
+  }
+
+  private static String hash(byte[] contents) {
+    try {
+      MessageDigest digest = MessageDigest.getInstance("SHA-1");
+      StringBuilder hex = new StringBuilder();
+
+      for (byte b : digest.digest(contents)) {
+        hex.append(String.format("%02x", b));
+      }
+
+      return hex.toString();
+    } catch (NoSuchAlgorithmException ex) {
+      // Every JVM is required to support SHA-1.
+      throw new IllegalStateException(ex);
+    }
+  }
+
+}
@@ -0,0 +1,444 @@
+/**
+ * Copyright (c) 2015, rpgtoolkit.net <help@rpgtoolkit.net>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public License, v. 2.0. If a copy of
+ * the MPL was not distributed with this file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package net.rpgtoolkit.editor.utilities;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import net.rpgtoolkit.common.assets.AssetException;
+import net.rpgtoolkit.common.assets.Board;
+import net.rpgtoolkit.common.assets.BoardLayer;
+import net.rpgtoolkit.common.assets.Tile;
+import net.rpgtoolkit.common.assets.TileSet;
+import net.rpgtoolkit.common.utilities.PropertiesSingleton;
+import org.apache.commons.io.FileUtils;
+
+/**
+ * Finds tiles with identical pixels across all of a project's tilesets and can point boards at a
+ * single canonical copy of each, so fewer distinct tile images are loaded when a board is drawn.
+ *
+ * Tilesets are loaded and hashed in parallel, one task per tileset. Tiles are compared by a SHA-1
+ * of their ARGB pixels, so only exact duplicates are reported. For near duplicates see
+ * {@link TileIndex#findSimilar(net.rpgtoolkit.common.assets.Tile, int)}.
+ */
+public final class TileDeduplicator {
+
+  private static final Logger LOGGER = Logger.getLogger(TileDeduplicator.class.getName());
+
+  /**
+   * Identifies a tile by its tileset's name and its index within it, the same way boards do.
+   */
+  public static final class TileRef {
+
+    private final String tileSet;
+    private final int index;
+
+    public TileRef(String tileSet, int index) {
+      this.tileSet = tileSet;
+      this.index = index;
+    }
+
+    public String getTileSet() {
+      return tileSet;
+    }
+
+    public int getIndex() {
+      return index;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (!(obj instanceof TileRef)) {
+        return false;
+      }
+
+      TileRef other = (TileRef) obj;
+      return index == other.index && tileSet.equals(other.tileSet);
+    }
+
+    @Override
+    public int hashCode() {
+      return tileSet.hashCode() * 31 + index;
+    }
+
+    @Override
+    public String toString() {
+      return tileSet + ":" + index;
+    }
+
+  }
+
+  /**
+   * The outcome of {@link #scan(java.io.File)}.
+   */
+  public static final class Report {
+
+    private final List<List<TileRef>> groups;
+    private final int tileSetCount;
+    private final int tileCount;
+    private final long elapsedMillis;
+
+    Report(List<List<TileRef>> groups, int tileSetCount, int tileCount, long elapsedMillis) {
+      this.groups = Collections.unmodifiableList(groups);
+      this.tileSetCount = tileSetCount;
+      this.tileCount = tileCount;
+      this.elapsedMillis = elapsedMillis;
+    }
+
+    /**
+     * Gets each set of identical tiles, the first tile of each group is the canonical one.
+     *
+     * @return groups of two or more identical tiles
+     */
+    public List<List<TileRef>> getGroups() {
+      return groups;
+    }
+
+    public int getTileSetCount() {
+      return tileSetCount;
+    }
+
+    public int getTileCount() {
+      return tileCount;
+    }
+
+    public long getElapsedMillis() {
+      return elapsedMillis;
+    }
+
+    /**
+     * Gets the number of tiles that could be replaced by their canonical copy.
+     *
+     * @return the number of redundant tiles
+     */
+    public int getDuplicateCount() {
+      int count = 0;
+
+      for (List<TileRef> group : groups) {
+        count += group.size() - 1;
+      }
+
+      return count;
+    }
+
+    /**
+     * Maps every redundant tile to its canonical copy.
+     *
+     * @return the remapping to pass to {@link TileDeduplicator#remap(Board, Map)}
+     */
+    public Map<TileRef, TileRef> getRemapping() {
+      Map<TileRef, TileRef> remapping = new HashMap<>();
+
+      for (List<TileRef> group : groups) {
+        TileRef canonical = group.get(0);
+
+        for (int i = 1; i < group.size(); i++) {
+          remapping.put(group.get(i), canonical);
+        }
+      }
+
+      return remapping;
+    }
+
+  }
+
+  private final ExecutorService executor;
+
+  /**
+   *
+   * @param threads the number of tilesets hashed at once
+   */
+  public TileDeduplicator(int threads) {
+    executor = Executors.newFixedThreadPool(threads, new ThreadFactory() {
+      private final AtomicInteger count = new AtomicInteger();
+
+      @Override
+      public Thread newThread(Runnable runnable) {
+        Thread thread = new Thread(runnable, "tile-deduplicator-" + count.incrementAndGet());
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        return thread;
+      }
+    });
+  }
+
+  /**
+   * Hashes every tile of every tileset under the directory and groups the identical ones. Blocks
+   * until all tilesets have been hashed, so call it off the EDT. Tilesets are visited in path order
+   * so the canonical tile of a group is stable between runs.
+   *
+   * @param tileSetDirectory the project's tileset directory
+   * @return the duplicates found
+   * @throws InterruptedException if interrupted while waiting for the hashes
+   */
+  public Report scan(File tileSetDirectory) throws InterruptedException {
+    long start = System.nanoTime();
+    List<File> files = new ArrayList<>();
+
+    if (tileSetDirectory.isDirectory()) {
+      for (File file : FileUtils.listFiles(tileSetDirectory, new String[]{"tst"}, true)) {
+        if (!FileTools.isTemporaryFile(file)) {
+          files.add(file);
+        }
+      }
+      Collections.sort(files);
+    }
+
+    List<Future<List<TileHash>>> futures = new ArrayList<>(files.size());
+
+    for (final File file : files) {
+      futures.add(executor.submit(new Callable<List<TileHash>>() {
+        @Override
+        public List<TileHash> call() {
+          return hashTileSet(file);
+        }
+      }));
+    }
+
+    Map<ByteBuffer, List<TileRef>> byHash = new LinkedHashMap<>();
+    int tileCount = 0;
+
+    for (int i = 0; i < futures.size(); i++) {
+      List<TileHash> hashes;
+
+      try {
+        hashes = futures.get(i).get();
+      } catch (ExecutionException ex) {
+        LOGGER.log(Level.WARNING, "Failed to hash " + files.get(i), ex.getCause());
+        continue;
+      }
+
+      for (TileHash hash : hashes) {
+        List<TileRef> group = byHash.get(hash.digest);
+
+        if (group == null) {
+          group = new ArrayList<>(2);
+          byHash.put(hash.digest, group);
+        }
+
+        group.add(hash.ref);
+        tileCount++;
+      }
+    }
+
+    List<List<TileRef>> groups = new ArrayList<>();
+
+    for (List<TileRef> group : byHash.values()) {
+      if (group.size() > 1) {
+        groups.add(group);
+      }
+    }
+
+    long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    LOGGER.log(Level.INFO, "Hashed {0} tiles in {1} tilesets in {2} ms, {3} groups of duplicates",
+            new Object[]{tileCount, files.size(), elapsed, groups.size()});
+
+    return new Report(groups, files.size(), tileCount, elapsed);
+  }
+
+  /**
+   * Points every tile on the board that has a canonical copy at that copy. Canonical tilesets the
+   * board does not already use are loaded from the project's tileset directory.
+   *
+   * @param board the board to update
+   * @param remapping redundant tiles to their canonical copies
+   * @return the number of board cells that were changed
+   */
+  public static int remap(Board board, Map<TileRef, TileRef> remapping) {
+    Map<String, TileSet> tileSets = new HashMap<>();
+    Map<Tile, Integer> indices = new IdentityHashMap<>();
+    int changed = 0;
+
+    for (BoardLayer layer : board.getLayers()) {
+      for (int x = 0; x < board.getWidth(); x++) {
+        for (int y = 0; y < board.getHeight(); y++) {
+          Tile tile = layer.getTileAt(x, y);
+
+          if (tile != null && tile.getTileSet() != null) {
+            tileSets.put(tile.getTileSet().getName(), tile.getTileSet());
+          }
+        }
+      }
+    }
+
+    for (BoardLayer layer : board.getLayers()) {
+      for (int x = 0; x < board.getWidth(); x++) {
+        for (int y = 0; y < board.getHeight(); y++) {
+          Tile tile = layer.getTileAt(x, y);
+
+          if (tile == null || tile.getTileSet() == null) {
+            continue;
+          }
+
+          Integer index = indices.get(tile);
+
+          if (index == null) {
+            index = tile.getTileSet().getTiles().indexOf(tile);
+            indices.put(tile, index);
+          }
+
+          TileRef canonical = remapping.get(new TileRef(tile.getTileSet().getName(), index));
+
+          if (canonical != null) {
+            layer.setTileAt(x, y, resolveTile(tileSets, canonical));
+            changed++;
+          }
+        }
+      }
+    }
+
+    return changed;
+  }
+
+  /**
+   * Remaps every board in the project and saves the ones that changed, each through a temporary
+   * file. Runs on the calling thread, so call it off the EDT.
+   *
+   * @param projectDirectory the project directory, i.e. "project.path"
+   * @param remapping redundant tiles to their canonical copies
+   * @param skip boards not to touch, e.g. ones open in an editor
+   * @return the boards that were changed
+   */
+  public static List<File> remapBoards(File projectDirectory, Map<TileRef, TileRef> remapping,
+          Set<File> skip) {
+    File boardDirectory = new File(projectDirectory,
+            PropertiesSingleton.getProperty("toolkit.directory.board"));
+    List<File> changed = new ArrayList<>();
+
+    if (!boardDirectory.isDirectory() || remapping.isEmpty()) {
+      return changed;
+    }
+
+    Collection<File> files = FileUtils.listFiles(boardDirectory, null, true);
+
+    for (File file : files) {
+      if (!AssetTools.isBoardFile(file) || skip.contains(file.getAbsoluteFile())) {
+        continue;
+      }
+
+      try {
+        Board board = AssetTools.loadBoard(file);
+
+        if (remap(board, remapping) > 0) {
+          File temporary = FileTools.getTemporaryFile(file);
+
+          try {
+            if (!board.saveAs(temporary)) {
+              throw new IOException("Failed to write " + file.getName());
+            }
+
+            FileTools.moveAtomically(temporary, file);
+            changed.add(file);
+          } finally {
+            if (temporary.exists()) {
+              temporary.delete();
+            }
+          }
+        }
+      } catch (IOException | AssetException ex) {
+        LOGGER.log(Level.SEVERE, "Failed to remap " + file, ex);
+      }
+    }
+
+    return changed;
+  }
+
+  /**
+   * Stops the background threads.
+   */
+  public void shutdown() {
+    executor.shutdownNow();
+  }
+
+  private static List<TileHash> hashTileSet(File file) {
+    TileSet tileSet = new TileSet(file);
+    MessageDigest digest = createDigest();
+    int count = tileSet.getTileCount();
+    List<TileHash> hashes = new ArrayList<>(count);
+    ByteBuffer bytes = null;
+
+    for (int i = 0; i < count; i++) {
+      BufferedImage image = tileSet.getTile(i).getTileAsImage();
+      int width = image.getWidth();
+      int height = image.getHeight();
+      int[] pixels = image.getRGB(0, 0, width, height, null, 0, width);
+
+      if (bytes == null || bytes.capacity() != pixels.length * 4 + 8) {
+        bytes = ByteBuffer.allocate(pixels.length * 4 + 8);
+      }
+
+      // Include the size so tiles of different shapes with the same pixels never match.
+      bytes.clear();
+      bytes.putInt(width).putInt(height);
+      bytes.asIntBuffer().put(pixels);
+
+      digest.update(bytes.array());
+      hashes.add(new TileHash(new TileRef(tileSet.getName(), i),
+              ByteBuffer.wrap(digest.digest())));
+    }
+
+    return hashes;
+  }
+
+  private static Tile resolveTile(Map<String, TileSet> tileSets, TileRef ref) {
+    TileSet tileSet = tileSets.get(ref.getTileSet());
+
+    if (tileSet == null) {
+      tileSet = new TileSet(new File(System.getProperty("project.path")
+              + File.separator
+              + PropertiesSingleton.getProperty("toolkit.directory.tileset")
+              + File.separator + ref.getTileSet()));
+      tileSets.put(ref.getTileSet(), tileSet);
+    }
+
+    return tileSet.getTile(ref.getIndex());
+  }
+
+  private static MessageDigest createDigest() {
+    try {
+      return MessageDigest.getInstance("SHA-1");
+    } catch (NoSuchAlgorithmException ex) {
+      // Every JVM is required to support SHA-1.
+      throw new IllegalStateException(ex);
+    }
+  }
+
+  private static final class TileHash {
+
+    private final TileRef ref;
+    private final ByteBuffer digest;
+
+    TileHash(TileRef ref, ByteBuffer digest) {
+      this.ref = ref;
+      this.digest = digest;
+    }
+
+  }
+
+}
@@ -0,0 +1,429 @@
+/**
+ * Copyright (c) 2015, rpgtoolkit.net <help@rpgtoolkit.net>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public License, v. 2.0. If a copy of
+ * the MPL was not distributed with this file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package net.rpgtoolkit.editor.utilities;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import net.rpgtoolkit.common.assets.Tile;
+import net.rpgtoolkit.common.assets.TileSet;
+
+/**
+ * An index of the tiles in every opened tileset, for finding tiles by name or index, by their
+ * dominant colour, or by how similar they look to another tile. Each tileset is analysed once on a
+ * background thread and its features are cached by name, queries are answered from memory over
+ * whatever has been indexed so far.
+ *
+ * Similarity uses a 64 bit difference hash of the tile's luminance, two tiles whose hashes differ
+ * in only a few bits look alike to the eye even if their pixels are not identical.
+ */
+public final class TileIndex {
+
+  private static final Logger LOGGER = Logger.getLogger(TileIndex.class.getName());
+
+  /**
+   * The features of one tile.
+   */
+  public static final class Entry {
+
+    private final TileSet tileSet;
+    private final int index;
+    private final int dominantColour;
+    private final long hash;
+
+    Entry(TileSet tileSet, int index, int dominantColour, long hash) {
+      this.tileSet = tileSet;
+      this.index = index;
+      this.dominantColour = dominantColour;
+      this.hash = hash;
+    }
+
+    public TileSet getTileSet() {
+      return tileSet;
+    }
+
+    public int getIndex() {
+      return index;
+    }
+
+    public Tile getTile() {
+      return tileSet.getTile(index);
+    }
+
+    /**
+     *
+     * @return the dominant colour as packed RGB
+     */
+    public int getDominantColour() {
+      return dominantColour;
+    }
+
+    public long getHash() {
+      return hash;
+    }
+
+    @Override
+    public String toString() {
+      return tileSet.getName() + ":" + index;
+    }
+
+  }
+
+  // Tileset name -> features of its tiles, in tile order.
+  private final Map<String, List<Entry>> entries = new LinkedHashMap<>();
+
+  private final ExecutorService executor;
+
+  public TileIndex() {
+    executor = Executors.newSingleThreadExecutor(new ThreadFactory() {
+      @Override
+      public Thread newThread(Runnable runnable) {
+        Thread thread = new Thread(runnable, "tile-indexer");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        return thread;
+      }
+    });
+  }
+
+  /**
+   * Analyses the tileset on the background thread, unless it has already been indexed.
+   *
+   * @param tileSet the tileset to index
+   * @return a future that completes when the tileset has been indexed
+   */
+  public Future<?> index(final TileSet tileSet) {
+    return executor.submit(new Runnable() {
+      @Override
+      public void run() {
+        synchronized (TileIndex.this) {
+          List<Entry> existing = entries.get(tileSet.getName());
+
+          if (existing != null && existing.size() == tileSet.getTileCount()) {
+            return;
+          }
+        }
+
+        long start = System.nanoTime();
+        List<Entry> analysed = analyse(tileSet);
+
+        synchronized (TileIndex.this) {
+          entries.put(tileSet.getName(), Collections.unmodifiableList(analysed));
+        }
+
+        LOGGER.log(Level.INFO, "Indexed {0} tiles of {1} in {2} ms", new Object[]{
+          analysed.size(), tileSet.getName(), (System.nanoTime() - start) / 1000000});
+      }
+    });
+  }
+
+  /**
+   * Drops a tileset from the index on the background thread, e.g. after its tab has been closed.
+   * Queued behind any pending indexing, so that can't add it back afterwards.
+   *
+   * @param tileSet the tileset to remove
+   * @return a future that completes when the tileset has been removed
+   */
+  public Future<?> remove(final TileSet tileSet) {
+    return executor.submit(new Runnable() {
+      @Override
+      public void run() {
+        synchronized (TileIndex.this) {
+          entries.remove(tileSet.getName());
+        }
+      }
+    });
+  }
+
+  /**
+   * Removes everything from the index on the background thread, after any pending indexing.
+   *
+   * @return a future that completes when the index has been cleared
+   */
+  public Future<?> clear() {
+    return executor.submit(new Runnable() {
+      @Override
+      public void run() {
+        synchronized (TileIndex.this) {
+          entries.clear();
+        }
+      }
+    });
+  }
+
+  /**
+   * Gets the number of indexed tiles.
+   *
+   * @return number of tiles
+   */
+  public synchronized int size() {
+    int size = 0;
+
+    for (List<Entry> tiles : entries.values()) {
+      size += tiles.size();
+    }
+
+    return size;
+  }
+
+  /**
+   * Finds tiles by name and index. "town" matches every tile in tilesets whose name contains it,
+   * "12" matches tile 12 of every tileset and "town:12" matches tile 12 of those tilesets.
+   *
+   * @param query the text to search for
+   * @return the matching tiles
+   */
+  public synchronized List<Entry> findByName(String query) {
+    String text = query.trim().toLowerCase(Locale.ENGLISH);
+    String name = text;
+    int index = -1;
+    int colon = text.lastIndexOf(':');
+
+    try {
+      if (colon >= 0) {
+        name = text.substring(0, colon);
+        index = Integer.parseInt(text.substring(colon + 1).trim());
+      } else if (!text.isEmpty() && Character.isDigit(text.charAt(0))) {
+        name = "";
+        index = Integer.parseInt(text);
+      }
+    } catch (NumberFormatException ex) {
+      name = text;
+      index = -1;
+    }
+
+    List<Entry> results = new ArrayList<>();
+
+    for (Map.Entry<String, List<Entry>> tileSet : entries.entrySet()) {
+      if (!tileSet.getKey().toLowerCase(Locale.ENGLISH).contains(name)) {
+        continue;
+      }
+
+      List<Entry> tiles = tileSet.getValue();
+
+      if (index < 0) {
+        results.addAll(tiles);
+      } else if (index < tiles.size()) {
+        results.add(tiles.get(index));
+      }
+    }
+
+    return results;
+  }
+
+  /**
+   * Finds tiles whose dominant colour is close to the given one, closest first.
+   *
+   * @param colour the colour to look for
+   * @param tolerance the largest euclidean RGB distance to accept
+   * @return the matching tiles
+   */
+  public synchronized List<Entry> findByColour(Color colour, int tolerance) {
+    final int rgb = colour.getRGB();
+    final long limit = (long) tolerance * tolerance;
+    List<Entry> results = new ArrayList<>();
+
+    for (List<Entry> tiles : entries.values()) {
+      for (Entry entry : tiles) {
+        if (colourDistance(rgb, entry.dominantColour) <= limit) {
+          results.add(entry);
+        }
+      }
+    }
+
+    Collections.sort(results, new Comparator<Entry>() {
+      @Override
+      public int compare(Entry a, Entry b) {
+        return Long.compare(colourDistance(rgb, a.dominantColour),
+                colourDistance(rgb, b.dominantColour));
+      }
+    });
+
+    return results;
+  }
+
+  /**
+   * Finds tiles that look like the given one, most similar first. The tile itself is included if
+   * its tileset has been indexed.
+   *
+   * @param tile the tile to compare against
+   * @param maxDistance the largest number of differing hash bits to accept, 0 for near duplicates
+   * and around 10 for loosely similar tiles
+   * @return the matching tiles
+   */
+  public List<Entry> findSimilar(Tile tile, int maxDistance) {
+    final long hash = perceptualHash(tile.getTileAsImage());
+    List<Entry> results = new ArrayList<>();
+
+    synchronized (this) {
+      for (List<Entry> tiles : entries.values()) {
+        for (Entry entry : tiles) {
+          if (Long.bitCount(hash ^ entry.hash) <= maxDistance) {
+            results.add(entry);
+          }
+        }
+      }
+    }
+
+    Collections.sort(results, new Comparator<Entry>() {
+      @Override
+      public int compare(Entry a, Entry b) {
+        return Integer.compare(Long.bitCount(hash ^ a.hash), Long.bitCount(hash ^ b.hash));
+      }
+    });
+
+    return results;
+  }
+
+  /**
+   * Gets a snapshot of everything indexed so far.
+   *
+   * @return the indexed tiles
+   */
+  public synchronized Collection<Entry> getEntries() {
+    List<Entry> all = new ArrayList<>();
+
+    for (List<Entry> tiles : entries.values()) {
+      all.addAll(tiles);
+    }
+
+    return all;
+  }
+
+  /**
+   * Stops the background thread.
+   */
+  public void shutdown() {
+    executor.shutdownNow();
+  }
+
+  private static List<Entry> analyse(TileSet tileSet) {
+    int count = tileSet.getTileCount();
+    List<Entry> analysed = new ArrayList<>(count);
+
+    for (int i = 0; i < count; i++) {
+      BufferedImage image = tileSet.getTile(i).getTileAsImage();
+      analysed.add(new Entry(tileSet, i, dominantColour(image), perceptualHash(image)));
+    }
+
+    return analysed;
+  }
+
+  /**
+   * Finds the most common colour in an image. Opaque pixels are bucketed by the top 4 bits of each
+   * channel and the average of the fullest bucket is returned, so slight noise does not split a
+   * colour. Fully transparent pixels are ignored.
+   *
+   * @param image the image to analyse
+   * @return the dominant colour as packed RGB, or 0 if the image is fully transparent
+   */
+  public static int dominantColour(BufferedImage image) {
+    int[] pixels = image.getRGB(0, 0, image.getWidth(), image.getHeight(), null, 0,
+            image.getWidth());
+    int[] counts = new int[4096];
+    long[] red = new long[4096];
+    long[] green = new long[4096];
+    long[] blue = new long[4096];
+
+    for (int pixel : pixels) {
+      if ((pixel >>> 24) == 0) {
+        continue;
+      }
+
+      int r = (pixel >> 16) & 0xff;
+      int g = (pixel >> 8) & 0xff;
+      int b = pixel & 0xff;
+      int bucket = ((r >> 4) << 8) | ((g >> 4) << 4) | (b >> 4);
+
+      counts[bucket]++;
+      red[bucket] += r;
+      green[bucket] += g;
+      blue[bucket] += b;
+    }
+
+    int best = -1;
+
+    for (int i = 0; i < counts.length; i++) {
+      if (counts[i] > 0 && (best < 0 || counts[i] > counts[best])) {
+        best = i;
+      }
+    }
+
+    if (best < 0) {
+      return 0;
+    }
+
+    int n = counts[best];
+
+    return (int) (red[best] / n) << 16 | (int) (green[best] / n) << 8 | (int) (blue[best] / n);
+  }
+
+  /**
+   * Computes a 64 bit difference hash: the image is shrunk to 9x8 grey pixels and each bit records
+   * whether a pixel is brighter than its right-hand neighbour.
+   *
+   * @param image the image to hash
+   * @return the hash
+   */
+  public static long perceptualHash(BufferedImage image) {
+    BufferedImage small = new BufferedImage(9, 8, BufferedImage.TYPE_INT_ARGB);
+    Graphics2D g = small.createGraphics();
+    g.setRenderingHint(RenderingHints.KEY_INTERPOLATION,
+            RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+    g.drawImage(image, 0, 0, 9, 8, null);
+    g.dispose();
+
+    int[] pixels = small.getRGB(0, 0, 9, 8, null, 0, 9);
+    long hash = 0;
+
+    for (int y = 0; y < 8; y++) {
+      for (int x = 0; x < 8; x++) {
+        hash <<= 1;
+
+        if (luminance(pixels[y * 9 + x]) > luminance(pixels[y * 9 + x + 1])) {
+          hash |= 1;
+        }
+      }
+    }
+
+    return hash;
+  }
+
+  private static int luminance(int argb) {
+    int alpha = argb >>> 24;
+    int r = (argb >> 16) & 0xff;
+    int g = (argb >> 8) & 0xff;
+    int b = argb & 0xff;
+
+    // Transparent areas count as black so that shape still registers.
+    return (299 * r + 587 * g + 114 * b) * alpha / 255000;
+  }
+
+  private static long colourDistance(int a, int b) {
+    long dr = ((a >> 16) & 0xff) - ((b >> 16) & 0xff);
+    long dg = ((a >> 8) & 0xff) - ((b >> 8) & 0xff);
+    long db = (a & 0xff) - (b & 0xff);
+
+    return dr * dr + dg * dg + db * db;
+  }
+
+}
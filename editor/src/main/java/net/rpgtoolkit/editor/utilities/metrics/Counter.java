@@ -0,0 +1,36 @@
+/**
+ * Copyright (c) 2015, rpgtoolkit.net <help@rpgtoolkit.net>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public License, v. 2.0. If a copy of
+ * the MPL was not distributed with this file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package net.rpgtoolkit.editor.utilities.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A count of how many times something has happened, safe to update from any thread.
+ */
+public class Counter implements CounterMBean {
+
+  private final AtomicLong count = new AtomicLong();
+
+  public void increment() {
+    count.incrementAndGet();
+  }
+
+  public void increment(long amount) {
+    count.addAndGet(amount);
+  }
+
+  @Override
+  public long getCount() {
+    return count.get();
+  }
+
+  @Override
+  public String toString() {
+    return Long.toString(count.get());
+  }
+
+}
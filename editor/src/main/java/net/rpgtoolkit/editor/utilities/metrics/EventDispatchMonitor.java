@@ -0,0 +1,72 @@
+/**
+ * Copyright (c) 2015, rpgtoolkit.net <help@rpgtoolkit.net>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public License, v. 2.0. If a copy of
+ * the MPL was not distributed with this file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package net.rpgtoolkit.editor.utilities.metrics;
+
+import java.awt.EventQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how long events wait on the Swing event queue before they are dispatched. At a fixed
+ * interval a probe event is posted to the queue and the time until it runs is recorded in the
+ * "edt.dispatch.latency" timer. A responsive editor keeps this well under a frame.
+ */
+public class EventDispatchMonitor {
+
+  private final long intervalMillis;
+  private final Timer latency;
+
+  private ScheduledExecutorService scheduler;
+
+  /**
+   *
+   * @param intervalMillis how often to probe the event queue
+   */
+  public EventDispatchMonitor(long intervalMillis) {
+    this.intervalMillis = intervalMillis;
+    this.latency = MetricsRegistry.getInstance().timer("edt.dispatch.latency");
+  }
+
+  public synchronized void start() {
+    if (scheduler != null) {
+      return;
+    }
+
+    scheduler = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+      @Override
+      public Thread newThread(Runnable runnable) {
+        Thread thread = new Thread(runnable, "edt-monitor");
+        thread.setDaemon(true);
+        return thread;
+      }
+    });
+
+    scheduler.scheduleWithFixedDelay(new Runnable() {
+      @Override
+      public void run() {
+        final long posted = System.nanoTime();
+
+        EventQueue.invokeLater(new Runnable() {
+          @Override
+          public void run() {
+            latency.stop(posted);
+          }
+        });
+      }
+    }, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+  }
+
+  public synchronized void stop() {
+    if (scheduler != null) {
+      scheduler.shutdownNow();
+      scheduler = null;
+    }
+  }
+
+}
@@ -0,0 +1,258 @@
+/**
+ * Copyright (c) 2015, rpgtoolkit.net <help@rpgtoolkit.net>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public License, v. 2.0. If a copy of
+ * the MPL was not distributed with this file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package net.rpgtoolkit.editor.utilities.metrics;
+
+import java.awt.EventQueue;
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.FileHandler;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.logging.SimpleFormatter;
+
+/**
+ * Detects when the Swing event dispatch thread stops processing events. A watchdog thread posts a
+ * probe event to the queue and, if it has not run within the threshold, captures the EDT's stack
+ * so the blocking call can be found. Each stall is reported once, when it crosses the threshold,
+ * and again with its total duration when the EDT recovers.
+ *
+ * Reports go to the registered {@link StallListener}s, and to a set of rotating log files in
+ * ~/.rpgtoolkit/logs when {@link #logToDirectory(java.io.File)} has been called. The threshold
+ * defaults to {@value #DEFAULT_THRESHOLD_MILLIS} ms and can be changed with the
+ * {@value #THRESHOLD_PROPERTY} system property.
+ */
+public class EventDispatchWatchdog {
+
+  public static final String THRESHOLD_PROPERTY = "rpgtoolkit.edt.stallThreshold";
+  public static final long DEFAULT_THRESHOLD_MILLIS = 500;
+
+  public static final File DEFAULT_LOG_DIRECTORY = new File(
+          System.getProperty("user.home") + File.separator + ".rpgtoolkit"
+          + File.separator + "logs");
+
+  private static final Logger LOGGER = Logger.getLogger(EventDispatchWatchdog.class.getName());
+
+  private static final int LOG_FILE_LIMIT = 1024 * 1024;
+  private static final int LOG_FILE_COUNT = 5;
+
+  /**
+   * Notified from the watchdog thread, or the EDT once a stall has ended. Implementations that
+   * touch Swing components must hand off with invokeLater.
+   */
+  public interface StallListener {
+
+    /**
+     *
+     * @param elapsedMillis how long the EDT has been blocked so far
+     * @param stack what the EDT was doing when the stall was detected
+     */
+    public void stallDetected(long elapsedMillis, StackTraceElement[] stack);
+
+    /**
+     *
+     * @param elapsedMillis how long the EDT was blocked in total
+     */
+    public void stallEnded(long elapsedMillis);
+  }
+
+  private final long thresholdNanos;
+  private final List<StallListener> listeners = new CopyOnWriteArrayList<>();
+
+  // When the probe in flight was posted, or 0 if there isn't one.
+  private final AtomicLong probePosted = new AtomicLong();
+  // Claimed by whichever of the watchdog or the probe gets there first, so a probe that runs just
+  // as the threshold passes is either reported as a stall and a recovery, or not at all.
+  private final AtomicBoolean probeClaimed = new AtomicBoolean();
+  private volatile Thread eventDispatchThread;
+
+  private final Counter stalls = MetricsRegistry.getInstance().counter("edt.stalls");
+  private final Timer stallDuration = MetricsRegistry.getInstance().timer("edt.stall.duration");
+
+  private FileHandler fileHandler;
+  private Thread thread;
+
+  /**
+   * Creates a watchdog using the threshold from the {@value #THRESHOLD_PROPERTY} system property.
+   */
+  public EventDispatchWatchdog() {
+    this(Long.getLong(THRESHOLD_PROPERTY, DEFAULT_THRESHOLD_MILLIS));
+  }
+
+  /**
+   *
+   * @param thresholdMillis how long the EDT may go without processing an event before it is
+   * reported as stalled
+   */
+  public EventDispatchWatchdog(long thresholdMillis) {
+    if (thresholdMillis <= 0) {
+      throw new IllegalArgumentException("threshold must be positive: " + thresholdMillis);
+    }
+
+    this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMillis);
+  }
+
+  public long getThresholdMillis() {
+    return TimeUnit.NANOSECONDS.toMillis(thresholdNanos);
+  }
+
+  public void addStallListener(StallListener listener) {
+    listeners.add(listener);
+  }
+
+  public void removeStallListener(StallListener listener) {
+    listeners.remove(listener);
+  }
+
+  /**
+   * Also writes stall reports to rotating log files named edt-stalls.N.log in the directory.
+   *
+   * @param directory where to keep the log files
+   * @throws IOException if the directory or log file can't be created
+   */
+  public synchronized void logToDirectory(File directory) throws IOException {
+    if (!directory.isDirectory() && !directory.mkdirs()) {
+      throw new IOException("Failed to create " + directory);
+    }
+
+    if (fileHandler != null) {
+      LOGGER.removeHandler(fileHandler);
+      fileHandler.close();
+    }
+
+    fileHandler = new FileHandler(new File(directory, "edt-stalls.%g.log").getPath(),
+            LOG_FILE_LIMIT, LOG_FILE_COUNT, true);
+    fileHandler.setFormatter(new SimpleFormatter());
+    LOGGER.addHandler(fileHandler);
+    // Stack traces go to the log files only, not the console as well.
+    LOGGER.setUseParentHandlers(false);
+  }
+
+  public synchronized void start() {
+    if (thread != null) {
+      return;
+    }
+
+    thread = new Thread(new Runnable() {
+      @Override
+      public void run() {
+        watch();
+      }
+    }, "edt-watchdog");
+    thread.setDaemon(true);
+    thread.setPriority(Thread.MAX_PRIORITY);
+    thread.start();
+  }
+
+  public synchronized void stop() {
+    if (thread != null) {
+      thread.interrupt();
+      thread = null;
+    }
+
+    if (fileHandler != null) {
+      LOGGER.removeHandler(fileHandler);
+      LOGGER.setUseParentHandlers(true);
+      fileHandler.close();
+      fileHandler = null;
+    }
+  }
+
+  private void watch() {
+    long interval = Math.max(10, TimeUnit.NANOSECONDS.toMillis(thresholdNanos) / 4);
+
+    while (!Thread.currentThread().isInterrupted()) {
+      long posted = probePosted.get();
+
+      if (posted == 0) {
+        postProbe();
+      } else if (System.nanoTime() - posted > thresholdNanos
+              && probeClaimed.compareAndSet(false, true)) {
+        reportStall(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - posted));
+      }
+
+      try {
+        Thread.sleep(interval);
+      } catch (InterruptedException ex) {
+        return;
+      }
+    }
+  }
+
+  private void postProbe() {
+    final long posted = System.nanoTime();
+    probeClaimed.set(false);
+    probePosted.set(posted);
+
+    EventQueue.invokeLater(new Runnable() {
+      @Override
+      public void run() {
+        eventDispatchThread = Thread.currentThread();
+
+        // If the watchdog claimed the probe first it has already reported the stall.
+        boolean reported = !probeClaimed.compareAndSet(false, true);
+        probePosted.set(0);
+
+        if (reported) {
+          long elapsed = stallDuration.stop(posted);
+          reportRecovery(TimeUnit.NANOSECONDS.toMillis(elapsed));
+        }
+      }
+    });
+  }
+
+  private void reportStall(long elapsedMillis) {
+    stalls.increment();
+
+    Thread edt = findEventDispatchThread();
+    StackTraceElement[] stack = edt == null ? new StackTraceElement[0] : edt.getStackTrace();
+
+    StringBuilder report = new StringBuilder();
+    report.append("Event dispatch thread blocked for ").append(elapsedMillis).append(" ms");
+
+    for (StackTraceElement element : stack) {
+      report.append("\n\tat ").append(element);
+    }
+
+    LOGGER.log(Level.WARNING, report.toString());
+
+    for (StallListener listener : listeners) {
+      listener.stallDetected(elapsedMillis, stack);
+    }
+  }
+
+  private void reportRecovery(long elapsedMillis) {
+    LOGGER.log(Level.WARNING, "Event dispatch thread recovered after {0} ms", elapsedMillis);
+
+    for (StallListener listener : listeners) {
+      listener.stallEnded(elapsedMillis);
+    }
+  }
+
+  private Thread findEventDispatchThread() {
+    Thread edt = eventDispatchThread;
+
+    if (edt != null && edt.isAlive()) {
+      return edt;
+    }
+
+    // The first probe has not run yet, or the EDT was replaced after an uncaught exception.
+    for (Map.Entry<Thread, StackTraceElement[]> entry : Thread.getAllStackTraces().entrySet()) {
+      if (entry.getKey().getName().startsWith("AWT-EventQueue")) {
+        return entry.getKey();
+      }
+    }
+
+    return null;
+  }
+
+}
@@ -0,0 +1,103 @@
+/**
+ * Copyright (c) 2015, rpgtoolkit.net <help@rpgtoolkit.net>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public License, v. 2.0. If a copy of
+ * the MPL was not distributed with this file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package net.rpgtoolkit.editor.utilities.metrics;
+
+import java.util.Arrays;
+
+/**
+ * The distribution of a stream of values. Minimum, maximum, mean and count cover every value
+ * recorded, percentiles are taken from the most recent {@value #WINDOW} values so they follow
+ * what the editor is doing now rather than since it started. Safe to update from any thread.
+ */
+public class Histogram implements HistogramMBean {
+
+  static final int WINDOW = 1024;
+
+  private final long[] window = new long[WINDOW];
+  private int next;
+  private int size;
+
+  private long count;
+  private long total;
+  private long min = Long.MAX_VALUE;
+  private long max = Long.MIN_VALUE;
+
+  public synchronized void update(long value) {
+    window[next] = value;
+    next = (next + 1) % WINDOW;
+    size = Math.min(size + 1, WINDOW);
+
+    count++;
+    total += value;
+    min = Math.min(min, value);
+    max = Math.max(max, value);
+  }
+
+  @Override
+  public synchronized long getCount() {
+    return count;
+  }
+
+  @Override
+  public synchronized long getMin() {
+    return count == 0 ? 0 : min;
+  }
+
+  @Override
+  public synchronized long getMax() {
+    return count == 0 ? 0 : max;
+  }
+
+  @Override
+  public synchronized double getMean() {
+    return count == 0 ? 0 : (double) total / count;
+  }
+
+  @Override
+  public long get50thPercentile() {
+    return getPercentile(0.5);
+  }
+
+  @Override
+  public long get95thPercentile() {
+    return getPercentile(0.95);
+  }
+
+  @Override
+  public long get99thPercentile() {
+    return getPercentile(0.99);
+  }
+
+  /**
+   *
+   * @param quantile between 0 and 1
+   * @return the value at the quantile of the recent values, or 0 if nothing has been recorded
+   */
+  public long getPercentile(double quantile) {
+    long[] values;
+
+    synchronized (this) {
+      if (size == 0) {
+        return 0;
+      }
+
+      values = Arrays.copyOf(window, size);
+    }
+
+    Arrays.sort(values);
+    int index = (int) Math.ceil(quantile * values.length) - 1;
+
+    return values[Math.max(0, Math.min(index, values.length - 1))];
+  }
+
+  @Override
+  public String toString() {
+    return String.format("count=%d min=%d mean=%.1f p95=%d max=%d",
+            getCount(), getMin(), getMean(), get95thPercentile(), getMax());
+  }
+
+}
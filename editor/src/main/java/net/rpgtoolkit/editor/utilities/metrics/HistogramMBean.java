@@ -0,0 +1,28 @@
+/**
+ * Copyright (c) 2015, rpgtoolkit.net <help@rpgtoolkit.net>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public License, v. 2.0. If a copy of
+ * the MPL was not distributed with this file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package net.rpgtoolkit.editor.utilities.metrics;
+
+/**
+ * JMX view of a {@link Histogram}.
+ */
+public interface HistogramMBean {
+
+  public long getCount();
+
+  public long getMin();
+
+  public long getMax();
+
+  public double getMean();
+
+  public long get50thPercentile();
+
+  public long get95thPercentile();
+
+  public long get99thPercentile();
+
+}
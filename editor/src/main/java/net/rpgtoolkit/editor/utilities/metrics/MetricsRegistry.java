@@ -0,0 +1,128 @@
+/**
+ * Copyright (c) 2015, rpgtoolkit.net <help@rpgtoolkit.net>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public License, v. 2.0. If a copy of
+ * the MPL was not distributed with this file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package net.rpgtoolkit.editor.utilities.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * The editor's shared set of named counters, histograms and timers. Each metric is created the
+ * first time it is asked for and registered with the platform MBean server under the
+ * {@value #DOMAIN} domain, so it can be watched with jconsole or any other JMX client.
+ *
+ * Names are dotted lower case, e.g. "asset.load.board" or "board.repaint".
+ */
+public final class MetricsRegistry {
+
+  public static final String DOMAIN = "net.rpgtoolkit.editor";
+
+  private static final MetricsRegistry instance = new MetricsRegistry(
+          ManagementFactory.getPlatformMBeanServer());
+
+  private final MBeanServer server;
+  private final ConcurrentMap<String, Object> metrics = new ConcurrentHashMap<>();
+
+  /**
+   *
+   * @param server the server to register metrics with, or null to keep them private
+   */
+  MetricsRegistry(MBeanServer server) {
+    this.server = server;
+  }
+
+  public static MetricsRegistry getInstance() {
+    return instance;
+  }
+
+  public Counter counter(String name) {
+    return getOrRegister(name, new Counter());
+  }
+
+  public Histogram histogram(String name) {
+    return getOrRegister(name, new Histogram());
+  }
+
+  public Timer timer(String name) {
+    return getOrRegister(name, new Timer());
+  }
+
+  /**
+   * Builds a human readable summary of every metric that has been recorded at least once.
+   *
+   * @return one metric per line, sorted by name
+   */
+  public String getSummary() {
+    Map<String, Object> sorted = new TreeMap<>(metrics);
+    StringBuilder builder = new StringBuilder();
+
+    for (Map.Entry<String, Object> entry : sorted.entrySet()) {
+      Object metric = entry.getValue();
+
+      if (metric instanceof Counter && ((Counter) metric).getCount() == 0
+              || metric instanceof Histogram && ((Histogram) metric).getCount() == 0
+              || metric instanceof Timer && ((Timer) metric).getCount() == 0) {
+        continue;
+      }
+
+      builder.append(entry.getKey()).append(": ").append(metric).append('\n');
+    }
+
+    return builder.toString();
+  }
+
+  /**
+   * Gets the metric with the given name, registering the candidate if there isn't one yet.
+   *
+   * @param name the metric's name
+   * @param candidate a new metric to use if the name is free
+   * @return the registered metric, of the same type as the candidate
+   */
+  private <T> T getOrRegister(String name, T candidate) {
+    Object metric = metrics.putIfAbsent(name, candidate);
+
+    if (metric == null) {
+      register(name, candidate);
+      return candidate;
+    }
+
+    if (metric.getClass() != candidate.getClass()) {
+      throw new IllegalArgumentException(name + " is already registered as a "
+              + metric.getClass().getSimpleName());
+    }
+
+    @SuppressWarnings("unchecked")
+    T existing = (T) metric;
+    return existing;
+  }
+
+  private void register(String name, Object metric) {
+    if (server == null) {
+      return;
+    }
+
+    try {
+      ObjectName objectName = new ObjectName(DOMAIN + ":type="
+              + metric.getClass().getSimpleName() + ",name=" + ObjectName.quote(name));
+
+      if (!server.isRegistered(objectName)) {
+        server.registerMBean(metric, objectName);
+      }
+    } catch (JMException ex) {
+      Logger.getLogger(MetricsRegistry.class.getName()).log(Level.WARNING,
+              "Failed to register metric " + name, ex);
+    }
+  }
+
+}
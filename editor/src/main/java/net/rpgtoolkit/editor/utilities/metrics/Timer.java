@@ -0,0 +1,86 @@
+/**
+ * Copyright (c) 2015, rpgtoolkit.net <help@rpgtoolkit.net>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public License, v. 2.0. If a copy of
+ * the MPL was not distributed with this file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package net.rpgtoolkit.editor.utilities.metrics;
+
+/**
+ * The distribution of how long something takes. Durations are recorded in nanoseconds and
+ * reported in milliseconds:
+ *
+ * <pre>
+ * long start = System.nanoTime();
+ * ...
+ * timer.stop(start);
+ * </pre>
+ */
+public class Timer implements TimerMBean {
+
+  private static final double NANOS_PER_MILLI = 1000000.0;
+
+  private final Histogram nanos = new Histogram();
+
+  /**
+   * Records the time since a start time taken from {@link System#nanoTime()}.
+   *
+   * @param startNanos when the timed operation started
+   * @return the elapsed time in nanoseconds
+   */
+  public long stop(long startNanos) {
+    long elapsed = System.nanoTime() - startNanos;
+    nanos.update(elapsed);
+    return elapsed;
+  }
+
+  /**
+   *
+   * @param elapsedNanos a duration in nanoseconds
+   */
+  public void update(long elapsedNanos) {
+    nanos.update(elapsedNanos);
+  }
+
+  @Override
+  public long getCount() {
+    return nanos.getCount();
+  }
+
+  @Override
+  public double getMinMillis() {
+    return nanos.getMin() / NANOS_PER_MILLI;
+  }
+
+  @Override
+  public double getMaxMillis() {
+    return nanos.getMax() / NANOS_PER_MILLI;
+  }
+
+  @Override
+  public double getMeanMillis() {
+    return nanos.getMean() / NANOS_PER_MILLI;
+  }
+
+  @Override
+  public double get50thPercentileMillis() {
+    return nanos.get50thPercentile() / NANOS_PER_MILLI;
+  }
+
+  @Override
+  public double get95thPercentileMillis() {
+    return nanos.get95thPercentile() / NANOS_PER_MILLI;
+  }
+
+  @Override
+  public double get99thPercentileMillis() {
+    return nanos.get99thPercentile() / NANOS_PER_MILLI;
+  }
+
+  @Override
+  public String toString() {
+    return String.format("count=%d mean=%.2fms p95=%.2fms max=%.2fms",
+            getCount(), getMeanMillis(), get95thPercentileMillis(), getMaxMillis());
+  }
+
+}
@@ -0,0 +1,28 @@
+/**
+ * Copyright (c) 2015, rpgtoolkit.net <help@rpgtoolkit.net>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public License, v. 2.0. If a copy of
+ * the MPL was not distributed with this file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package net.rpgtoolkit.editor.utilities.metrics;
+
+/**
+ * JMX view of a {@link Timer}, all durations are in milliseconds.
+ */
+public interface TimerMBean {
+
+  public long getCount();
+
+  public double getMinMillis();
+
+  public double getMaxMillis();
+
+  public double getMeanMillis();
+
+  public double get50thPercentileMillis();
+
+  public double get95thPercentileMillis();
+
+  public double get99thPercentileMillis();
+
+}
@@ -0,0 +1,73 @@
+/**
+ * Copyright (c) 2015, rpgtoolkit.net <help@rpgtoolkit.net>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public License, v. 2.0. If a copy of
+ * the MPL was not distributed with this file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package net.rpgtoolkit.editor.utilities;
+
+import java.util.Arrays;
+import java.util.Set;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class AssetReferenceIndexTest {
+
+  private AssetReferenceIndex index;
+
+  @Before
+  public void setUp() {
+    index = new AssetReferenceIndex();
+  }
+
+  @After
+  public void tearDown() {
+    index.shutdown();
+  }
+
+  /**
+   * Test of update and findUsages methods, of class AssetReferenceIndex.
+   */
+  @Test
+  public void testFindUsages() {
+    index.update("Boards/town.brd", Arrays.asList("Media/town.mp3", "Prg/enter.prg"));
+    index.update("Boards/field.brd", Arrays.asList("Media/town.mp3"));
+
+    Set<String> usages = index.findUsages("Media/town.mp3");
+    assertEquals(2, usages.size());
+    assertTrue(usages.contains("Boards/town.brd"));
+    assertTrue(usages.contains("Boards/field.brd"));
+
+    assertEquals(1, index.findUsages("Prg\\enter.prg").size());
+    assertTrue(index.findUsages("Media/missing.mp3").isEmpty());
+  }
+
+  /**
+   * Re-indexing a source must drop references it no longer makes.
+   */
+  @Test
+  public void testUpdateReplacesReferences() {
+    index.update("Boards/town.brd", Arrays.asList("Media/town.mp3"));
+    index.update("Boards/town.brd", Arrays.asList("Media/night.mp3"));
+
+    assertTrue(index.findUsages("Media/town.mp3").isEmpty());
+    assertEquals(1, index.findUsages("Media/night.mp3").size());
+    assertEquals(1, index.size());
+  }
+
+  /**
+   * Test of remove method, of class AssetReferenceIndex.
+   */
+  @Test
+  public void testRemove() {
+    index.update("Boards/town.brd", Arrays.asList("Media/town.mp3"));
+    index.remove("Boards/town.brd");
+
+    assertTrue(index.findUsages("Media/town.mp3").isEmpty());
+    assertTrue(index.getReferences("Boards/town.brd").isEmpty());
+    assertEquals(0, index.size());
+  }
+
+}
@@ -7,6 +7,9 @@
 package net.rpgtoolkit.editor.utilities;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import org.junit.After;
 import org.junit.AfterClass;
 import org.junit.Before;
@@ -85,5 +88,26 @@ public class FileToolsTest {
     // TODO review the generated test code and remove the default call to fail.
     fail("The test case is a prototype.");
   }
+
+  /**
+   * Test of moveAtomically method, of class FileTools.
+   */
+  @Test
+  public void testMoveAtomically() throws IOException {
+    System.out.println("moveAtomically");
+    File target = File.createTempFile("board", ".brd.json");
+    target.deleteOnExit();
+    Files.write(target.toPath(), "old".getBytes(StandardCharsets.UTF_8));
+
+    File temporary = FileTools.getTemporaryFile(target);
+    assertEquals(target.getParentFile(), temporary.getParentFile());
+    assertTrue(temporary.getName().endsWith(".brd.json"));
+
+    Files.write(temporary.toPath(), "new".getBytes(StandardCharsets.UTF_8));
+    FileTools.moveAtomically(temporary, target);
+
+    assertFalse(temporary.exists());
+    assertEquals("new", new String(Files.readAllBytes(target.toPath()), StandardCharsets.UTF_8));
+  }
   
 }
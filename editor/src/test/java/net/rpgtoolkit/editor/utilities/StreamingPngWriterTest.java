@@ -0,0 +1,70 @@
+/**
+ * Copyright (c) 2015, rpgtoolkit.net <help@rpgtoolkit.net>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public License, v. 2.0. If a copy of
+ * the MPL was not distributed with this file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package net.rpgtoolkit.editor.utilities;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Random;
+import javax.imageio.ImageIO;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class StreamingPngWriterTest {
+
+  /**
+   * An image written in strips must decode to exactly the same pixels.
+   */
+  @Test
+  public void testRoundTrip() throws IOException {
+    int width = 301;
+    int height = 257;
+    BufferedImage source = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+    Random random = new Random(1);
+
+    for (int y = 0; y < height; y++) {
+      for (int x = 0; x < width; x++) {
+        // Mix smooth gradients with noisy rows so both filters get used.
+        int argb = y % 7 == 0 ? random.nextInt()
+                : ((x + y) % 256) << 24 | (x * 3 % 256) << 16 | (y * 5 % 256) << 8 | (x ^ y) % 256;
+        source.setRGB(x, y, argb);
+      }
+    }
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    StreamingPngWriter writer = new StreamingPngWriter(out, width, height);
+
+    for (int top = 0; top < height; top += 40) {
+      int rows = Math.min(40, height - top);
+      writer.writeRows(source.getRGB(0, top, width, rows, null, 0, width), 0, rows);
+    }
+
+    writer.close();
+
+    BufferedImage decoded = ImageIO.read(new ByteArrayInputStream(out.toByteArray()));
+    assertEquals(width, decoded.getWidth());
+    assertEquals(height, decoded.getHeight());
+
+    for (int y = 0; y < height; y++) {
+      for (int x = 0; x < width; x++) {
+        assertEquals(source.getRGB(x, y), decoded.getRGB(x, y));
+      }
+    }
+  }
+
+  /**
+   * Closing before every row has been written must fail rather than produce a truncated image.
+   */
+  @Test(expected = IllegalStateException.class)
+  public void testCloseIncomplete() throws IOException {
+    StreamingPngWriter writer = new StreamingPngWriter(new ByteArrayOutputStream(), 4, 4);
+    writer.writeRows(new int[8], 0, 2);
+    writer.close();
+  }
+
+}
@@ -0,0 +1,33 @@
+/**
+ * Copyright (c) 2015, rpgtoolkit.net <help@rpgtoolkit.net>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public License, v. 2.0. If a copy of
+ * the MPL was not distributed with this file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package net.rpgtoolkit.editor.utilities;
+
+import java.awt.image.BufferedImage;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class ThumbnailServiceTest {
+
+  /**
+   * Test of scale method, of class ThumbnailService.
+   */
+  @Test
+  public void testScalePreservesAspectRatio() {
+    BufferedImage image = new BufferedImage(1000, 500, BufferedImage.TYPE_INT_ARGB);
+
+    BufferedImage thumbnail = ThumbnailService.scale(image, 64, 64);
+    assertEquals(64, thumbnail.getWidth());
+    assertEquals(32, thumbnail.getHeight());
+
+    image = new BufferedImage(30, 60, BufferedImage.TYPE_INT_ARGB);
+
+    thumbnail = ThumbnailService.scale(image, 64, 64);
+    assertEquals(32, thumbnail.getWidth());
+    assertEquals(64, thumbnail.getHeight());
+  }
+
+}
@@ -0,0 +1,68 @@
+/**
+ * Copyright (c) 2015, rpgtoolkit.net <help@rpgtoolkit.net>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public License, v. 2.0. If a copy of
+ * the MPL was not distributed with this file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package net.rpgtoolkit.editor.utilities;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class TileIndexTest {
+
+  /**
+   * Test of dominantColour method, of class TileIndex.
+   */
+  @Test
+  public void testDominantColour() {
+    BufferedImage image = new BufferedImage(32, 32, BufferedImage.TYPE_INT_ARGB);
+    Graphics2D g = image.createGraphics();
+    g.setColor(Color.GREEN);
+    g.fillRect(0, 0, 32, 20);
+    g.setColor(Color.BLUE);
+    g.fillRect(0, 20, 32, 12);
+    g.dispose();
+
+    assertEquals(Color.GREEN.getRGB() & 0xffffff, TileIndex.dominantColour(image));
+  }
+
+  /**
+   * Transparent pixels must not count towards the dominant colour.
+   */
+  @Test
+  public void testDominantColourIgnoresTransparency() {
+    BufferedImage image = new BufferedImage(32, 32, BufferedImage.TYPE_INT_ARGB);
+    image.setRGB(0, 0, Color.RED.getRGB());
+
+    assertEquals(Color.RED.getRGB() & 0xffffff, TileIndex.dominantColour(image));
+  }
+
+  /**
+   * Test of perceptualHash method, of class TileIndex.
+   */
+  @Test
+  public void testPerceptualHash() {
+    BufferedImage gradient = new BufferedImage(32, 32, BufferedImage.TYPE_INT_ARGB);
+    BufferedImage noisy = new BufferedImage(32, 32, BufferedImage.TYPE_INT_ARGB);
+    BufferedImage reversed = new BufferedImage(32, 32, BufferedImage.TYPE_INT_ARGB);
+
+    for (int y = 0; y < 32; y++) {
+      for (int x = 0; x < 32; x++) {
+        int grey = x * 8;
+        gradient.setRGB(x, y, new Color(grey, grey, grey).getRGB());
+        noisy.setRGB(x, y, new Color(grey, grey, Math.min(255, grey + 3)).getRGB());
+        reversed.setRGB(x, y, new Color(255 - grey, 255 - grey, 255 - grey).getRGB());
+      }
+    }
+
+    long hash = TileIndex.perceptualHash(gradient);
+
+    assertTrue(Long.bitCount(hash ^ TileIndex.perceptualHash(noisy)) <= 4);
+    assertTrue(Long.bitCount(hash ^ TileIndex.perceptualHash(reversed)) > 32);
+  }
+
+}
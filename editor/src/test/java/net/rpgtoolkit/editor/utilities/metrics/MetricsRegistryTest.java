@@ -0,0 +1,108 @@
+/**
+ * Copyright (c) 2015, rpgtoolkit.net <help@rpgtoolkit.net>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public License, v. 2.0. If a copy of
+ * the MPL was not distributed with this file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package net.rpgtoolkit.editor.utilities.metrics;
+
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class MetricsRegistryTest {
+
+  private MetricsRegistry registry;
+
+  @Before
+  public void setUp() {
+    registry = new MetricsRegistry(null);
+  }
+
+  /**
+   * Asking for the same name twice must return the same metric.
+   */
+  @Test
+  public void testCounter() {
+    registry.counter("test.count").increment();
+    registry.counter("test.count").increment(2);
+
+    assertSame(registry.counter("test.count"), registry.counter("test.count"));
+    assertEquals(3, registry.counter("test.count").getCount());
+  }
+
+  /**
+   * Test of the statistics reported by class Histogram.
+   */
+  @Test
+  public void testHistogram() {
+    Histogram histogram = registry.histogram("test.values");
+
+    for (int i = 1; i <= 100; i++) {
+      histogram.update(i);
+    }
+
+    assertEquals(100, histogram.getCount());
+    assertEquals(1, histogram.getMin());
+    assertEquals(100, histogram.getMax());
+    assertEquals(50.5, histogram.getMean(), 0.001);
+    assertEquals(50, histogram.get50thPercentile());
+    assertEquals(95, histogram.get95thPercentile());
+  }
+
+  /**
+   * Percentiles only cover the most recent values.
+   */
+  @Test
+  public void testHistogramWindow() {
+    Histogram histogram = registry.histogram("test.window");
+
+    for (int i = 0; i < Histogram.WINDOW; i++) {
+      histogram.update(1000);
+    }
+
+    for (int i = 0; i < Histogram.WINDOW; i++) {
+      histogram.update(1);
+    }
+
+    assertEquals(1000, histogram.getMax());
+    assertEquals(1, histogram.get99thPercentile());
+  }
+
+  /**
+   * Test of the millisecond conversion in class Timer.
+   */
+  @Test
+  public void testTimer() {
+    Timer timer = registry.timer("test.timer");
+    timer.update(2000000);
+    timer.update(4000000);
+
+    assertEquals(2, timer.getCount());
+    assertEquals(3.0, timer.getMeanMillis(), 0.001);
+    assertEquals(4.0, timer.getMaxMillis(), 0.001);
+  }
+
+  /**
+   * A name can only be used for one kind of metric.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testTypeClash() {
+    registry.counter("test.clash");
+    registry.timer("test.clash");
+  }
+
+  /**
+   * Metrics that have never been updated are left out of the summary.
+   */
+  @Test
+  public void testSummary() {
+    registry.counter("test.unused");
+    registry.counter("test.used").increment();
+
+    String summary = registry.getSummary();
+    assertTrue(summary.contains("test.used: 1"));
+    assertFalse(summary.contains("test.unused"));
+  }
+
+}